@@ -0,0 +1,64 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ActorSystem.actorOf 创建速率, 以及 actorOfAll 批量创建时每个Actor的速率
+ * 创建后立即异步停止, 避免注册表无限增长
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class ActorCreationBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    public record Noop() {}
+
+    public static class IdleActor extends AbstractActor<Noop> {
+        @OnReceive(Noop.class)
+        public void onNoop(Noop noop) {
+        }
+    }
+
+    private ActorSystem system;
+    private final Props<Noop> props = Props.create(IdleActor.class);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public ActorRef<Noop> actorOf() {
+        ActorRef<Noop> ref = system.actorOf(props, BenchmarkSupport.uniqueName("idle"));
+        system.stop(ref);
+        return ref;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<ActorRef<Noop>> actorOfAll() {
+        List<ActorRef<Noop>> refs = system.actorOfAll(props, BATCH, i -> BenchmarkSupport.uniqueName("batch"), null);
+        for (ActorRef<Noop> ref : refs) {
+            system.stop(ref);
+        }
+        return refs;
+    }
+}
@@ -0,0 +1,61 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.pattern.ASK;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AskPattern.ask 请求响应延迟
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class AskBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    public record Request(String payload) {}
+
+    public static class EchoActor extends AbstractActor<Request> {
+        @OnReceive(Request.class)
+        public void onRequest(Request request) {
+            getSender().tell(request.payload(), getSelf());
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Request> echo;
+    private final Request request = new Request("ping");
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        echo = system.actorOf(Props.create(EchoActor.class), BenchmarkSupport.uniqueName("echo"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public Object ask() throws Exception {
+        return ASK.ask(echo, request, TIMEOUT);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object ask8() throws Exception {
+        return ASK.ask(echo, request, TIMEOUT);
+    }
+}
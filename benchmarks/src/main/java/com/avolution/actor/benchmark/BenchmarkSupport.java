@@ -0,0 +1,51 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.ActorSystem;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 基准测试公共设施
+ */
+final class BenchmarkSupport {
+    /**
+     * 基准进程使用的日志配置
+     */
+    static final String LOG_CONFIG = "-Dlog4j2.configurationFile=log4j2-benchmark.xml";
+
+    private static final AtomicInteger NAME_SEQUENCE = new AtomicInteger();
+
+    private BenchmarkSupport() {}
+
+    static ActorSystem newSystem() {
+        return ActorSystem.create("benchmark");
+    }
+
+    static void terminate(ActorSystem system) throws Exception {
+        if (system != null) {
+            system.terminate().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 生成唯一的Actor名称
+     */
+    static String uniqueName(String prefix) {
+        return prefix + "-" + NAME_SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * 自旋等待条件成立, 超时抛出异常, 避免基准卡死
+     */
+    static void awaitUntil(BooleanSupplier condition, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Benchmark condition not reached in " + timeoutMillis + "ms");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
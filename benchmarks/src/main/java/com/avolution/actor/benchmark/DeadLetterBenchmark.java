@@ -0,0 +1,64 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 死信吞吐量: 1/8个生产者向已停止的Actor发送消息, 模拟故障期间大量投递失败
+ * 汇总日志按 avolution.actor.deadletters.log-interval-millis 输出, 不随消息数增长
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar DeadLetterBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class DeadLetterBenchmark {
+
+    public enum Tick {
+        INSTANCE
+    }
+
+    public static class IdleActor extends AbstractActor<Tick> {
+        @OnReceive(Tick.class)
+        public void onTick(Tick tick) {
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Tick> stopped;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        system = BenchmarkSupport.newSystem();
+        stopped = system.actorOf(Props.create(IdleActor.class), BenchmarkSupport.uniqueName("stopped"));
+        system.stop(stopped).get(10, TimeUnit.SECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void deadLetter1() {
+        stopped.tell(Tick.INSTANCE, ActorRef.noSender());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void deadLetter8() {
+        stopped.tell(Tick.INSTANCE, ActorRef.noSender());
+    }
+}
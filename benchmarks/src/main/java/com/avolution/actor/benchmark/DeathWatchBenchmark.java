@@ -0,0 +1,102 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.context.ActorRefRegistry;
+import com.avolution.actor.message.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 关闭一个有 10k 个被监视玩家的房间: 注册玩家、建立监视并注销整个房间子树
+ * 大厅监视所有玩家, 注销时只收到一条批量终止通知
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class DeathWatchBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    // 只记录收到的消息数的轻量引用, 不创建Actor
+    static final class CountingRef implements ActorRef<Object> {
+        final String path;
+        final LongAdder received = new LongAdder();
+
+        CountingRef(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void tell(Object message, ActorRef sender) {
+            received.increment();
+        }
+
+        @Override
+        public void tell(Signal signal, ActorRef sender) {
+            received.increment();
+        }
+
+        @Override
+        public <R> CompletableFuture<R> ask(Object message, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public String name() {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRefRegistry registry;
+    private CountingRef lobby;
+    private CountingRef room;
+    private CountingRef[] players;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        registry = new ActorRefRegistry(system);
+        lobby = new CountingRef("/user/lobby");
+        registry.register(lobby, null);
+        room = new CountingRef("/user/room");
+        players = new CountingRef[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new CountingRef("/user/room/player-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public long closeRoom() {
+        registry.register(room, null);
+        for (CountingRef player : players) {
+            registry.register(player, room.path);
+            registry.watch(lobby, player);
+        }
+        registry.unregister(room.path, "room closed");
+        return lobby.received.sum();
+    }
+}
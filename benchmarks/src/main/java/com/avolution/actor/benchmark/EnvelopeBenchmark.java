@@ -0,0 +1,42 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envelope 分配开销, 配合 -prof gc 查看每条消息的分配字节数
+ * 调试格式可通过 -jvmArgsAppend -Davolution.actor.envelope.debug=true 对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Thread)
+public class EnvelopeBenchmark {
+
+    private final Object payload = "payload";
+    @SuppressWarnings("unchecked")
+    private final ActorRef<Object> recipient = ActorRef.noSender();
+
+    @Benchmark
+    public Envelope<Object> allocate() {
+        return new Envelope<>(payload, ActorRef.noSender(), recipient, MessageType.NORMAL, 1);
+    }
+
+    @Benchmark
+    public long allocateAndReadId() {
+        return new Envelope<>(payload, ActorRef.noSender(), recipient, MessageType.NORMAL, 1).getId();
+    }
+
+    @Benchmark
+    public boolean allocateAndMark() {
+        Envelope<Object> envelope = new Envelope<>(payload, ActorRef.noSender(), recipient, MessageType.NORMAL, 1);
+        envelope.markProcessed("/user/target");
+        return envelope.hasBeenProcessedBy("/user/target");
+    }
+}
@@ -0,0 +1,102 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扇出/扇入: 向一组工作Actor广播请求, 由汇聚Actor收齐全部回复
+ * 结果为一轮广播加汇聚的耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class FanOutFanInBenchmark {
+
+    @Param({"8", "64"})
+    public int workers;
+
+    public record Work(int round) {}
+
+    public record Done(int round) {}
+
+    public record Expect(int round, int replies, CompletableFuture<Void> done) {}
+
+    public static class Worker extends AbstractActor<Work> {
+        private final ActorRef<Object> sink;
+
+        public Worker(ActorRef<Object> sink) {
+            this.sink = sink;
+        }
+
+        @OnReceive(Work.class)
+        public void onWork(Work work) {
+            sink.tell(new Done(work.round()), getSelf());
+        }
+    }
+
+    public static class Sink extends AbstractActor<Object> {
+        private int round = -1;
+        private int remaining;
+        private CompletableFuture<Void> done;
+
+        @OnReceive(Expect.class)
+        public void onExpect(Expect expect) {
+            round = expect.round();
+            remaining = expect.replies();
+            done = expect.done();
+        }
+
+        @OnReceive(Done.class)
+        public void onDone(Done reply) {
+            if (reply.round() == round && --remaining == 0) {
+                done.complete(null);
+            }
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Object> sink;
+    private final List<ActorRef<Work>> workerRefs = new ArrayList<>();
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        sink = system.actorOf(Props.create(Sink.class), BenchmarkSupport.uniqueName("sink"));
+        for (int i = 0; i < workers; i++) {
+            ActorRef<Object> target = sink;
+            workerRefs.add(system.actorOf(Props.create(() -> new Worker(target)), BenchmarkSupport.uniqueName("worker")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        workerRefs.clear();
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public void broadcast() throws Exception {
+        int current = ++round;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        // 汇聚Actor先收到Expect, 邮箱的FIFO保证它先于任何回复被处理
+        sink.tell(new Expect(current, workerRefs.size(), done), ActorRef.noSender());
+        Work work = new Work(current);
+        for (ActorRef<Work> worker : workerRefs) {
+            worker.tell(work, ActorRef.noSender());
+        }
+        done.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,43 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟直方图的记录开销: 1/8个线程同时记录到同一个直方图, 对应同类Actor并发处理消息
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @State(Scope.Thread)
+    public static class Value {
+        long nanos = 1_000;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record1(Value value) {
+        record(value);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void record8(Value value) {
+        record(value);
+    }
+
+    private void record(Value value) {
+        // 在 1us 到 1ms 之间变化, 覆盖多个桶
+        value.nanos = value.nanos < 1_000_000 ? value.nanos * 3 / 2 : 1_000;
+        histogram.record(value.nanos);
+    }
+}
@@ -0,0 +1,136 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.mailbox.Mailbox;
+import com.avolution.actor.mailbox.MpscArrayMailbox;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageHandler;
+import com.avolution.actor.message.MessageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮箱入队/出队基准: 默认的 ConcurrentLinkedQueue 邮箱 与 MPSC 数组邮箱对比
+ * 同一个Envelope重复入队, 只度量邮箱本身的开销, 配合 -prof gc 可以看到每条消息的分配字节数
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar MailboxBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+public class MailboxBenchmark {
+
+    private static final int BATCH = 1024;
+    private static final int CAPACITY = 64 * 1024;
+    // 生产者在积压超过该值时让出, 防止无界邮箱无限增长
+    private static final int BACKLOG_LIMIT = CAPACITY / 2;
+
+    @State(Scope.Group)
+    public static class SharedMailbox {
+        @Param({"unbounded", "mpsc"})
+        public String mailboxType;
+
+        Mailbox mailbox;
+        MessageHandler<Object> handler;
+        Envelope<Object> envelope;
+
+        @Setup(Level.Iteration)
+        public void setup(Blackhole blackhole) {
+            mailbox = newMailbox(mailboxType, Integer.MAX_VALUE);
+            envelope = newEnvelope();
+            handler = blackhole::consume;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LocalMailbox {
+        @Param({"unbounded", "mpsc"})
+        public String mailboxType;
+
+        Mailbox mailbox;
+        MessageHandler<Object> handler;
+        Envelope<Object> envelope;
+
+        @Setup(Level.Iteration)
+        public void setup(Blackhole blackhole) {
+            mailbox = newMailbox(mailboxType, BATCH);
+            envelope = newEnvelope();
+            handler = blackhole::consume;
+        }
+    }
+
+    /**
+     * 单线程: 入队一批后全部取出, 每次操作对应一条消息
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void enqueueDrain(LocalMailbox state) {
+        Mailbox mailbox = state.mailbox;
+        for (int i = 0; i < BATCH; i++) {
+            mailbox.enqueue(state.envelope);
+        }
+        mailbox.process(state.handler);
+    }
+
+    /**
+     * 4个生产者 + 1个消费者
+     */
+    @Benchmark
+    @Group("mpsc4")
+    @GroupThreads(4)
+    public boolean produce4(SharedMailbox state) {
+        return produce(state);
+    }
+
+    @Benchmark
+    @Group("mpsc4")
+    @GroupThreads(1)
+    public void consume4(SharedMailbox state) {
+        state.mailbox.process(state.handler);
+    }
+
+    /**
+     * 16个生产者 + 1个消费者
+     */
+    @Benchmark
+    @Group("mpsc16")
+    @GroupThreads(16)
+    public boolean produce16(SharedMailbox state) {
+        return produce(state);
+    }
+
+    @Benchmark
+    @Group("mpsc16")
+    @GroupThreads(1)
+    public void consume16(SharedMailbox state) {
+        state.mailbox.process(state.handler);
+    }
+
+    private static boolean produce(SharedMailbox state) {
+        Mailbox mailbox = state.mailbox;
+        if (mailbox.size() > BACKLOG_LIMIT) {
+            Thread.onSpinWait();
+            return false;
+        }
+        return mailbox.enqueue(state.envelope);
+    }
+
+    static Mailbox newMailbox(String type, int throughput) {
+        return switch (type) {
+            case "unbounded" -> new Mailbox(throughput);
+            case "mpsc" -> new MpscArrayMailbox(throughput, CAPACITY);
+            default -> throw new IllegalArgumentException("Unknown mailbox type: " + type);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static Envelope<Object> newEnvelope() {
+        return new Envelope<>("payload", ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两个Actor之间的往返延迟
+ * 每次调用发起一轮ROUNDS次往返, 结果为单次往返的平均耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class PingPongBenchmark {
+
+    private static final int ROUNDS = 1000;
+
+    public record Ball(int remaining) {}
+
+    public record Serve(ActorRef<Ball> partner, CompletableFuture<Void> done) {}
+
+    public static class Ponger extends AbstractActor<Ball> {
+        @OnReceive(Ball.class)
+        public void onBall(Ball ball) {
+            getSender().tell(ball, getSelf());
+        }
+    }
+
+    public static class Pinger extends AbstractActor<Object> {
+        private CompletableFuture<Void> done;
+        private ActorRef<Ball> partner;
+
+        @OnReceive(Serve.class)
+        public void onServe(Serve serve) {
+            done = serve.done();
+            partner = serve.partner();
+            partner.tell(new Ball(ROUNDS), getSelf());
+        }
+
+        @OnReceive(Ball.class)
+        public void onBall(Ball ball) {
+            int remaining = ball.remaining() - 1;
+            if (remaining == 0) {
+                done.complete(null);
+            } else {
+                partner.tell(new Ball(remaining), getSelf());
+            }
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Object> pinger;
+    private ActorRef<Ball> ponger;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        pinger = system.actorOf(Props.create(Pinger.class), BenchmarkSupport.uniqueName("pinger"));
+        ponger = system.actorOf(Props.create(Ponger.class), BenchmarkSupport.uniqueName("ponger"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUNDS)
+    public void roundTrip() throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pinger.tell(new Serve(ponger, done), ActorRef.noSender());
+        done.get(10, TimeUnit.SECONDS);
+    }
+}
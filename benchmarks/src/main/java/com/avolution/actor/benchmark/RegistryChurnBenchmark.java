@@ -0,0 +1,91 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorRefRegistry;
+import com.avolution.actor.pattern.PromiseActorRef;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注册表在高频创建/停止下的表现
+ *
+ * registerUnregister: 多线程在同一父节点下注册并注销, 只测注册表本身
+ * createAndStop: 每次调用通过 ActorSystem 创建并停止 1M 个Actor
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+public class RegistryChurnBenchmark {
+
+    private static final int CHURN_ACTORS = 1_000_000;
+
+    public record Noop() {}
+
+    public static class IdleActor extends AbstractActor<Noop> {
+        @OnReceive(Noop.class)
+        public void onNoop(Noop noop) {
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRefRegistry registry;
+    private final Props<Noop> props = Props.create(IdleActor.class);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        registry = new ActorRefRegistry(system);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRefs {
+        // 不创建Actor的轻量引用, 每个线程一个独立路径, 反复注册/注销
+        PromiseActorRef<Object> ref;
+
+        @Setup(Level.Trial)
+        public void newRef(RegistryChurnBenchmark benchmark) {
+            ref = PromiseActorRef.create(benchmark.system, Duration.ofHours(1));
+        }
+
+        @TearDown(Level.Trial)
+        public void complete() {
+            ref.future().complete(null);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(8)
+    public void registerUnregister(ThreadRefs refs) {
+        registry.register(refs.ref, "/user/churn");
+        registry.unregister(refs.ref.path(), "churn");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @OperationsPerInvocation(CHURN_ACTORS)
+    public int createAndStop() {
+        for (int i = 0; i < CHURN_ACTORS; i++) {
+            ActorRef<Noop> ref = system.actorOf(props, BenchmarkSupport.uniqueName("churn"));
+            system.stop(ref);
+        }
+        BenchmarkSupport.awaitUntil(() -> system.getRefRegistry().getRefCount() < 1_000, 120_000);
+        return system.getRefRegistry().getRefCount();
+    }
+}
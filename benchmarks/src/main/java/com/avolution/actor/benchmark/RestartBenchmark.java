@@ -0,0 +1,101 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.strategy.DefaultActorStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 负载下的重启延迟: 一个Actor处理失败后重启, 到下一条排队消息被新实例处理的耗时
+ * 后台有LOADERS个Actor持续互相投递, 使调度器处于繁忙状态; restart 与不失败的 baseline 对比
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class RestartBenchmark {
+
+    private static final int LOADERS = 64;
+
+    public record Fail() {}
+
+    public record Probe(CompletableFuture<Void> done) {}
+
+    public record Spin() {}
+
+    public static class FlakyActor extends AbstractActor<Object> {
+        public FlakyActor() {
+            // 每次失败都重启, 不受默认策略的重启次数限制
+            setStrategy(new DefaultActorStrategy<>() {
+                @Override
+                public void handleFailure(Throwable cause, Envelope<Object> message, AbstractActor<Object> self) {
+                    self.getContext().restart(cause);
+                }
+            });
+        }
+
+        @OnReceive(Fail.class)
+        public void onFail(Fail fail) {
+            throw new IllegalStateException("benchmark failure");
+        }
+
+        @OnReceive(Probe.class)
+        public void onProbe(Probe probe) {
+            probe.done().complete(null);
+        }
+    }
+
+    // 收到消息后再发给自己, 持续占用调度器
+    public static class LoadActor extends AbstractActor<Spin> {
+        @OnReceive(Spin.class)
+        public void onSpin(Spin spin) {
+            getSelf().tell(spin, getSelf());
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Object> flaky;
+    private final List<ActorRef<Spin>> loaders = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        flaky = system.actorOf(Props.create(FlakyActor.class), BenchmarkSupport.uniqueName("flaky"));
+        for (int i = 0; i < LOADERS; i++) {
+            ActorRef<Spin> loader = system.actorOf(Props.create(LoadActor.class), BenchmarkSupport.uniqueName("load"));
+            loader.tell(new Spin(), ActorRef.noSender());
+            loaders.add(loader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public void restart() throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        flaky.tell(new Fail(), ActorRef.noSender());
+        flaky.tell(new Probe(done), ActorRef.noSender());
+        done.get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void baseline() throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        flaky.tell(new Probe(done), ActorRef.noSender());
+        done.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.CoordinatedShutdown;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 协调停止 1M 个Actor的耗时: ROOMS 个顶层Actor, 每个下有 PLAYERS 个子Actor
+ * 每次迭代重新建树, 只计 terminate() 到全部阶段结束; 各阶段耗时见协调停止的INFO日志
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkSupport.LOG_CONFIG, "-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ShutdownBenchmark {
+
+    private static final int ROOMS = 1_000;
+    private static final int PLAYERS = 1_000;
+
+    public record Noop() {}
+
+    public static class IdleActor extends AbstractActor<Noop> {
+        @OnReceive(Noop.class)
+        public void onNoop(Noop noop) {
+        }
+    }
+
+    private ActorSystem system;
+    private final Props<Noop> props = Props.create(IdleActor.class);
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        List<ActorRef<Noop>> rooms = system.actorOfAll(props, ROOMS, i -> "room-" + i, null);
+        for (ActorRef<Noop> room : rooms) {
+            ActorContext roomContext = system.getContextManager().getContext(room.path()).orElseThrow();
+            system.actorOfAll(props, PLAYERS, i -> "player-" + i, roomContext);
+        }
+        // 新建的树先晋升到老年代, 复制它的GC停顿不计入停止耗时
+        System.gc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    public CoordinatedShutdown.Report terminate() throws Exception {
+        system.terminate().get(5, TimeUnit.MINUTES);
+        return system.coordinatedShutdown().run().get();
+    }
+}
@@ -0,0 +1,98 @@
+package com.avolution.actor.benchmark;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ActorRef.tell 吞吐量: 1/8/64个生产者向同一个Actor发送消息
+ * 积压超过上限时生产者等待消费, 测得的是可持续的吞吐量
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar TellBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.LOG_CONFIG)
+@State(Scope.Benchmark)
+public class TellBenchmark {
+
+    private static final long MAX_BACKLOG = 64 * 1024;
+    // 每个生产者每发送这么多条检查一次积压
+    private static final int CHECK_INTERVAL = 256;
+
+    public enum Tick {
+        INSTANCE
+    }
+
+    public static class CountingActor extends AbstractActor<Tick> {
+        final AtomicLong received = new AtomicLong();
+
+        @OnReceive(Tick.class)
+        public void onTick(Tick tick) {
+            received.lazySet(received.get() + 1);
+        }
+    }
+
+    private ActorSystem system;
+    private ActorRef<Tick> target;
+    private CountingActor actor;
+    private final LongAdder sent = new LongAdder();
+
+    @State(Scope.Thread)
+    public static class Producer {
+        int sinceCheck;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = BenchmarkSupport.newSystem();
+        actor = new CountingActor();
+        CountingActor created = actor;
+        target = system.actorOf(Props.create(() -> created), BenchmarkSupport.uniqueName("counter"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.terminate(system);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void tell1(Producer producer) {
+        tell(producer);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void tell8(Producer producer) {
+        tell(producer);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void tell64(Producer producer) {
+        tell(producer);
+    }
+
+    private void tell(Producer producer) {
+        target.tell(Tick.INSTANCE, ActorRef.noSender());
+        if (++producer.sinceCheck == CHECK_INTERVAL) {
+            producer.sinceCheck = 0;
+            sent.add(CHECK_INTERVAL);
+            while (sent.sum() - actor.received.get() > MAX_BACKLOG) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
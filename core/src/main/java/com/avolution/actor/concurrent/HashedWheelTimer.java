@@ -0,0 +1,389 @@
+package com.avolution.actor.concurrent;
+
+import com.avolution.actor.core.IScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 哈希时间轮定时器
+ *
+ * 定时任务按到期时间落入环形数组的槽位, 一个工作线程每个tick推进一格并执行到期的任务,
+ * 登记和取消都是O(1): 登记只入队, 取消只改状态并入队, 由工作线程批量挂入/摘除槽位
+ * 精度为一个tick, 适合大量短超时(ask超时、接收超时、会话空闲检测), 不适合需要精确时刻的任务
+ *
+ * 到期任务交给任务执行器运行, 默认每个任务一个虚拟线程, 不会阻塞时间轮的推进
+ * 停止时未到期的任务全部结束: 实现 {@link RunOnStop} 的一次性任务立即执行, 其余任务取消
+ */
+public class HashedWheelTimer implements IScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_SHUTDOWN = 2;
+
+    // 每个tick最多从新任务队列转入的数量, 避免大量登记时工作线程饿死
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final ExecutorService ownedExecutor;
+    private final Thread workerThread;
+
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    private final Queue<WheelTimeout<?>> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout<?>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    /**
+     * 定时器停止时仍需执行的一次性任务, 例如ask超时: 停止时在调用 {@link #stop()} 的线程上立即执行,
+     * 以免等待其结果的一方永远挂起
+     */
+    public interface RunOnStop extends Runnable {
+    }
+
+    // 工作线程启动时刻, 所有到期时间都相对于它计算
+    private volatile long startTime;
+    // 工作线程已推进的tick数, 只由工作线程写入
+    private long tick;
+
+    public HashedWheelTimer() {
+        this("avolution-timer", Duration.ofMillis(10), 512);
+    }
+
+    /**
+     * @param name          工作线程名称
+     * @param tickDuration  每格的时长, 即定时精度
+     * @param ticksPerWheel 时间轮格数, 向上取整为2的幂
+     */
+    public HashedWheelTimer(String name, Duration tickDuration, int ticksPerWheel) {
+        this(name, tickDuration, ticksPerWheel, null);
+    }
+
+    /**
+     * @param taskExecutor 到期任务的执行器, 为null时每个任务使用一个虚拟线程
+     */
+    public HashedWheelTimer(String name, Duration tickDuration, int ticksPerWheel, Executor taskExecutor) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("Ticks per wheel must be in (0, 2^30]: " + ticksPerWheel);
+        }
+        this.tickNanos = Math.max(tickDuration.toNanos(), TimeUnit.MILLISECONDS.toNanos(1));
+        int size = ticksPerWheel == 1 ? 1 : 1 << (32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1));
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        if (taskExecutor == null) {
+            this.ownedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            this.taskExecutor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.taskExecutor = taskExecutor;
+        }
+        this.workerThread = Thread.ofPlatform().name(name).daemon(true).unstarted(this::runWorker);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return newTimeout(command, delay, 0, unit);
+    }
+
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return newTimeout(callable, delay, 0, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return newTimeout(command, initialDelay, unit.toNanos(period), unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+        // 负周期表示固定延迟: 从上一次执行结束时开始计算
+        return newTimeout(command, initialDelay, -unit.toNanos(delay), unit);
+    }
+
+    private <V> WheelTimeout<V> newTimeout(Object task, long delay, long periodNanos, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        start();
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startTime;
+        WheelTimeout<V> timeout = new WheelTimeout<>(this, task, deadline, periodNanos);
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        switch (workerState.get()) {
+            case WORKER_INIT -> {
+                if (workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+                    long now = System.nanoTime();
+                    // 0用于表示尚未启动
+                    startTime = now == 0 ? 1 : now;
+                    workerThread.start();
+                }
+            }
+            case WORKER_STARTED -> {
+            }
+            default -> throw new RejectedExecutionException("Timer has been stopped");
+        }
+        // 与启动线程竞争时等待起始时刻可见
+        while (startTime == 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 停止定时器, 未到期的任务不再按时执行: {@link RunOnStop} 任务立即执行, 其余任务取消,
+     * 等待其future的一方得到 {@link java.util.concurrent.CancellationException}
+     * @return 未执行的任务数
+     */
+    public long stop() {
+        if (Thread.currentThread() == workerThread) {
+            throw new IllegalStateException("Timer cannot be stopped from its own worker thread");
+        }
+        int previous = workerState.getAndSet(WORKER_SHUTDOWN);
+        if (previous == WORKER_STARTED) {
+            workerThread.interrupt();
+            try {
+                workerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (workerThread.isAlive()) {
+            logger.warn("Timer worker did not exit, pending timeouts are left unfinished");
+        } else {
+            // 工作线程已退出, 槽位不再有并发访问
+            for (Bucket bucket : wheel) {
+                bucket.stopTimeouts();
+            }
+            WheelTimeout<?> timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                timeout.stopped();
+            }
+            cancelledTimeouts.clear();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        return pendingTimeouts.getAndSet(0);
+    }
+
+    public boolean isStopped() {
+        return workerState.get() == WORKER_SHUTDOWN;
+    }
+
+    /**
+     * 等待到期的任务数
+     */
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    private void runWorker() {
+        while (workerState.get() == WORKER_STARTED) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                break;
+            }
+            processCancelled();
+            transferTimeoutsToBuckets();
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * 等待下一个tick开始
+     * @return 当前相对时间, 定时器停止时返回-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - currentTime + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (workerState.get() == WORKER_SHUTDOWN) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferTimeoutsToBuckets() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            WheelTimeout<?> timeout = newTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的任务放入当前格, 本tick即执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        WheelTimeout<?> timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    void cancelled(WheelTimeout<?> timeout) {
+        pendingTimeouts.decrementAndGet();
+        cancelledTimeouts.add(timeout);
+    }
+
+    void expired(WheelTimeout<?> timeout, boolean periodic) {
+        // 周期任务直到取消或失败前一直计为等待中
+        if (!periodic) {
+            pendingTimeouts.decrementAndGet();
+        }
+        try {
+            taskExecutor.execute(timeout);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Timer task rejected, executor is shut down");
+        }
+    }
+
+    /**
+     * 周期任务重新登记
+     */
+    void reschedule(WheelTimeout<?> timeout, long deadline) {
+        if (workerState.get() != WORKER_STARTED) {
+            timeout.stopped();
+            return;
+        }
+        timeout.deadline = deadline;
+        newTimeouts.add(timeout);
+    }
+
+    /**
+     * 周期任务因异常终止
+     */
+    void periodicFailed() {
+        pendingTimeouts.decrementAndGet();
+    }
+
+    long currentTime() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * 时间轮上的一格, 双向链表, 只由工作线程访问
+     */
+    static final class Bucket {
+        private WheelTimeout<?> head;
+        private WheelTimeout<?> tail;
+
+        void add(WheelTimeout<?> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long deadline) {
+            WheelTimeout<?> timeout = head;
+            while (timeout != null) {
+                WheelTimeout<?> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        // 不应发生: 槽位计算保证到期时间不晚于本tick
+                        throw new IllegalStateException(String.format(
+                                "timeout.deadline (%d) > deadline (%d)", timeout.deadline, deadline));
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        /**
+         * 定时器停止时结束本格的所有任务
+         */
+        void stopTimeouts() {
+            WheelTimeout<?> timeout;
+            while ((timeout = head) != null) {
+                remove(timeout);
+                timeout.stopped();
+            }
+        }
+
+        void remove(WheelTimeout<?> timeout) {
+            WheelTimeout<?> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import java.util.stream.Collectors;
 public class VirtualThreadScheduler implements ScheduledExecutorService {
     private final ExecutorService executor;
     private final ScheduledExecutorService scheduler;
+    // 共享的时间轮, 设置后定时任务不再使用独立的调度线程
+    private final HashedWheelTimer timer;
     private final AtomicBoolean isShutdown;
     private final AtomicInteger activeTaskCount;
 
@@ -22,6 +24,7 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
         this.executor = Executors.newThreadPerTaskExecutor(factory);
 
         this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("VirtualThreadScheduler")::unstarted);
+        this.timer = null;
 
         this.isShutdown = new AtomicBoolean(false);
         this.activeTaskCount = new AtomicInteger(0);
@@ -31,6 +34,19 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
         this.executor = Executors.newVirtualThreadPerTaskExecutor();
 
         this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("VirtualThreadScheduler")::unstarted);
+        this.timer = null;
+
+        this.isShutdown = new AtomicBoolean(false);
+        this.activeTaskCount = new AtomicInteger(0);
+    }
+
+    /**
+     * 定时任务由共享的时间轮驱动, 关闭本调度器不会停止时间轮
+     */
+    public VirtualThreadScheduler(HashedWheelTimer timer) {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.scheduler = null;
+        this.timer = timer;
 
         this.isShutdown = new AtomicBoolean(false);
         this.activeTaskCount = new AtomicInteger(0);
@@ -39,6 +55,9 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
         checkShutdown();
+        if (timer != null) {
+            return timer.schedule(() -> runOnTimer(command), delay, unit);
+        }
         ScheduledFuture<?> future = scheduler.schedule(() -> {
             if (!isShutdown.get()) {
                 executeTask(command);
@@ -50,6 +69,17 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
         checkShutdown();
+        if (timer != null) {
+            return timer.schedule(() -> {
+                checkTimerTask();
+                activeTaskCount.incrementAndGet();
+                try {
+                    return callable.call();
+                } finally {
+                    activeTaskCount.decrementAndGet();
+                }
+            }, delay, unit);
+        }
         ScheduledFuture<V> future = scheduler.schedule(() -> {
             if (!isShutdown.get()) {
                 return executeTask(callable);
@@ -62,6 +92,9 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
         checkShutdown();
+        if (timer != null) {
+            return timer.scheduleAtFixedRate(() -> runOnTimer(command), initialDelay, period, unit);
+        }
         ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(() -> {
             if (!isShutdown.get()) {
                 executeTask(command);
@@ -73,6 +106,9 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
         checkShutdown();
+        if (timer != null) {
+            return timer.scheduleWithFixedDelay(() -> runOnTimer(command), initialDelay, delay, unit);
+        }
         ScheduledFuture<?> future = scheduler.scheduleWithFixedDelay(() -> {
             if (!isShutdown.get()) {
                 executeTask(command);
@@ -81,6 +117,26 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
         return new DelegatingScheduledFuture<>(future);
     }
 
+    /**
+     * 时间轮的任务已经运行在虚拟线程上, 直接执行
+     */
+    private void runOnTimer(Runnable task) {
+        checkTimerTask();
+        activeTaskCount.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            activeTaskCount.decrementAndGet();
+        }
+    }
+
+    // 调度器关闭后抛出异常, 使时间轮上的周期任务停止
+    private void checkTimerTask() {
+        if (isShutdown.get()) {
+            throw new CancellationException("Scheduler is shutdown");
+        }
+    }
+
     private void executeTask(Runnable task) {
         activeTaskCount.incrementAndGet();
         executor.execute(() -> {
@@ -105,7 +161,9 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public void shutdown() {
         if (isShutdown.compareAndSet(false, true)) {
-            scheduler.shutdown();
+            if (scheduler != null) {
+                scheduler.shutdown();
+            }
             executor.shutdown();
         }
     }
@@ -113,7 +171,7 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public List<Runnable> shutdownNow() {
         isShutdown.set(true);
-        List<Runnable> tasks = scheduler.shutdownNow();
+        List<Runnable> tasks = scheduler != null ? scheduler.shutdownNow() : List.of();
         executor.shutdownNow();
         return tasks;
     }
@@ -126,14 +184,14 @@ public class VirtualThreadScheduler implements ScheduledExecutorService {
     @Override
     public boolean isTerminated() {
         return isShutdown() && activeTaskCount.get() == 0 && 
-               scheduler.isTerminated() && executor.isTerminated();
+               (scheduler == null || scheduler.isTerminated()) && executor.isTerminated();
     }
 
     @Override
     public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
         long deadline = System.nanoTime() + unit.toNanos(timeout);
         
-        if (!scheduler.awaitTermination(timeout, unit)) {
+        if (scheduler != null && !scheduler.awaitTermination(timeout, unit)) {
             return false;
         }
         
@@ -0,0 +1,201 @@
+package com.avolution.actor.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 时间轮上的一个定时任务
+ * 取消只做一次CAS并入队, 由工作线程摘除; 只有调用 {@link #get()} 时才分配等待用的闩锁
+ *
+ * @param <V> 任务结果类型
+ */
+final class WheelTimeout<V> implements ScheduledFuture<V>, Runnable {
+    private static final int ST_INIT = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+    private final HashedWheelTimer timer;
+    // Runnable 或 Callable
+    private final Object task;
+    // 大于0为固定频率, 小于0为固定延迟, 0为一次性任务
+    private final long periodNanos;
+
+    private volatile int state = ST_INIT;
+    // 相对于定时器起始时刻的到期时间
+    volatile long deadline;
+
+    // 以下字段只由工作线程访问
+    long remainingRounds;
+    HashedWheelTimer.Bucket bucket;
+    WheelTimeout<?> prev;
+    WheelTimeout<?> next;
+
+    // 任务结束状态
+    private volatile boolean done;
+    private volatile V result;
+    private volatile Throwable failure;
+    private volatile CountDownLatch doneLatch;
+
+    WheelTimeout(HashedWheelTimer timer, Object task, long deadline, long periodNanos) {
+        this.timer = timer;
+        this.task = task;
+        this.deadline = deadline;
+        this.periodNanos = periodNanos;
+    }
+
+    /**
+     * 由工作线程在到期时调用
+     */
+    void expire() {
+        if (periodNanos != 0) {
+            // 周期任务保持INIT状态以便随时取消
+            if (state == ST_INIT) {
+                timer.expired(this, true);
+            }
+            return;
+        }
+        if (STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+            timer.expired(this, false);
+        }
+    }
+
+    /**
+     * 定时器停止时调用: {@link HashedWheelTimer.RunOnStop} 一次性任务立即执行, 其余任务取消
+     */
+    void stopped() {
+        if (periodNanos == 0 && task instanceof HashedWheelTimer.RunOnStop) {
+            if (STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                run();
+            }
+        } else if (STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+            markDone();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+        if (state == ST_CANCELLED) {
+            return;
+        }
+        try {
+            if (task instanceof Callable<?> callable) {
+                result = (V) callable.call();
+            } else {
+                ((Runnable) task).run();
+            }
+        } catch (Throwable e) {
+            failure = e;
+            // 周期任务抛出异常后不再执行, 与 ScheduledExecutorService 一致
+            if (periodNanos != 0 && STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                timer.periodicFailed();
+            }
+            markDone();
+            return;
+        }
+
+        if (periodNanos == 0) {
+            markDone();
+        } else if (state == ST_INIT) {
+            // 本次执行结束后才登记下一次, 同一周期任务不会并发执行
+            long next = periodNanos > 0 ? deadline + periodNanos : timer.currentTime() - periodNanos;
+            timer.reschedule(this, next);
+        }
+    }
+
+    private void markDone() {
+        done = true;
+        CountDownLatch latch = doneLatch;
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+            return false;
+        }
+        timer.cancelled(this);
+        markDone();
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return state == ST_CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        if (!done) {
+            latch().await();
+        }
+        return report();
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done && !latch().await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    private CountDownLatch latch() {
+        CountDownLatch latch = doneLatch;
+        if (latch == null) {
+            synchronized (this) {
+                latch = doneLatch;
+                if (latch == null) {
+                    latch = new CountDownLatch(1);
+                    doneLatch = latch;
+                }
+            }
+            // 闩锁发布前任务可能已完成
+            if (done) {
+                latch.countDown();
+            }
+        }
+        return latch;
+    }
+
+    private V report() throws ExecutionException {
+        if (state == ST_CANCELLED) {
+            throw new CancellationException();
+        }
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new ExecutionException(cause);
+        }
+        return result;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadline - timer.currentTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other == this) {
+            return 0;
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
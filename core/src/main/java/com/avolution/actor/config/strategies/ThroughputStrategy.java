@@ -0,0 +1,25 @@
+package com.avolution.actor.config.strategies;
+
+/**
+ * 邮箱每轮处理量策略
+ * 每个邮箱持有独立实例, 只由执行邮箱的线程调用
+ */
+public interface ThroughputStrategy {
+
+    /**
+     * 本轮最多处理的消息数
+     */
+    int getMaxMessages();
+
+    /**
+     * 本轮时间预算(纳秒), 用完后让出线程; 小于等于0表示不限时
+     */
+    long getTimeBudgetNanos();
+
+    /**
+     * 一轮处理结束后的反馈
+     * @param processed    本轮处理的消息数
+     * @param elapsedNanos 本轮耗时
+     */
+    default void onTurnCompleted(int processed, long elapsedNanos) {}
+}
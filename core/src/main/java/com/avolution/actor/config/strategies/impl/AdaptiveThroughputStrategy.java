@@ -0,0 +1,90 @@
+package com.avolution.actor.config.strategies.impl;
+
+import com.avolution.actor.config.strategies.ThroughputStrategy;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * 自适应: 根据观测到的单条处理耗时和调度器中待执行邮箱数调整每轮处理量
+ *
+ * 待执行邮箱不多于CPU数时使用完整的目标时间片, 让Actor尽量在热缓存上连续处理;
+ * 待执行邮箱越多, 时间片按比例缩短以保证公平, 最短为目标时间片的1/16
+ * 每轮条数 = 时间片 / 单条耗时的指数滑动平均, 并限制在[minMessages, maxMessages]之间
+ */
+public class AdaptiveThroughputStrategy implements ThroughputStrategy {
+    // 滑动平均权重 1/8
+    private static final int EWMA_SHIFT = 3;
+    private static final int MIN_SLICE_DIVISOR = 16;
+
+    private final int minMessages;
+    private final int maxMessages;
+    private final long targetTurnNanos;
+    private final IntSupplier queueDepth;
+    private final int parallelism;
+
+    // 只由执行邮箱的线程访问, 邮箱的处理标志保证了可见性
+    private long avgMessageNanos;
+    private int batch;
+    private long sliceNanos;
+
+    /**
+     * @param minMessages 每轮最少处理的消息数
+     * @param maxMessages 每轮最多处理的消息数
+     * @param targetTurn  空闲时每轮的目标时长
+     * @param queueDepth  调度器中待执行的邮箱数
+     */
+    public AdaptiveThroughputStrategy(int minMessages, int maxMessages, Duration targetTurn, IntSupplier queueDepth) {
+        if (minMessages <= 0 || maxMessages < minMessages) {
+            throw new IllegalArgumentException("Invalid message bounds: " + minMessages + ".." + maxMessages);
+        }
+        if (targetTurn.isNegative() || targetTurn.isZero()) {
+            throw new IllegalArgumentException("Target turn must be positive");
+        }
+        this.minMessages = minMessages;
+        this.maxMessages = maxMessages;
+        this.targetTurnNanos = targetTurn.toNanos();
+        this.queueDepth = queueDepth;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.batch = maxMessages;
+        this.sliceNanos = targetTurnNanos;
+    }
+
+    @Override
+    public int getMaxMessages() {
+        return batch;
+    }
+
+    @Override
+    public long getTimeBudgetNanos() {
+        return sliceNanos;
+    }
+
+    @Override
+    public void onTurnCompleted(int processed, long elapsedNanos) {
+        if (processed <= 0) {
+            return;
+        }
+        long perMessage = Math.max(1, elapsedNanos / processed);
+        avgMessageNanos = avgMessageNanos == 0
+                ? perMessage
+                : avgMessageNanos + ((perMessage - avgMessageNanos) >> EWMA_SHIFT);
+
+        int depth = queueDepth.getAsInt();
+        long slice = targetTurnNanos;
+        if (depth > parallelism) {
+            slice = Math.max(targetTurnNanos / MIN_SLICE_DIVISOR, targetTurnNanos * parallelism / depth);
+        }
+        sliceNanos = slice;
+
+        long next = slice / Math.max(1, avgMessageNanos);
+        batch = (int) Math.max(minMessages, Math.min(maxMessages, next));
+    }
+
+    /**
+     * 当前每轮处理量, 用于观测
+     */
+    public int getCurrentBatch() {
+        return batch;
+    }
+}
@@ -0,0 +1,35 @@
+package com.avolution.actor.config.strategies.impl;
+
+import com.avolution.actor.config.strategies.ThroughputStrategy;
+
+import java.time.Duration;
+
+/**
+ * 时间片: 持续处理直到时间预算用完或达到条数上限
+ * 处理耗时差异很大(微秒到毫秒级)时, 比固定条数更能保证各Actor之间的公平
+ */
+public class DeadlineThroughputStrategy implements ThroughputStrategy {
+    private final int maxMessages;
+    private final long budgetNanos;
+
+    public DeadlineThroughputStrategy(int maxMessages, Duration budget) {
+        if (maxMessages <= 0) {
+            throw new IllegalArgumentException("Max messages must be positive");
+        }
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+        this.maxMessages = maxMessages;
+        this.budgetNanos = budget.toNanos();
+    }
+
+    @Override
+    public int getMaxMessages() {
+        return maxMessages;
+    }
+
+    @Override
+    public long getTimeBudgetNanos() {
+        return budgetNanos;
+    }
+}
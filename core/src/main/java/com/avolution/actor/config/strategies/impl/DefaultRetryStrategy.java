@@ -6,8 +6,30 @@ import com.avolution.actor.message.Envelope;
 import java.time.Duration;
 
 public class DefaultRetryStrategy implements RetryStrategy {
-    private final int maxRetries = 3;
-    private final Duration baseDelay = Duration.ofMillis(100);
+    // 指数的上限, 避免移位和时长溢出
+    private static final int MAX_SHIFT = 30;
+
+    private final int maxRetries;
+    private final Duration baseDelay;
+
+    public DefaultRetryStrategy() {
+        this(3, Duration.ofMillis(100));
+    }
+
+    /**
+     * @param maxRetries 最大重试次数
+     * @param baseDelay  第一次重试的延迟, 之后每次翻倍
+     */
+    public DefaultRetryStrategy(int maxRetries, Duration baseDelay) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries must not be negative");
+        }
+        if (baseDelay == null || baseDelay.isNegative()) {
+            throw new IllegalArgumentException("Base delay must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+    }
 
     @Override
     public boolean shouldRetry(Envelope envelope) {
@@ -21,8 +43,6 @@ public class DefaultRetryStrategy implements RetryStrategy {
 
     @Override
     public Duration getRetryDelay(int retryCount) {
-        return baseDelay.multipliedBy(1L << retryCount); // 指数退避
+        return baseDelay.multipliedBy(1L << Math.min(retryCount, MAX_SHIFT)); // 指数退避
     }
 }
-
-
@@ -0,0 +1,27 @@
+package com.avolution.actor.config.strategies.impl;
+
+import com.avolution.actor.config.strategies.ThroughputStrategy;
+
+/**
+ * 固定条数: 每轮最多处理throughput条消息
+ */
+public class FixedThroughputStrategy implements ThroughputStrategy {
+    private final int throughput;
+
+    public FixedThroughputStrategy(int throughput) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("Throughput must be positive");
+        }
+        this.throughput = throughput;
+    }
+
+    @Override
+    public int getMaxMessages() {
+        return throughput;
+    }
+
+    @Override
+    public long getTimeBudgetNanos() {
+        return 0;
+    }
+}
@@ -1,7 +1,6 @@
 package com.avolution.actor.core;
 
 
-import com.avolution.actor.core.annotation.OnReceive;
 import com.avolution.actor.core.context.ActorContext;
 import com.avolution.actor.exception.ActorInitializationException;
 import com.avolution.actor.lifecycle.LifecycleState;
@@ -14,22 +13,14 @@ import com.avolution.actor.metrics.ActorMetricsCollector;
 import com.avolution.actor.pattern.AskPattern;
 import com.avolution.actor.strategy.ActorStrategy;
 import com.avolution.actor.strategy.DefaultActorStrategy;
-import com.avolution.actor.system.actor.IDeadLetterActorMessage;
 import org.slf4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
 
 /**
  * Actor抽象基类，提供基础实现
@@ -38,7 +29,6 @@ import java.util.function.Consumer;
 public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorRef<T>, MessageHandler<T> {
     Logger logger=org.slf4j.LoggerFactory.getLogger(AbstractActor.class);
 
-    private static final int MAX_DEAD_LETTERS = 1000;
     /**
      * Actor上下文
      */
@@ -51,16 +41,10 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
     // 持有唯一的ActorRefProxy引用
     private LocalActorRef<T> selfRef;
     /**
-     * 消息处理器
+     * 消息处理器, 同类Actor共享
      */
-    private final Map<Class<?>, Consumer<Object>> handlers = new HashMap<>();
+    private ActorHandlerTable handlers;
 
-    // 死信相关字段
-    private final ConcurrentLinkedQueue<IDeadLetterActorMessage.DeadLetter> deadLetters = new ConcurrentLinkedQueue<>();
-    /**
-     * 死信计数
-     */
-    private final AtomicInteger deadLetterCount = new AtomicInteger(0);
     /**
      * 消息度量收集器
      */
@@ -76,28 +60,22 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
 
     private volatile StopReason stopReason;
 
+    // 默认批处理已开始处理的消息数, 之后的消息转入死信; -1表示批处理被覆盖
+    private int batchStarted;
+
     private void registerHandlers() {
-        for (Method method : this.getClass().getDeclaredMethods()) {
-            if (method.isAnnotationPresent(OnReceive.class)) {
-                Class<?> messageType = method.getAnnotation(OnReceive.class).value();
-                if (method.getParameterCount() == 1 && messageType.isAssignableFrom(method.getParameterTypes()[0])) {
-                    method.setAccessible(true);
-                    handlers.put(messageType, message -> invokeHandler(method, message));
-                }
-            }
-        }
+        handlers = ActorHandlerTable.forClass(getClass());
     }
 
-    private void invokeHandler(Method method, Object message) {
+    private boolean invokeHandler(ActorHandlerTable table, Object message) {
         try {
-            method.invoke(this, message);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
+            return table.dispatch(this, message);
+        } catch (Throwable e) {
+            Throwable cause = e instanceof ActorHandlerTable.HandlerException ? e.getCause() : e;
             logger.error("Error invoking message handler for {}: {}", message.getClass().getSimpleName(), cause.getMessage());
             strategy.handleFailure(cause, currentMessage, this);
-        } catch (Exception e) {
-            logger.error("Error invoking message handler", e);
-            strategy.handleFailure(e, currentMessage, this);
+            // 处理器已匹配, 失败由策略处理, 不再视为未处理消息
+            return true;
         }
     }
 
@@ -140,7 +118,7 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
 
     private void startMetricsCollection() {
         if (metricsCollector == null) {
-            metricsCollector = new ActorMetricsCollector(path());
+            metricsCollector = new ActorMetricsCollector(path(), getClass());
         }
     }
     /**
@@ -149,10 +127,8 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
      * @param message 接收到的消息
      */
     public void onReceive(T message) {
-        Consumer<Object> handler = handlers.get(message.getClass());
-        if (handler != null) {
-            handler.accept(message);
-        } else {
+        ActorHandlerTable table = handlers;
+        if (table == null || !invokeHandler(table, message)) {
             unhandled(message);
         }
     }
@@ -168,33 +144,7 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
         if (context == null || context.system() == null) {
             return;
         }
-
-        IDeadLetterActorMessage.DeadLetter deadLetter = new IDeadLetterActorMessage.DeadLetter(
-                envelope.getMessage(),
-                envelope.getSender().path(),
-                envelope.getRecipient().path(),
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                envelope.getMessageType().toString(),
-                envelope.getRetryCount()
-        );
-
-        // 记录死信
-        logger.warn("Dead letter received: {}", deadLetter);
-
-        // 维护死信队列
-        deadLetters.offer(deadLetter);
-        if (deadLetters.size() > MAX_DEAD_LETTERS) {
-            deadLetters.poll();
-        }
-
-        // 统计
-        int count = deadLetterCount.incrementAndGet();
-        if (count % 100 == 0) {
-            logger.warn("Dead letter count reached: {}", count);
-        }
-
-        // 发送到系统的死信Actor
-        context.system().getDeadLetters().tell(deadLetter, getSelf());
+        context.system().deadLetterOffice().publish(envelope, envelope.getRecipient().path());
     }
 
 
@@ -224,6 +174,13 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
         return context;
     }
 
+    /**
+     * 获取消息度量, 初始化前为null
+     */
+    public ActorMetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
     @Override
     public void tell(T message, ActorRef sender) {
         if (message == null) {
@@ -251,8 +208,7 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
 
     @Override
     public String name() {
-        String path = path();
-        return path.substring(path.lastIndexOf('/') + 1);
+        return context.getActorPath().name();
     }
 
     @Override
@@ -295,13 +251,115 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
             currentMessage = null;
             strategy.afterMessageHandle(message, this, success);
             if (metricsCollector != null) {
-                metricsCollector.recordMessage(startTime, success);
+                metricsCollector.recordMessage(startTime, startTime - message.getCreatedNanos(), success);
             }
             currentProcessingThread=null;
         }
 
     }
 
+    /**
+     * 每批最多接收的消息数, 默认1即逐条处理
+     * 子类覆盖为大于1后, 邮箱中排队的用户消息会按批交给 {@link #onReceiveBatch(List)}
+     */
+    @Override
+    public int batchSize() {
+        return 1;
+    }
+
+    /**
+     * 批量处理接收到的消息, 默认逐条交给处理策略, 与逐条接收一样每条消息单独计时和监督
+     * 适合合并写库、合并刷新网络缓冲区等场景; 批内消息的发送者通过 {@link Envelope#getSender()} 获取
+     *
+     * @param batch 按入队顺序排列的消息, 只读
+     * @throws Exception 覆盖实现抛出异常时整批计为失败, 以第一条消息交给策略处理, 整批记为一个耗时样本
+     */
+    protected void onReceiveBatch(List<Envelope<T>> batch) throws Exception {
+        batchStarted = 0;
+        ActorContext context = getContext();
+        for (Envelope<T> message : batch) {
+            // 失败导致重启或停止后, 剩余消息由调用方转入死信
+            if (isTerminated() || (context != null && !context.isProcessingUserMessages())) {
+                return;
+            }
+            batchStarted++;
+            currentMessage = message;
+            long startTime = System.nanoTime();
+            boolean success = true;
+            try {
+                strategy.handleMessage(message, this);
+            } catch (Throwable e) {
+                success = false;
+                strategy.handleFailure(e, message, this);
+            } finally {
+                strategy.afterMessageHandle(message, this, success);
+                if (metricsCollector != null) {
+                    metricsCollector.recordMessage(startTime, startTime - message.getCreatedNanos(), success);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void handleBatch(List<Envelope<T>> messages) {
+        List<Envelope<T>> accepted = new ArrayList<>(messages.size());
+        for (Envelope<T> message : messages) {
+            if (message.hasBeenProcessedBy(path())) {
+                logger.warn("Detected circular message delivery: {} in actor: {}", message.getMessage().getClass().getSimpleName(), path());
+                handleDeadLetter(message);
+                continue;
+            }
+            if (isTerminated()) {
+                handleDeadLetter(message);
+                continue;
+            }
+            message.markProcessed(path());
+            strategy.beforeMessageHandle(message, this);
+            accepted.add(message);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        Throwable failure = null;
+        batchStarted = -1;
+
+        currentProcessingThread = Thread.currentThread();
+        try {
+            onReceiveBatch(accepted);
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            currentMessage = null;
+            currentProcessingThread = null;
+        }
+
+        int started = batchStarted;
+        if (started < 0) {
+            // 覆盖实现按整批处理, 无法区分批内哪条失败
+            for (Envelope<T> message : accepted) {
+                strategy.afterMessageHandle(message, this, failure == null);
+            }
+            if (metricsCollector != null) {
+                metricsCollector.recordBatch(startTime, accepted.size(),
+                        startTime - accepted.get(0).getCreatedNanos(), failure == null);
+            }
+            if (failure != null) {
+                strategy.handleFailure(failure, accepted.get(0), this);
+            }
+            return;
+        }
+
+        // 默认实现: 处理钩子抛出的异常归于最后开始处理的消息, 之后的消息未处理
+        if (failure != null) {
+            strategy.handleFailure(failure, accepted.get(Math.max(started - 1, 0)), this);
+        }
+        for (int i = started; i < accepted.size(); i++) {
+            handleDeadLetter(accepted.get(i));
+        }
+    }
+
     public <R> CompletableFuture<R> ask(T message, Duration timeout) {
         return AskPattern.ask(
                 this,
@@ -376,6 +434,25 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
         return stop();
     }
 
+    /**
+     * 记录停止原因, 由上下文在发起停止时调用; 已有原因时不覆盖
+     */
+    public void recordStopReason(StopReason reason) {
+        if (stopReason == null) {
+            stopReason = reason;
+        }
+    }
+
+    /**
+     * 重启时由上下文调用: 执行停止回调并清理, 不改变生命周期状态,
+     * 仍持有旧实例的投递照常进入同一邮箱, 由新实例处理
+     */
+    public void retire() {
+        onPreStop();
+        doCleanup();
+        onPostStop();
+    }
+
     /**
      * 获取停止原因
      */
@@ -392,10 +469,7 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
 
     @Override
     protected void doRestart(Throwable reason) {
-        onPreRestart(reason);
-        stop().join();
-        start();
-        onPostRestart(reason);
+        context.restart(reason);
     }
 
     @Override
@@ -416,7 +490,9 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
     @Override
     protected void interruptCurrentProcessing() {
         Thread processingThread = currentProcessingThread;
-        if (processingThread != null) {
+        // 在自身处理线程中停止(重启失败、钝化、处理消息时停止自身)时不中断, 停止回调中仍可执行阻塞清理,
+        // 调用方也无需清除中断标志, 不会吞掉线程上真正的中断
+        if (processingThread != null && processingThread != Thread.currentThread()) {
             processingThread.interrupt();
             currentProcessingThread = null;
         }
@@ -439,6 +515,10 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
         this.strategy = strategy;
     }
 
+    public ActorStrategy<T> getStrategy() {
+        return strategy;
+    }
+
 
     // 默认生命周期回调实现
     @Override
@@ -483,4 +563,16 @@ public abstract class AbstractActor<T>  extends ActorLifecycle implements ActorR
             strategy.onPostRestart(reason, this);
         }
     }
+
+    /**
+     * 钝化前调用, 在Actor线程中执行, 可在此保存状态
+     */
+    protected void onPassivate() {
+    }
+
+    /**
+     * 钝化后重新激活时调用, 在缓存的消息投递前执行, 可在此恢复状态
+     */
+    protected void onActivate() {
+    }
 }
@@ -0,0 +1,250 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Actor类的 {@link OnReceive} 处理器表
+ *
+ * 每个Actor类只扫描一次, 结果缓存在 {@link ClassValue} 中, 同类Actor的所有实例和重启共享同一张表
+ * 处理器优先通过 {@link LambdaMetafactory} 生成的函数接口调用, 与普通虚方法调用一样可被JIT内联;
+ * 无法生成时退回到 {@link MethodHandle}, 不再使用 {@code Method.invoke}
+ *
+ * 处理器按消息的类型层次解析: 从消息的具体类开始按广度优先遍历父类和接口(父类先于接口, 接口按声明顺序),
+ * 距离最近的已注册类型胜出, 因此为密封接口或父类注册的处理器同样能处理其子类型
+ * 解析结果按具体消息类缓存, 同一类型的后续消息只需一次查表
+ * 子类声明的处理器优先于父类中同一消息类型的处理器, 同一类中按方法签名排序后先声明者生效
+ *
+ * 类路径上存在注解处理器生成的 {@link GeneratedDispatcher} 时直接使用它, 不做反射扫描
+ */
+final class ActorHandlerTable {
+    private static final Logger logger = LoggerFactory.getLogger(ActorHandlerTable.class);
+
+    private static final ClassValue<ActorHandlerTable> TABLES = new ClassValue<>() {
+        @Override
+        protected ActorHandlerTable computeValue(Class<?> actorClass) {
+            return new ActorHandlerTable(actorClass);
+        }
+    };
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 处理器调用入口, 异常原样抛出
+     */
+    @FunctionalInterface
+    interface Invoker {
+        void invoke(Object actor, Object message);
+    }
+
+    // 没有处理器时的缓存占位
+    private static final Invoker NONE = (actor, message) -> {
+    };
+
+    // getDeclaredMethods的顺序不固定, 排序后注册保证结果确定
+    private static final Comparator<Method> METHOD_ORDER = Comparator
+            .comparing(Method::getName)
+            .thenComparing(Method::toGenericString);
+
+    // 编译期生成的分发器, 不存在时为null
+    private final GeneratedDispatcher dispatcher;
+    // 注册的处理器, 按消息类型
+    private final Map<Class<?>, Handler> handlers;
+    // 按具体消息类缓存的解析结果
+    private final Map<Class<?>, Invoker> resolved = new ConcurrentHashMap<>();
+
+    private ActorHandlerTable(Class<?> actorClass) {
+        this.dispatcher = loadDispatcher(actorClass);
+        this.handlers = dispatcher != null ? Map.of() : scanHandlers(actorClass);
+    }
+
+    private static Map<Class<?>, Handler> scanHandlers(Class<?> actorClass) {
+        Map<Class<?>, Handler> found = new LinkedHashMap<>();
+        for (Class<?> type = actorClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            Method[] methods = type.getDeclaredMethods();
+            Arrays.sort(methods, METHOD_ORDER);
+            for (Method method : methods) {
+                OnReceive annotation = method.getAnnotation(OnReceive.class);
+                if (annotation == null || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                Class<?> messageType = annotation.value();
+                if (method.getParameterCount() != 1 || !messageType.isAssignableFrom(method.getParameterTypes()[0])) {
+                    continue;
+                }
+                if (found.containsKey(messageType)) {
+                    // 子类或先排序的方法已注册
+                    logger.debug("Ignoring handler {} for {}, already registered", method, messageType.getName());
+                    continue;
+                }
+                found.put(messageType, new Handler(method.getParameterTypes()[0], createInvoker(method)));
+            }
+        }
+        return Map.copyOf(found);
+    }
+
+    private static GeneratedDispatcher loadDispatcher(Class<?> actorClass) {
+        String name = actorClass.getName() + GeneratedDispatcher.SUFFIX;
+        try {
+            Class<?> type = Class.forName(name, true, actorClass.getClassLoader());
+            if (!GeneratedDispatcher.class.isAssignableFrom(type)) {
+                return null;
+            }
+            return (GeneratedDispatcher) type.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("Cannot load generated dispatcher {}, using reflection: {}", name, e.toString());
+            return null;
+        }
+    }
+
+    static ActorHandlerTable forClass(Class<?> actorClass) {
+        return TABLES.get(actorClass);
+    }
+
+    /**
+     * 把消息交给对应的处理器
+     *
+     * @return 没有匹配的处理器时返回false
+     */
+    boolean dispatch(Object actor, Object message) throws Throwable {
+        if (dispatcher != null) {
+            return dispatcher.dispatch(actor, message);
+        }
+        Invoker invoker = get(message.getClass());
+        if (invoker == null) {
+            return false;
+        }
+        invoker.invoke(actor, message);
+        return true;
+    }
+
+    boolean isGenerated() {
+        return dispatcher != null;
+    }
+
+    /**
+     * 反射构建的处理器, 使用生成的分发器时总是返回null
+     *
+     * @return 消息类型对应的处理器, 没有时返回null
+     */
+    Invoker get(Class<?> messageClass) {
+        Invoker invoker = resolved.get(messageClass);
+        if (invoker == null) {
+            invoker = resolved.computeIfAbsent(messageClass, this::resolve);
+        }
+        return invoker == NONE ? null : invoker;
+    }
+
+    int size() {
+        return handlers.size();
+    }
+
+    private Invoker resolve(Class<?> messageClass) {
+        if (handlers.isEmpty()) {
+            return NONE;
+        }
+        Invoker invoker = nearest(messageClass, type -> {
+            Handler handler = handlers.get(type);
+            // 处理器参数可能比注册的类型更窄, 只接受参数能容纳的消息
+            return handler != null && handler.parameterType.isAssignableFrom(messageClass) ? handler.invoker : null;
+        });
+        return invoker != null ? invoker : NONE;
+    }
+
+    /**
+     * 从消息的具体类开始按广度优先遍历父类和接口(父类先于接口, 接口按声明顺序), 返回第一个非null的查找结果
+     * 生成的分发器在处理器类型存在歧义时经 {@link GeneratedDispatcher#nearest} 使用同一遍历, 两条路径结果一致
+     */
+    static <T> T nearest(Class<?> messageClass, Function<Class<?>, T> lookup) {
+        ArrayDeque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(messageClass);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            T found = lookup.apply(type);
+            if (found != null) {
+                return found;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    private record Handler(Class<?> parameterType, Invoker invoker) {
+    }
+
+    private static Invoker createInvoker(Method method) {
+        Class<?> actorClass = method.getDeclaringClass();
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(actorClass, MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access handler " + method, e);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoke",
+                        MethodType.methodType(Invoker.class),
+                        INVOKER_TYPE,
+                        handle,
+                        MethodType.methodType(void.class, actorClass, method.getParameterTypes()[0]));
+                return (Invoker) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                logger.debug("Falling back to MethodHandle for handler {}: {}", method, e.toString());
+            }
+        } else {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        MethodHandle target = handle.asType(INVOKER_TYPE);
+        return (actor, message) -> {
+            try {
+                target.invokeExact(actor, message);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new HandlerException(e);
+            }
+        };
+    }
+
+    /**
+     * MethodHandle调用抛出的受检异常
+     */
+    static final class HandlerException extends RuntimeException {
+        HandlerException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
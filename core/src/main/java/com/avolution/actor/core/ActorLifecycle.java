@@ -20,7 +20,7 @@ public abstract class ActorLifecycle {
     public final void start() {
         if (lifecycleState.compareAndSet(LifecycleState.NEW, LifecycleState.STARTING)) {
             try {
-                logger.info("Starting actor: {}", getClass().getName());
+                logger.debug("Starting actor: {}", getClass().getName());
                 doStart();
                 lifecycleState.set(LifecycleState.RUNNING);
             } catch (Exception e) {
@@ -38,14 +38,15 @@ public abstract class ActorLifecycle {
         return doStop().whenComplete((v, e) -> lifecycleState.set(LifecycleState.STOPPED));
     }
 
+    /**
+     * 请求重启, 立即返回; 重启由上下文在Actor线程中完成, 当前实例停止并由新实例替换
+     */
     public final void restart(Throwable reason) throws ActorRestartException {
-        if (lifecycleState.compareAndSet(LifecycleState.RUNNING, LifecycleState.RESTARTING)) {
+        if (lifecycleState.get() == LifecycleState.RUNNING) {
             try {
                 logger.info("Restarting actor: {}", getClass().getName());
                 doRestart(reason);
-                lifecycleState.set(LifecycleState.RUNNING);
             } catch (Exception e) {
-                lifecycleState.set(LifecycleState.STOPPED);
                 throw new ActorRestartException("Failed to restart actor", e);
             }
         }
@@ -0,0 +1,187 @@
+package com.avolution.actor.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Actor路径
+ *
+ * 不可变值对象, 由父路径和一个名称段组成, 创建子路径只分配一个对象, 不做字符串拼接;
+ * 哈希值在构造时计算, 字符串形式在第一次使用时生成并缓存
+ * 根下的 "user" 和 "system" 段复用 {@link #USER} 和 {@link #SYSTEM}, 解析得到的路径共享同一个前缀对象;
+ * 其余名称段不做驻留, Actor名称大多唯一, 放入常量池只会让驻留表随历史名称增长
+ */
+public final class ActorPath implements Comparable<ActorPath> {
+    /**
+     * 根路径 "/"
+     */
+    public static final ActorPath ROOT = new ActorPath(null, "");
+    /**
+     * 用户Actor的根 "/user"
+     */
+    public static final ActorPath USER = ROOT.child("user");
+    /**
+     * 系统Actor的根 "/system"
+     */
+    public static final ActorPath SYSTEM = ROOT.child("system");
+
+    private final ActorPath parent;
+    private final String name;
+    private final int depth;
+    private final int hash;
+    // 字符串形式, 延迟生成; String不可变, 并发下重复生成也只是多一次分配
+    private String path;
+
+    private ActorPath(ActorPath parent, String name) {
+        this.parent = parent;
+        this.name = name;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.hash = parent == null ? 0 : 31 * parent.hash + name.hashCode();
+    }
+
+    /**
+     * 解析 "/a/b/c" 形式的路径, 忽略多余的斜杠
+     */
+    public static ActorPath parse(String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        ActorPath current = ROOT;
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                current = current.child(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return current;
+    }
+
+    public ActorPath child(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Path element cannot be null or empty");
+        }
+        if (name.indexOf('/') >= 0) {
+            throw new IllegalArgumentException("Path element cannot contain '/': " + name);
+        }
+        // 类初始化期间 USER 和 SYSTEM 尚为null, 此时照常创建
+        if (parent == null) {
+            if (USER != null && name.equals(USER.name)) {
+                return USER;
+            }
+            if (SYSTEM != null && name.equals(SYSTEM.name)) {
+                return SYSTEM;
+            }
+        }
+        return new ActorPath(this, name);
+    }
+
+    /**
+     * @return 父路径, 根路径返回null
+     */
+    public ActorPath parent() {
+        return parent;
+    }
+
+    /**
+     * 最后一个名称段, 根路径为空字符串
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 名称段的数量, 根路径为0
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * 是否为给定路径的后代(不含自身)
+     */
+    public boolean isDescendantOf(ActorPath ancestor) {
+        if (ancestor.depth >= depth) {
+            return false;
+        }
+        ActorPath current = this;
+        while (current.depth > ancestor.depth) {
+            current = current.parent;
+        }
+        return current.equals(ancestor);
+    }
+
+    /**
+     * 从根开始的名称段
+     */
+    public List<String> elements() {
+        if (depth == 0) {
+            return Collections.emptyList();
+        }
+        String[] elements = new String[depth];
+        for (ActorPath current = this; current.parent != null; current = current.parent) {
+            elements[current.depth - 1] = current.name;
+        }
+        return List.of(elements);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ActorPath other) || hash != other.hash || depth != other.depth) {
+            return false;
+        }
+        ActorPath a = this;
+        ActorPath b = other;
+        while (a != b) {
+            if (!a.name.equals(b.name)) {
+                return false;
+            }
+            a = a.parent;
+            b = b.parent;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(ActorPath other) {
+        return toString().compareTo(other.toString());
+    }
+
+    @Override
+    public String toString() {
+        String current = path;
+        if (current == null) {
+            current = buildString();
+            path = current;
+        }
+        return current;
+    }
+
+    private String buildString() {
+        if (parent == null) {
+            return "/";
+        }
+        if (parent.parent == null) {
+            return "/" + name;
+        }
+        // 父路径的字符串通常已缓存
+        return parent + "/" + name;
+    }
+}
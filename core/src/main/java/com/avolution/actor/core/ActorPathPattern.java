@@ -0,0 +1,157 @@
+package com.avolution.actor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Actor路径的通配模式
+ *
+ * 按 "/" 分段, 每段可以是:
+ * <ul>
+ *     <li>普通名称, 精确匹配</li>
+ *     <li>含 {@code *} 或 {@code ?} 的通配段, {@code *} 匹配任意个字符, {@code ?} 匹配一个字符, 不跨越 "/"</li>
+ *     <li>{@code **}, 只能作为最后一段, 匹配所有后代</li>
+ * </ul>
+ * 例如 /user/rooms/&#42;/players/&#42; 匹配所有房间中的所有玩家
+ */
+public final class ActorPathPattern {
+    private static final int LITERAL = 0;
+    private static final int GLOB = 1;
+    private static final int ANY = 2;
+    private static final int DESCENDANTS = 3;
+
+    private final String pattern;
+    private final String[] segments;
+    private final int[] kinds;
+
+    private ActorPathPattern(String pattern, String[] segments, int[] kinds) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.kinds = kinds;
+    }
+
+    public static ActorPathPattern parse(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be null or empty");
+        }
+        List<String> parts = new ArrayList<>();
+        for (String part : pattern.split("/")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        String[] segments = parts.toArray(new String[0]);
+        int[] kinds = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only allowed as the last segment: " + pattern);
+                }
+                kinds[i] = DESCENDANTS;
+            } else if (segment.equals("*")) {
+                kinds[i] = ANY;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                kinds[i] = GLOB;
+            } else {
+                kinds[i] = LITERAL;
+            }
+        }
+        return new ActorPathPattern(pattern, segments, kinds);
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * 第 index 段是否为普通名称, 可以直接按名称查找子节点
+     */
+    public boolean isLiteral(int index) {
+        return kinds[index] == LITERAL;
+    }
+
+    /**
+     * 第 index 段是否为 {@code **}
+     */
+    public boolean isDescendants(int index) {
+        return kinds[index] == DESCENDANTS;
+    }
+
+    public String segment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * 第 index 段是否匹配给定名称
+     */
+    public boolean matches(int index, String name) {
+        return switch (kinds[index]) {
+            case LITERAL -> segments[index].equals(name);
+            case ANY, DESCENDANTS -> true;
+            default -> glob(segments[index], name);
+        };
+    }
+
+    /**
+     * 是否匹配完整路径
+     */
+    public boolean matches(ActorPath path) {
+        List<String> elements = path.elements();
+        int last = segments.length - 1;
+        if (last >= 0 && kinds[last] == DESCENDANTS) {
+            if (elements.size() <= last) {
+                return false;
+            }
+        } else if (elements.size() != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < segments.length && kinds[i] != DESCENDANTS; i++) {
+            if (!matches(i, elements.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 通配匹配, 星号回溯到最近一次的位置, 不使用正则
+    private static boolean glob(String pattern, String name) {
+        int p = 0;
+        int n = 0;
+        int star = -1;
+        int mark = 0;
+        while (n < name.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == name.charAt(n))) {
+                p++;
+                n++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                star = p++;
+                mark = n;
+            } else if (star >= 0) {
+                p = star + 1;
+                n = ++mark;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ActorPathPattern other && pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -11,5 +11,10 @@ public interface ActorScheduler extends IScheduler{
 
     void cancelTimer(String key);
 
-    void shutdown() throws InterruptedException;
+    /**
+     * 取消所有带键定时器, 之后仍可登记新的定时器
+     */
+    void cancelAll();
+
+    void shutdown();
 }
@@ -0,0 +1,79 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.context.ActorContextManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按通配模式选中的一组Actor
+ *
+ * 在上下文前缀树上只遍历匹配的子树; 解析结果缓存在实例中, 模式字面前缀所在子树变化后才重新解析,
+ * 其他位置创建或停止Actor不影响缓存; tell 直接遍历缓存数组投递, 不创建中间集合; 钝化的Actor同样选中, 投递时重新激活
+ * 反复投递时应保留同一个实例, 每次重新获取会重新解析
+ */
+public final class ActorSelection {
+    private static final ActorRef<?>[] EMPTY = new ActorRef<?>[0];
+
+    private final ActorContextManager contextManager;
+    private final ActorPathPattern pattern;
+    private volatile Resolved resolved;
+
+    private record Resolved(ActorContextManager.Version version, ActorRef<?>[] refs) {
+    }
+
+    public ActorSelection(ActorContextManager contextManager, ActorPathPattern pattern) {
+        if (contextManager == null || pattern == null) {
+            throw new IllegalArgumentException("Context manager and pattern cannot be null");
+        }
+        this.contextManager = contextManager;
+        this.pattern = pattern;
+    }
+
+    /**
+     * 向所有匹配的Actor发送消息
+     */
+    @SuppressWarnings("unchecked")
+    public void tell(Object message, ActorRef sender) {
+        for (ActorRef<?> ref : refs()) {
+            ((ActorRef<Object>) ref).tell(message, sender);
+        }
+    }
+
+    /**
+     * 当前匹配的Actor引用
+     */
+    public List<ActorRef<?>> resolve() {
+        return List.of(refs());
+    }
+
+    /**
+     * 当前匹配的Actor数量
+     */
+    public int size() {
+        return refs().length;
+    }
+
+    public ActorPathPattern pattern() {
+        return pattern;
+    }
+
+    private ActorRef<?>[] refs() {
+        Resolved current = resolved;
+        if (current != null && contextManager.isCurrent(pattern, current.version)) {
+            return current.refs;
+        }
+        // 先读版本再遍历, 遍历期间的修改会让下一次调用重新解析
+        ActorContextManager.Version version = contextManager.version(pattern);
+        List<ActorRef<?>> matched = new ArrayList<>();
+        contextManager.forEachMatchingRef(pattern, matched::add);
+        ActorRef<?>[] refs = matched.isEmpty() ? EMPTY : matched.toArray(EMPTY);
+        resolved = new Resolved(version, refs);
+        return refs;
+    }
+
+    @Override
+    public String toString() {
+        return "ActorSelection[" + pattern + "]";
+    }
+}
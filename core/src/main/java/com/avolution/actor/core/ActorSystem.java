@@ -1,5 +1,6 @@
 package com.avolution.actor.core;
 
+import com.avolution.actor.concurrent.HashedWheelTimer;
 import com.avolution.actor.concurrent.VirtualThreadScheduler;
 import com.avolution.actor.core.context.ActorContextManager;
 import com.avolution.actor.core.context.ActorRefRegistry;
@@ -17,10 +18,14 @@ import com.avolution.actor.exception.ActorCreationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * Actor系统的核心实现类，负责管理整个Actor生态系统
@@ -53,8 +58,12 @@ import java.util.concurrent.atomic.AtomicReference;
  * @field dispatcher    - 消息调度器
  * @field deathWatch   - 死亡监控服务
  * @field scheduler    - 调度服务
+ * @field timer        - 共享的时间轮定时器, tick和格数可通过系统属性
+ *                       avolution.actor.timer.tick-millis / avolution.actor.timer.ticks-per-wheel 配置
+ * @field coordinatedShutdown - 按阶段停止系统, 见 {@link CoordinatedShutdown}
  * @field state        - 系统状态
  * @field deadLetters  - 死信处理Actor
+ * @field deadLetterOffice - 死信汇总, 按间隔输出汇总日志, 见 {@link DeadLetterOffice}
  *
  * 使用示例：
  * <pre>
@@ -74,6 +83,11 @@ public class ActorSystem {
 
     private static final AtomicReference<ActorSystem> INSTANCE = new AtomicReference<>();
     private static final ConcurrentHashMap<String, ActorSystem> NAMED_SYSTEMS = new ConcurrentHashMap<>();
+
+    private static final Pattern VALID_NAME = Pattern.compile("[a-zA-Z0-9_\\-]+");
+    // 保留名称, 小写比较
+    private static final Set<String> RESERVED_NAMES = Set.of("system", "user", "temp", "deadletters", "guardian");
+
     // 系统名称
     private final String name;
     // 系统组件
@@ -84,8 +98,11 @@ public class ActorSystem {
     private final DeathWatch deathWatch;
     // 系统状态
     private final ScheduledExecutorService scheduler;
+    private final HashedWheelTimer timer;
     private final AtomicReference<SystemState> state;
     private final CompletableFuture<Void> terminationFuture;
+    private final CoordinatedShutdown coordinatedShutdown;
+    private final DeadLetterOffice deadLetterOffice;
 
     // 系统Actor
     private  ActorRef<IDeadLetterActorMessage> deadLetters;
@@ -127,15 +144,32 @@ public class ActorSystem {
     private ActorSystem(String name) {
         this.name = name;
         this.dispatcher = new Dispatcher();
-        this.deathWatch = new DeathWatch(this);
-        this.scheduler = new VirtualThreadScheduler();
+        this.timer = new HashedWheelTimer(name + "-timer",
+                Duration.ofMillis(Long.getLong("avolution.actor.timer.tick-millis", 10)),
+                Integer.getInteger("avolution.actor.timer.ticks-per-wheel", 512));
+        this.scheduler = new VirtualThreadScheduler(timer);
         this.state = new AtomicReference<>(SystemState.NEW);
         this.terminationFuture = new CompletableFuture<>();
         this.contextManager = new ActorContextManager();
         this.refRegistry=new ActorRefRegistry(this);
+        this.deathWatch = refRegistry.getDeathWatch();
+        this.deadLetterOffice = new DeadLetterOffice();
+        long summaryInterval = deadLetterOffice.getLogIntervalMillis();
+        scheduler.scheduleAtFixedRate(deadLetterOffice::logSummary, summaryInterval, summaryInterval, TimeUnit.MILLISECONDS);
+        this.coordinatedShutdown = new CoordinatedShutdown(name);
+        registerShutdownTasks();
         start();
     }
 
+    private void registerShutdownTasks() {
+        coordinatedShutdown.addTask(CoordinatedShutdown.PHASE_USER_ACTORS, "stop-user-actors", this::stopUserActors);
+        coordinatedShutdown.addTask(CoordinatedShutdown.PHASE_SYSTEM_ACTORS, "stop-system-actors", this::stopSystemActors);
+        coordinatedShutdown.addTask(CoordinatedShutdown.PHASE_RELEASE_EXECUTORS, "release-executors", () -> {
+            shutdownInternals();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
     private void start() {
         if (state.compareAndSet(SystemState.NEW, SystemState.RUNNING)) {
             log.info("Actor system '{}' started", name);
@@ -207,9 +241,9 @@ public class ActorSystem {
         try {
             Props<T> props = Props.create(actorClass);
             AbstractActor<T> actor = props.newActor();
-            ActorContext context = new ActorContext(path, this, actor, null, props);
-            String[] split = path.split("/");
-            LocalActorRef<T> actorRef = new LocalActorRef<>(actor,path, split[split.length-1],null);
+            ActorPath actorPath = ActorPath.parse(path);
+            ActorContext context = new ActorContext(actorPath, this, actor, null, props);
+            LocalActorRef<T> actorRef = new LocalActorRef<>(actor, path, actorPath.name(), null);
             // 设置上下文
             actor.setContext(context);
             // 设置自身引用
@@ -237,7 +271,7 @@ public class ActorSystem {
 
     private void registerSystemActor(ActorRef<?> ref, ActorContext context) {
 //        refRegistry.registerSystem(ref);
-        contextManager.addContext(ref.path(), context);
+        contextManager.addContext(context.getActorPath(), context);
     }
 
     private void registerUserActor(ActorRef<?> ref, ActorContext context) {
@@ -283,33 +317,16 @@ public class ActorSystem {
 
         validateActorName(name);
 
-        String path;
-        if (actorContextRef != null) {
-            path = actorContextRef.getPath() + "/" + name;
-        } else {
-            path = "/user/" + name;
-        }
+        ActorPath actorPath = (actorContextRef != null ? actorContextRef.getActorPath() : ActorPath.USER).child(name);
+        String path = actorPath.toString();
 
-        // 检查是否已存在
-        if (contextManager.hasContext(path)) {
+        // 检查是否已存在, 钝化的Actor只在引用注册表中
+        if (contextManager.hasContext(path) || refRegistry.getRef(path).isPresent()) {
             throw new ActorCreationException("Actor already exists at path: " + path);
         }
 
         try {
-            AbstractActor<T> actor = props.newActor();
-            ActorContext context = new ActorContext(path, this, actor, actorContextRef, props);
-
-            LocalActorRef<T> actorRef = new LocalActorRef<>(actor,path,name,deadLetters);
-            actor.setContext(context);
-            actor.setSelfRef(actorRef);
-
-            context.start();
-            if (actorContextRef!=null){
-                actorContextRef.addChild(name,actor);
-            }
-            // 注册Actor
-            registerActor(actorRef, context);
-
+            ActorRef<T> actorRef = spawn(props, name, actorPath, actorContextRef);
             log.debug("Created actor: {}", path);
             return actorRef;
         } catch (Exception e) {
@@ -318,6 +335,124 @@ public class ActorSystem {
         }
     }
 
+    /**
+     * 批量创建Actor
+     *
+     * 先统一校验全部名称和路径, 再按CPU核数并行创建、启动并注册; 任一Actor创建失败时停止本批已创建的Actor
+     *
+     * @param props 每个Actor调用一次 {@link Props#newActor()}
+     * @param names Actor名称, 同一批内不能重复
+     * @param actorContextRef 父上下文, null 表示创建在 /user 下
+     * @return 与名称顺序一致的引用
+     */
+    public <T> List<ActorRef<T>> actorOfAll(Props<T> props, List<String> names, ActorContext actorContextRef) {
+        if (state.get() != SystemState.RUNNING) {
+            throw new IllegalStateException("Actor system is not running");
+        }
+
+        ActorPath parentPath = actorContextRef != null ? actorContextRef.getActorPath() : ActorPath.USER;
+        int count = names.size();
+        String[] batchNames = names.toArray(new String[0]);
+        ActorPath[] paths = new ActorPath[count];
+        Set<String> unique = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = batchNames[i];
+            validateActorName(name);
+            if (!unique.add(name)) {
+                throw new IllegalArgumentException("Duplicate actor name in batch: " + name);
+            }
+            paths[i] = parentPath.child(name);
+            if (contextManager.hasContext(paths[i]) || refRegistry.getRef(paths[i].toString()).isPresent()) {
+                throw new ActorCreationException("Actor already exists at path: " + paths[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        ActorRef<T>[] refs = new ActorRef[count];
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, count).parallel().forEach(i -> {
+            if (!failures.isEmpty()) {
+                return;
+            }
+            try {
+                refs[i] = spawn(props, batchNames[i], paths[i], actorContextRef);
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            for (ActorRef<T> ref : refs) {
+                if (ref != null) {
+                    stop(ref);
+                }
+            }
+            Throwable cause = failures.peek();
+            log.error("Failed to create actor batch under {}", parentPath, cause);
+            throw new ActorCreationException("Failed to create actor batch under " + parentPath, cause);
+        }
+
+        log.debug("Created {} actors under {}", count, parentPath);
+        return Arrays.asList(refs);
+    }
+
+    /**
+     * 按名称生成器批量创建 count 个Actor
+     */
+    public <T> List<ActorRef<T>> actorOfAll(Props<T> props, int count, IntFunction<String> nameGenerator,
+                                             ActorContext actorContextRef) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(nameGenerator.apply(i));
+        }
+        return actorOfAll(props, names, actorContextRef);
+    }
+
+    private <T> ActorRef<T> spawn(Props<T> props, String name, ActorPath actorPath, ActorContext actorContextRef) {
+        AbstractActor<T> actor = props.newActor();
+        LocalActorRef<T> actorRef = new LocalActorRef<>(actor, actorPath.toString(), name, deadLetterOffice);
+        Passivation<T> passivation = null;
+        if (props.passivationTimeout() != null) {
+            passivation = new Passivation<>(this, props, actorRef, actorPath, actorContextRef);
+            actorRef.enablePassivation(passivation);
+        }
+
+        ActorContext context = incarnate(props, actor, actorRef, actorPath, actorContextRef);
+        if (passivation != null) {
+            passivation.activated(actor);
+        }
+        // 注册Actor
+        registerActor(actorRef, context);
+        return actorRef;
+    }
+
+    /**
+     * 钝化的Actor重新激活: 用原有引用创建新实例, 引用注册保持不变, 只重新加入上下文树
+     */
+    <T> AbstractActor<T> reactivate(Props<T> props, LocalActorRef<T> actorRef, ActorPath actorPath,
+                                    ActorContext actorContextRef) {
+        if (state.get() != SystemState.RUNNING) {
+            throw new IllegalStateException("Actor system is not running");
+        }
+        AbstractActor<T> actor = props.newActor();
+        ActorContext context = incarnate(props, actor, actorRef, actorPath, actorContextRef);
+        contextManager.addContext(actorPath, context);
+        return actor;
+    }
+
+    private <T> ActorContext incarnate(Props<T> props, AbstractActor<T> actor, LocalActorRef<T> actorRef,
+                                       ActorPath actorPath, ActorContext actorContextRef) {
+        ActorContext context = new ActorContext(actorPath, this, actor, actorContextRef, props);
+        actor.setContext(context);
+        actor.setSelfRef(actorRef);
+
+        context.start();
+        if (actorContextRef != null) {
+            actorContextRef.addChild(actorPath.name(), actor);
+        }
+        return context;
+    }
+
     private void validateActorName(String name) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Actor name cannot be null or empty");
@@ -328,112 +463,111 @@ public class ActorSystem {
             throw new IllegalArgumentException("Actor name is too long (max 256 characters)");
         }
 
-        // 检查名称格式
-        if (!name.matches("^[a-zA-Z0-9_\\-]+$")) {
+        // 检查名称格式, 已排除路径分隔符(/)和#
+        if (!VALID_NAME.matcher(name).matches()) {
             throw new IllegalArgumentException(
                     "Actor name can only contain alphanumeric characters, underscores and hyphens"
             );
         }
 
         // 检查保留字
-        String[] reservedNames = {"system", "user", "temp", "deadLetters", "guardian"};
-        for (String reserved : reservedNames) {
-            if (name.equalsIgnoreCase(reserved)) {
-                throw new IllegalArgumentException("Actor name '" + name + "' is reserved");
-            }
-        }
-
-        // 检查特殊字符
-        if (name.contains("/") || name.contains("#")) {
-            throw new IllegalArgumentException(
-                    "Actor name cannot contain path separators (/) or hash (#) characters"
-            );
+        if (RESERVED_NAMES.contains(name.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Actor name '" + name + "' is reserved");
         }
     }
 
+    /**
+     * 停止Actor及其子树, 返回全部停止后完成的Future
+     */
     public CompletableFuture<Void> stop(ActorRef<?> actor) {
         if (actor == null) {
             return CompletableFuture.completedFuture(null);
         }
 
-        CompletableFuture<Void> stopFuture = new CompletableFuture<>();
+        Optional<ActorContext> context = contextManager.getContext(actor.path());
+        if (context.isPresent()) {
+            return context.get().stop();
+        }
+        if (actor.isTerminated() || stopPassive(actor)) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        // 使用Actor的消息处理线程
+        // 正在钝化或重新激活, 停止信号经由引用投递
+        CompletableFuture<Void> stopFuture = new CompletableFuture<>();
         actor.tell(new SystemStopMessage(stopFuture), ActorRef.noSender());
-
         return stopFuture;
     }
 
+    /**
+     * 按 {@link CoordinatedShutdown} 的阶段停止系统, 立即返回, 全部阶段结束后Future完成;
+     * 系统名称在开始停止时即释放, 可以马上创建新的系统
+     */
     public CompletableFuture<Void> terminate() {
         if (state.compareAndSet(SystemState.RUNNING, SystemState.TERMINATING)) {
-            try {
-                log.info("Terminating actor system '{}'...", name);
-
-                // 1. 停止用户Actor
-                stopUserActors();
-
-                // 2. 停止系统Actor
-                stopSystemActors();
+            log.info("Terminating actor system '{}'...", name);
 
-                // 3. 关闭内部组件
-                shutdownInternals();
+            // 清理系统实例
+            NAMED_SYSTEMS.remove(this.name, this);
+            INSTANCE.compareAndSet(this, null);
 
-                // 4. 设置终止状态
+            coordinatedShutdown.run().whenComplete((report, e) -> {
                 state.set(SystemState.TERMINATED);
-                terminationFuture.complete(null);
-
-                // 清理系统实例
-                NAMED_SYSTEMS.remove(this.name);
-                if (INSTANCE.get() == this) {
-                    INSTANCE.set(null);
+                if (e != null) {
+                    log.error("Error during actor system termination", e);
+                    terminationFuture.completeExceptionally(e);
+                    return;
                 }
-
-                state.set(SystemState.TERMINATED);
+                log.info("Actor system '{}' terminated in {} ms", name, report.elapsed().toMillis());
                 terminationFuture.complete(null);
-
-                log.info("Actor system '{}' terminated", name);
-            } catch (Exception e) {
-                log.error("Error during actor system termination", e);
-                terminationFuture.completeExceptionally(e);
-            }
+            });
         }
         return terminationFuture;
     }
 
-    private void stopUserActors() {
-        // 最后停止用户守护者
-        if (userGuardian != null) {
-            stop(userGuardian);
+    // 顶层用户Actor各自并行停止自己的子树
+    private CompletableFuture<Void> stopUserActors() {
+        Set<ActorContext> topLevel = contextManager.getChildContexts(ActorPath.USER);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(topLevel.size());
+        for (ActorContext context : topLevel) {
+            futures.add(context.stop());
         }
+        // 钝化的顶层Actor没有上下文, 直接注销并通知监视者; 钝化的后代随父Actor注销
+        for (ActorRef<?> passive : contextManager.getPassiveChildren(ActorPath.USER)) {
+            if (!stopPassive(passive)) {
+                unregisterActor(passive.path());
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
-    private void stopSystemActors() {
-        // 按照依赖顺序反向停止系统Actor
-        if (systemGuardian != null) {
-            stop(systemGuardian);
-        }
-        if (deadLetters != null) {
-            stop(deadLetters);
-        }
+    // 钝化的Actor直接注销, 不为了停止而重新创建实例
+    private boolean stopPassive(ActorRef<?> actor) {
+        return actor instanceof LocalActorRef<?> local && local.getPassivation() != null
+                && local.getPassivation().stopPassive();
     }
 
+    private CompletableFuture<Void> stopSystemActors() {
+        // 按照依赖顺序反向停止系统Actor, 死信Actor最后停止
+        return CompletableFuture.allOf(stop(userGuardian), stop(systemGuardian))
+                .thenCompose(v -> stop(deadLetters));
+    }
+
+    // 此时Actor已全部停止, 剩余的定时任务直接中断, 不等待
     private void shutdownInternals() {
-        try {
-            // 关闭调度器
-            if (scheduler != null) {
-                scheduler.shutdown();
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            }
+        // 输出最后一段时间的死信汇总
+        deadLetterOffice.logSummary();
 
-            // 关闭消息分发器
-            if (dispatcher != null) {
-                dispatcher.shutdown();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Interrupted while shutting down internals", e);
+        // 关闭调度器
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+
+        // 停止时间轮
+        timer.stop();
+
+        // 关闭消息分发器
+        if (dispatcher != null) {
+            dispatcher.shutdown();
         }
     }
 
@@ -443,7 +577,7 @@ public class ActorSystem {
 
     public void registerActor(ActorRef<?> ref, ActorContext context) {
         refRegistry.register(ref,context.getParent()==null?"/usr":context.getParent().getPath());
-        contextManager.addContext(ref.path(), context);
+        contextManager.addContext(context.getActorPath(), context);
     }
 
     public void unregisterActor(String path) {
@@ -451,6 +585,11 @@ public class ActorSystem {
         contextManager.removeContext(path);
     }
 
+    public void unregisterActor(ActorPath path) {
+        refRegistry.unregister(path.toString(),"");
+        contextManager.removeContext(path);
+    }
+
     // Getters
     public String name() {
         return name;
@@ -468,10 +607,39 @@ public class ActorSystem {
         return scheduler;
     }
 
+    /**
+     * 系统共享的时间轮定时器, 适合大量短超时
+     */
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
+
     public ActorRef<IDeadLetterActorMessage> getDeadLetters() {
         return deadLetters;
     }
 
+    /**
+     * 系统的死信汇总, 可查询按接收者和消息类型的计数及最近的样本
+     */
+    public DeadLetterOffice deadLetterOffice() {
+        return deadLetterOffice;
+    }
+
+    /**
+     * 按通配模式选择Actor, 例如 "/user/rooms/&#42;/players/&#42;"
+     * 每次调用返回新的选择, 解析结果缓存在返回的实例中, 反复投递时应保留该实例
+     */
+    public ActorSelection actorSelection(String pattern) {
+        return new ActorSelection(contextManager, ActorPathPattern.parse(pattern));
+    }
+
+    /**
+     * 系统的协调停止, 可在各阶段注册自定义任务
+     */
+    public CoordinatedShutdown coordinatedShutdown() {
+        return coordinatedShutdown;
+    }
+
     public ActorContextManager getContextManager() {
         return contextManager;
     }
@@ -0,0 +1,198 @@
+package com.avolution.actor.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 协调停止: 按固定顺序的阶段关闭Actor系统
+ *
+ * 阶段依次为:
+ * 1. {@link #PHASE_SERVICE_UNBIND}    - 停止接收网络流量, 例如关闭TCP/UDP服务的监听
+ * 2. {@link #PHASE_USER_ACTORS}       - 并行停止全部用户Actor子树
+ * 3. {@link #PHASE_SYSTEM_ACTORS}     - 停止守护Actor和死信Actor
+ * 4. {@link #PHASE_RELEASE_EXECUTORS} - 释放调度器、时间轮和消息分发器
+ *
+ * 同一阶段的任务并行执行, 全部完成或超出阶段时间预算后进入下一阶段; 超时和任务失败只记录警告, 不影响后续阶段.
+ * 阶段之间的切换在独立的平台线程中进行, 不占用Actor线程. 每个阶段的耗时汇总在 {@link Report} 中并以INFO日志输出
+ *
+ * 时间预算默认5秒, 可通过系统属性 avolution.actor.shutdown.phase-timeout-millis 配置,
+ * 或用 {@link #setPhaseTimeout(String, Duration)} 单独设置
+ *
+ * <pre>
+ * system.coordinatedShutdown().addTask(CoordinatedShutdown.PHASE_SERVICE_UNBIND, "tcp-server",
+ *         () -> CompletableFuture.runAsync(server::stop));
+ * </pre>
+ */
+public final class CoordinatedShutdown {
+    private static final Logger log = LoggerFactory.getLogger(CoordinatedShutdown.class);
+
+    public static final String PHASE_SERVICE_UNBIND = "service-unbind";
+    public static final String PHASE_USER_ACTORS = "user-actors";
+    public static final String PHASE_SYSTEM_ACTORS = "system-actors";
+    public static final String PHASE_RELEASE_EXECUTORS = "release-executors";
+
+    // 执行顺序
+    public static final List<String> PHASES = List.of(
+            PHASE_SERVICE_UNBIND, PHASE_USER_ACTORS, PHASE_SYSTEM_ACTORS, PHASE_RELEASE_EXECUTORS);
+
+    /**
+     * 单个阶段的执行结果
+     *
+     * @param phase    阶段名称
+     * @param tasks    任务数
+     * @param elapsed  耗时
+     * @param timedOut 是否超出时间预算
+     */
+    public record PhaseResult(String phase, int tasks, Duration elapsed, boolean timedOut) {}
+
+    /**
+     * 一次协调停止的结果, 阶段按执行顺序排列
+     */
+    public record Report(List<PhaseResult> phases, Duration elapsed) {
+        public Optional<PhaseResult> phase(String name) {
+            return phases.stream().filter(result -> result.phase().equals(name)).findFirst();
+        }
+    }
+
+    private record Task(String name, Supplier<CompletableFuture<Void>> action) {}
+
+    private final String systemName;
+    private final Map<String, List<Task>> tasks;
+    private final Map<String, Duration> timeouts = new ConcurrentHashMap<>();
+    private final Duration defaultTimeout;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Report> result = new CompletableFuture<>();
+    // 阶段切换在独立的平台线程中执行: 不排在大量待执行的Actor虚拟线程之后, 也不在Actor线程或定时器线程中关闭执行器
+    private final Executor phaseExecutor;
+
+    CoordinatedShutdown(String systemName) {
+        this.systemName = systemName;
+        Map<String, List<Task>> phaseTasks = new LinkedHashMap<>();
+        for (String phase : PHASES) {
+            phaseTasks.put(phase, new CopyOnWriteArrayList<>());
+        }
+        this.tasks = Collections.unmodifiableMap(phaseTasks);
+        this.defaultTimeout = Duration.ofMillis(Long.getLong("avolution.actor.shutdown.phase-timeout-millis", 5000));
+        this.phaseExecutor = command -> Thread.ofPlatform().daemon().name(systemName + "-shutdown").start(command);
+    }
+
+    /**
+     * 在指定阶段注册任务, 任务返回的Future完成即视为该任务结束
+     *
+     * @throws IllegalStateException 协调停止已开始
+     */
+    public void addTask(String phase, String name, Supplier<CompletableFuture<Void>> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Shutdown task cannot be null");
+        }
+        List<Task> phaseTasks = phaseTasks(phase);
+        if (started.get()) {
+            throw new IllegalStateException("Coordinated shutdown of '" + systemName + "' already started");
+        }
+        phaseTasks.add(new Task(name, action));
+    }
+
+    /**
+     * 设置阶段的时间预算
+     */
+    public void setPhaseTimeout(String phase, Duration timeout) {
+        phaseTasks(phase);
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Phase timeout must be positive");
+        }
+        timeouts.put(phase, timeout);
+    }
+
+    public Duration getPhaseTimeout(String phase) {
+        phaseTasks(phase);
+        return timeouts.getOrDefault(phase, defaultTimeout);
+    }
+
+    /**
+     * 开始协调停止, 立即返回; 重复调用返回同一个Future
+     */
+    public CompletableFuture<Report> run() {
+        if (!started.compareAndSet(false, true)) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+        List<PhaseResult> results = new ArrayList<>(PHASES.size());
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (String phase : PHASES) {
+            chain = chain.thenComposeAsync(v -> runPhase(phase, results), phaseExecutor);
+        }
+        chain.whenComplete((v, e) -> {
+            Report report = new Report(List.copyOf(results), Duration.ofNanos(System.nanoTime() - start));
+            if (e != null) {
+                log.error("Coordinated shutdown of '{}' failed", systemName, e);
+                result.completeExceptionally(e);
+                return;
+            }
+            log.info("Coordinated shutdown of '{}' finished in {} ms", systemName, report.elapsed().toMillis());
+            result.complete(report);
+        });
+        return result;
+    }
+
+    public boolean isStarted() {
+        return started.get();
+    }
+
+    private CompletableFuture<Void> runPhase(String phase, List<PhaseResult> results) {
+        List<Task> phaseTasks = tasks.get(phase);
+        Duration timeout = getPhaseTimeout(phase);
+        long start = System.nanoTime();
+
+        CompletableFuture<?>[] futures = new CompletableFuture[phaseTasks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = runTask(phase, phaseTasks.get(i));
+        }
+
+        return CompletableFuture.allOf(futures)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((v, e) -> {
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                    boolean timedOut = e != null;
+                    if (timedOut) {
+                        log.warn("Coordinated shutdown phase '{}' exceeded its budget of {} ms, continuing",
+                                phase, timeout.toMillis());
+                    }
+                    results.add(new PhaseResult(phase, futures.length, elapsed, timedOut));
+                    log.info("Coordinated shutdown phase '{}' finished in {} ms ({} tasks)",
+                            phase, elapsed.toMillis(), futures.length);
+                    return null;
+                });
+    }
+
+    // 任务失败不影响同阶段的其他任务
+    private CompletableFuture<Void> runTask(String phase, Task task) {
+        CompletableFuture<Void> future;
+        try {
+            future = task.action().get();
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        if (future == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return future.exceptionally(e -> {
+            log.warn("Shutdown task '{}' in phase '{}' failed", task.name(), phase, e);
+            return null;
+        });
+    }
+
+    private List<Task> phaseTasks(String phase) {
+        List<Task> phaseTasks = tasks.get(phase);
+        if (phaseTasks == null) {
+            throw new IllegalArgumentException("Unknown shutdown phase: " + phase);
+        }
+        return phaseTasks;
+    }
+}
@@ -1,88 +1,189 @@
 package com.avolution.actor.core;
 
-import com.avolution.actor.concurrent.VirtualThreadScheduler;
+import com.avolution.actor.concurrent.HashedWheelTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Actor的定时器
+ *
+ * 只是系统共享时间轮上的一组带键句柄, 不持有线程或执行器:
+ * 没有定时器的Actor创建和停止都不产生额外开销, 键表在第一次登记带键定时器时才创建
+ */
 public class DefaultActorScheduler implements ActorScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultActorScheduler.class);
 
-    private final ScheduledExecutorService scheduler;
-    private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();;
+    private final HashedWheelTimer timer;
+    // 带键的定时器, 延迟创建
+    private volatile Map<String, ScheduledFuture<?>> timers;
+    private volatile boolean stopped;
 
-
-    public DefaultActorScheduler() {
-        this.scheduler = new VirtualThreadScheduler();
+    public DefaultActorScheduler(HashedWheelTimer timer) {
+        this.timer = timer;
     }
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-        return scheduler.schedule(command, delay, unit);
+        checkStopped();
+        return timer.schedule(guard(command), delay, unit);
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-        return scheduler.scheduleAtFixedRate(command, initialDelay, period, unit);
+        checkStopped();
+        return timer.scheduleAtFixedRate(guard(command), initialDelay, period, unit);
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-        return scheduler.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        checkStopped();
+        return timer.scheduleWithFixedDelay(guard(command), initialDelay, delay, unit);
     }
 
     @Override
     public <T> void scheduleOnce(String key, Duration delay, T message, Consumer<T> messageHandler) {
-        cancelTimer(key);
-        ScheduledFuture<?> timer = scheduler.schedule(
-                () -> messageHandler.accept(message),
-                delay.toMillis(),
-                TimeUnit.MILLISECONDS
-        );
-        timers.put(key, timer);
+        checkStopped();
+        KeyedTask task = new KeyedTask(key, () -> messageHandler.accept(message), true);
+        task.future = timer.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+        register(key, task);
     }
 
     @Override
     public void scheduleRepeatedly(String key, Duration initialDelay, Duration interval, Object message, Consumer<Object> messageHandler) {
-        cancelTimer(key);
-        ScheduledFuture<?> timer = scheduler.scheduleAtFixedRate(
-                () -> messageHandler.accept(message),
-                initialDelay.toMillis(),
-                interval.toMillis(),
-                TimeUnit.MILLISECONDS
-        );
-        timers.put(key, timer);
+        checkStopped();
+        KeyedTask task = new KeyedTask(key, () -> messageHandler.accept(message), false);
+        task.future = timer.scheduleAtFixedRate(task, initialDelay.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+        register(key, task);
     }
 
     @Override
     public void cancelTimer(String key) {
-        ScheduledFuture<?> timer = timers.remove(key);
-        if (timer != null) {
+        Map<String, ScheduledFuture<?>> current = timers;
+        if (current == null) {
+            return;
+        }
+        ScheduledFuture<?> future = current.remove(key);
+        if (future != null) {
             logger.debug("Cancelling timer: {}", key);
-            timer.cancel(false);
+            future.cancel(false);
         }
     }
 
     @Override
-    public void shutdown() throws InterruptedException {
-        logger.info("Shutting down scheduler");
-        // 取消所有计时器
-        timers.values().forEach(timer -> timer.cancel(true));
-        timers.clear();
-
-        // 关闭调度器
-        scheduler.shutdown();
-        if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-            logger.info("Forcing shutdown of scheduler");
-            scheduler.shutdownNow();
+    public void cancelAll() {
+        Map<String, ScheduledFuture<?>> current = timers;
+        if (current != null) {
+            current.values().forEach(future -> future.cancel(false));
+            current.clear();
+        }
+    }
+
+    /**
+     * 取消所有带键定时器, 未带键的任务到期时不再执行
+     * 时间轮由系统持有, 这里不等待任何线程结束
+     */
+    @Override
+    public void shutdown() {
+        stopped = true;
+        cancelAll();
+    }
+
+    /**
+     * 当前登记的带键定时器数
+     */
+    public int activeTimers() {
+        Map<String, ScheduledFuture<?>> current = timers;
+        return current == null ? 0 : current.size();
+    }
+
+    private void register(String key, KeyedTask task) {
+        ScheduledFuture<?> future = task.future;
+        ScheduledFuture<?> previous = timers().put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        // 与shutdown竞争时, 保证登记后的定时器也被取消
+        if (stopped) {
+            cancelTimer(key);
+        } else if (task.fired) {
+            // 一次性任务在登记前已执行完
+            timers.remove(key, future);
+        }
+    }
+
+    private Map<String, ScheduledFuture<?>> timers() {
+        Map<String, ScheduledFuture<?>> current = timers;
+        if (current == null) {
+            synchronized (this) {
+                current = timers;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>(4);
+                    timers = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // 停止后抛出异常, 使时间轮上的周期任务不再登记
+    private Runnable guard(Runnable command) {
+        return () -> {
+            if (stopped) {
+                throw new CancellationException("Actor scheduler is stopped");
+            }
+            command.run();
+        };
+    }
+
+    private void checkStopped() {
+        if (stopped) {
+            throw new RejectedExecutionException("Actor scheduler is stopped");
+        }
+    }
+
+    /**
+     * 带键的定时任务, 一次性任务执行后从键表中移除自身
+     */
+    private final class KeyedTask implements Runnable {
+        private final String key;
+        private final Runnable action;
+        private final boolean once;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean fired;
+
+        KeyedTask(String key, Runnable action, boolean once) {
+            this.key = key;
+            this.action = action;
+            this.once = once;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                throw new CancellationException("Actor scheduler is stopped");
+            }
+            try {
+                action.run();
+            } finally {
+                if (once) {
+                    fired = true;
+                    Map<String, ScheduledFuture<?>> current = timers;
+                    ScheduledFuture<?> self = future;
+                    if (current != null && self != null) {
+                        current.remove(key, self);
+                    }
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
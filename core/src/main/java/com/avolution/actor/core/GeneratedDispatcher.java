@@ -0,0 +1,46 @@
+package com.avolution.actor.core;
+
+/**
+ * 编译期生成的 {@link com.avolution.actor.core.annotation.OnReceive} 分发器
+ *
+ * 由 processor 模块的注解处理器为每个声明了处理器方法的Actor类生成, 类名为 Actor类的二进制名加
+ * {@link #SUFFIX}, 以 switch 模式匹配消息类型并直接调用处理器方法;
+ * 接口处理器与其他处理器可能同时匹配一条消息时, 胜出者取决于消息的具体类, 生成类改为经 {@link #nearest} 按具体类解析
+ * 运行时找到生成类时不再扫描反射信息, 找不到时退回到反射构建的处理器表
+ */
+public interface GeneratedDispatcher {
+
+    /**
+     * 生成类名的后缀
+     */
+    String SUFFIX = "$$OnReceiveDispatcher";
+
+    /**
+     * 把消息交给对应的处理器
+     *
+     * @param actor   Actor实例
+     * @param message 消息
+     * @return 有匹配的处理器时返回true
+     * @throws Throwable 处理器抛出的异常原样传出
+     */
+    boolean dispatch(Object actor, Object message) throws Throwable;
+
+    /**
+     * 按与反射处理器表相同的规则解析消息类: 距离最近的注册类型胜出, 距离相同时父类先于接口
+     *
+     * @param messageClass 消息的具体类
+     * @param handlerTypes 注册的消息类型
+     * @return 胜出类型在 handlerTypes 中的下标, 没有匹配时返回-1
+     */
+    static int nearest(Class<?> messageClass, Class<?>... handlerTypes) {
+        Integer index = ActorHandlerTable.nearest(messageClass, type -> {
+            for (int i = 0; i < handlerTypes.length; i++) {
+                if (handlerTypes[i] == type) {
+                    return i;
+                }
+            }
+            return null;
+        });
+        return index != null ? index : -1;
+    }
+}
@@ -3,12 +3,10 @@ package com.avolution.actor.core;
 import com.avolution.actor.message.MessageType;
 import com.avolution.actor.message.Signal;
 import com.avolution.actor.message.Terminated;
-import com.avolution.actor.system.actor.IDeadLetterActorMessage;
+import com.avolution.actor.system.actor.DeadLetterOffice;
 
 import java.lang.ref.WeakReference;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
@@ -17,39 +15,62 @@ import java.util.concurrent.CompletableFuture;
  * @param <T>
  */
 public class LocalActorRef<T> implements ActorRef<T> {
-    // 弱引用，避免循环引用
-    private WeakReference<AbstractActor<T>> actor;
+    // 弱引用，避免循环引用; 钝化后重新激活时替换
+    private volatile WeakReference<AbstractActor<T>> actor;
     // 原始路径
     private final String originalPath;
     // 原始名称
     private final String originalName;
-    // 死信Actor
-    private ActorRef<IDeadLetterActorMessage> deadLetters;
+    // 死信汇总, 系统Actor为null
+    private final DeadLetterOffice deadLetters;
+    // 钝化控制, 未启用时为null
+    private Passivation<T> passivation;
 
-    public LocalActorRef(AbstractActor<T> actor,String originalPath,String originalName,ActorRef<IDeadLetterActorMessage> deadLetters) {
+    public LocalActorRef(AbstractActor<T> actor,String originalPath,String originalName,DeadLetterOffice deadLetters) {
         this.actor = new WeakReference<>(actor);
         this.originalPath =originalPath;
         this.originalName = originalName;
         this.deadLetters =deadLetters;
     }
 
-    private void handleDeadLetter(Object message, ActorRef sender) {
+    void enablePassivation(Passivation<T> passivation) {
+        this.passivation = passivation;
+    }
+
+    void setActor(AbstractActor<T> actor) {
+        this.actor = new WeakReference<>(actor);
+    }
+
+    /**
+     * 重启后由上下文调用, 引用指向新实例, 已启用钝化时一并更新
+     */
+    public void replaceActor(AbstractActor<T> actor) {
+        setActor(actor);
+        if (passivation != null) {
+            passivation.replaced(actor);
+        }
+    }
+
+    /**
+     * @return 钝化控制, 未启用钝化时为null
+     */
+    public Passivation<T> getPassivation() {
+        return passivation;
+    }
+
+    void handleDeadLetter(Object message, ActorRef sender) {
         if (deadLetters == null) {
             return;
         }
-        IDeadLetterActorMessage.DeadLetter deadLetter = new IDeadLetterActorMessage.DeadLetter(
-                message,
-                sender.path(),
-                originalPath,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                MessageType.NORMAL.toString(),
-                0
-        );
-        deadLetters.tell(deadLetter, ActorRef.noSender());
+        deadLetters.publish(message, sender != null ? sender.path() : "unknown", originalPath, MessageType.NORMAL, 0);
     }
 
     @Override
     public void tell(T message, ActorRef sender) {
+        if (passivation != null) {
+            passivation.tell(message, sender);
+            return;
+        }
         if (isTerminated()) {
             handleDeadLetter(message, sender);
         } else {
@@ -64,6 +85,10 @@ public class LocalActorRef<T> implements ActorRef<T> {
 
     @Override
     public void tell(Signal signal, ActorRef sender) {
+        if (passivation != null) {
+            passivation.tell(signal, sender);
+            return;
+        }
         if (isTerminated()) {
             handleDeadLetter(signal, sender);
         } else {
@@ -78,6 +103,9 @@ public class LocalActorRef<T> implements ActorRef<T> {
 
     @Override
     public <R> CompletableFuture<R> ask(T message, Duration timeout) {
+        if (passivation != null && !isTerminated()) {
+            return passivation.ask(message, timeout);
+        }
         if (isTerminated()) {
             CompletableFuture<R> future = new CompletableFuture<>();
             handleDeadLetter(message, ActorRef.noSender());
@@ -99,6 +127,9 @@ public class LocalActorRef<T> implements ActorRef<T> {
 
     @Override
     public boolean isTerminated() {
+        if (passivation != null) {
+            return passivation.isTerminated();
+        }
         return actor == null || actor.get() == null || actor.get().isTerminated();
     }
 
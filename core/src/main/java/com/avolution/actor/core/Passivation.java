@@ -0,0 +1,282 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.context.ActorContext;
+import com.avolution.actor.lifecycle.LifecycleState;
+import com.avolution.actor.message.Passivate;
+import com.avolution.actor.message.Signal;
+import com.avolution.actor.pattern.PromiseActorRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Actor钝化控制, 每个启用钝化的 {@link LocalActorRef} 一个
+ *
+ * 空闲检查挂在系统时间轮上, 每个Actor只有一个待执行的检查; 空闲超时后向Actor发送 {@link Passivate},
+ * 由Actor线程停止实例并释放上下文, 引用注册保留, 上下文树中只留引用, 通配选择和系统停止仍能找到该Actor
+ * 钝化后的第一条消息触发重新创建, 创建期间到达的消息按顺序缓存, 创建完成后先于新消息投递
+ * 活跃状态下的投递只读一次状态并增减在途计数, 不加锁
+ */
+public final class Passivation<T> {
+    private static final Logger logger = LoggerFactory.getLogger(Passivation.class);
+
+    private enum State {
+        ACTIVE,
+        PASSIVATING,
+        PASSIVE,
+        ACTIVATING,
+        TERMINATED
+    }
+
+    private record Pending(Object message, ActorRef sender) {
+    }
+
+    private final ActorSystem system;
+    private final Props<T> props;
+    private final LocalActorRef<T> ref;
+    private final ActorPath path;
+    private final ActorContext parent;
+    private final long timeoutNanos;
+
+    private volatile State state = State.ACTIVE;
+    private volatile AbstractActor<T> current;
+    // 活跃状态下正在投递的线程数, 不为零时放弃钝化
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // 非活跃状态下到达的消息, 由this保护
+    private final Queue<Pending> buffer = new ArrayDeque<>();
+
+    Passivation(ActorSystem system, Props<T> props, LocalActorRef<T> ref, ActorPath path, ActorContext parent) {
+        this.system = system;
+        this.props = props;
+        this.ref = ref;
+        this.path = path;
+        this.parent = parent;
+        this.timeoutNanos = props.passivationTimeout().toNanos();
+    }
+
+    /**
+     * 新实例启动后调用, 开始空闲检查
+     */
+    void activated(AbstractActor<T> actor) {
+        current = actor;
+        scheduleIdleCheck(actor.getContext(), timeoutNanos);
+    }
+
+    /**
+     * 重启替换了实例, 上下文不变, 已有的空闲检查继续有效
+     */
+    void replaced(AbstractActor<T> actor) {
+        current = actor;
+    }
+
+    void tell(Object message, ActorRef sender) {
+        inFlight.incrementAndGet();
+        try {
+            if (state == State.ACTIVE) {
+                deliver(current, message, sender);
+                return;
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        synchronized (this) {
+            switch (state) {
+                case ACTIVE -> {
+                    deliver(current, message, sender);
+                    return;
+                }
+                case TERMINATED -> {
+                    ref.handleDeadLetter(message, sender);
+                    return;
+                }
+                case PASSIVATING, ACTIVATING -> {
+                    buffer.add(new Pending(message, sender));
+                    return;
+                }
+                case PASSIVE -> {
+                    buffer.add(new Pending(message, sender));
+                    state = State.ACTIVATING;
+                }
+            }
+        }
+        activate();
+    }
+
+    <R> CompletableFuture<R> ask(T message, Duration timeout) {
+        PromiseActorRef<R> replyTo = PromiseActorRef.create(system, timeout);
+        tell(message, replyTo);
+        return replyTo.future();
+    }
+
+    boolean isTerminated() {
+        return switch (state) {
+            case TERMINATED -> true;
+            case ACTIVE -> {
+                AbstractActor<T> actor = current;
+                yield actor == null || actor.isTerminated();
+            }
+            // 父Actor停止时钝化的子Actor随之注销
+            case PASSIVE -> system.getRefRegistry().getRef(path.toString()).orElse(null) != ref;
+            default -> false;
+        };
+    }
+
+    /**
+     * 停止钝化的Actor: 不重新创建实例, 直接注销引用并通知监视者
+     *
+     * @return 不处于钝化状态时返回false, 由调用方经由引用投递停止信号
+     */
+    boolean stopPassive() {
+        synchronized (this) {
+            if (state != State.PASSIVE) {
+                return false;
+            }
+            state = State.TERMINATED;
+        }
+        system.unregisterActor(path);
+        logger.debug("Stopped passive actor: {}", path);
+        return true;
+    }
+
+    /**
+     * 是否处于钝化状态, 实例已释放
+     */
+    public boolean isPassive() {
+        return state == State.PASSIVE;
+    }
+
+    /**
+     * 由 {@link Passivate} 在Actor线程中调用; 有正在进行的投递、邮箱中仍有消息或存在子Actor时放弃本次钝化
+     * 不在Actor线程上等待投递完成, 以免阻塞等待邮箱空间的发送方
+     */
+    public void passivate(ActorContext context) {
+        AbstractActor<T> actor = current;
+        if (actor == null || actor.getContext() != context) {
+            return;
+        }
+        synchronized (this) {
+            if (state != State.ACTIVE) {
+                return;
+            }
+            state = State.PASSIVATING;
+        }
+        // 读到活跃状态的投递尚未完成入队, 马上会有新消息
+        if (inFlight.get() != 0 || context.getMailbox().hasMessages() || context.hasChildren()) {
+            synchronized (this) {
+                drainTo(actor);
+                state = State.ACTIVE;
+            }
+            scheduleIdleCheck(context, timeoutNanos);
+            return;
+        }
+
+        try {
+            actor.onPassivate();
+        } catch (Exception e) {
+            logger.error("Error in passivation callback: {}", path, e);
+        }
+        // 在本Actor的处理线程中停止, 不会中断本线程
+        context.stopForPassivation();
+
+        boolean reactivate;
+        synchronized (this) {
+            current = null;
+            reactivate = !buffer.isEmpty();
+            state = reactivate ? State.ACTIVATING : State.PASSIVE;
+        }
+        logger.debug("Passivated actor: {}", path);
+        if (reactivate) {
+            activate();
+        }
+    }
+
+    // 由把状态切换为ACTIVATING的线程调用
+    private void activate() {
+        AbstractActor<T> actor;
+        try {
+            if (isTerminatedWhilePassive()) {
+                throw new IllegalStateException("Actor was stopped while passive: " + path);
+            }
+            actor = system.reactivate(props, ref, path, parent);
+            actor.onActivate();
+        } catch (Exception e) {
+            logger.error("Failed to reactivate actor: {}", path, e);
+            synchronized (this) {
+                state = State.TERMINATED;
+                Pending pending;
+                while ((pending = buffer.poll()) != null) {
+                    ref.handleDeadLetter(pending.message(), pending.sender());
+                }
+            }
+            return;
+        }
+
+        ref.setActor(actor);
+        synchronized (this) {
+            current = actor;
+            drainTo(actor);
+            state = State.ACTIVE;
+        }
+        scheduleIdleCheck(actor.getContext(), timeoutNanos);
+        logger.debug("Reactivated actor: {}", path);
+    }
+
+    private boolean isTerminatedWhilePassive() {
+        if (system.getRefRegistry().getRef(path.toString()).orElse(null) != ref) {
+            return true;
+        }
+        return parent != null && parent.getState().get() != LifecycleState.RUNNING;
+    }
+
+    private void drainTo(AbstractActor<T> actor) {
+        Pending pending;
+        while ((pending = buffer.poll()) != null) {
+            deliver(actor, pending.message(), pending.sender());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(AbstractActor<T> actor, Object message, ActorRef sender) {
+        if (actor == null || actor.isTerminated()) {
+            ref.handleDeadLetter(message, sender);
+        } else if (message instanceof Signal signal) {
+            actor.tell(signal, sender);
+        } else {
+            actor.tell((T) message, sender);
+        }
+    }
+
+    private void scheduleIdleCheck(ActorContext context, long delayNanos) {
+        try {
+            system.getTimer().schedule(() -> checkIdle(context), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // 系统已停止
+        }
+    }
+
+    private void checkIdle(ActorContext context) {
+        AbstractActor<T> actor = current;
+        if (state != State.ACTIVE || actor == null || actor.getContext() != context
+                || context.getState().get() != LifecycleState.RUNNING) {
+            return;
+        }
+        if (context.getMailbox().hasMessages()) {
+            scheduleIdleCheck(context, timeoutNanos);
+            return;
+        }
+        long idle = System.nanoTime() - context.getLastActivityNanos();
+        if (idle >= timeoutNanos) {
+            actor.tell(Passivate.INSTANCE, ActorRef.noSender());
+        } else {
+            scheduleIdleCheck(context, timeoutNanos - idle);
+        }
+    }
+}
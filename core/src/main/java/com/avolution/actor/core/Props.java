@@ -1,9 +1,16 @@
 package com.avolution.actor.core;
 
+import com.avolution.actor.config.strategies.ThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.AdaptiveThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.DeadlineThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.FixedThroughputStrategy;
+import com.avolution.actor.mailbox.MailboxFactory;
 import com.avolution.actor.supervision.DefaultSupervisorStrategy;
 import com.avolution.actor.supervision.SupervisorStrategy;
 
 import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 import com.avolution.actor.exception.ActorCreationException;
 
@@ -12,13 +19,28 @@ public class Props<T> {
     private final Supplier<AbstractActor<T>> factory;
     private final SupervisorStrategy supervisorStrategy;
     private final int throughput;
-    
+    private final MailboxFactory mailboxFactory;
+    // 时间片模式下每轮的时间预算, 为null时按固定条数处理
+    private final Duration throughputDeadline;
+    // 自适应模式下空闲时每轮的目标时长
+    private final Duration adaptiveTarget;
+    // 空闲多久后钝化, 为null时不钝化
+    private final Duration passivationTimeout;
+
     private Props(Supplier<AbstractActor<T>> factory, 
                  SupervisorStrategy supervisorStrategy,
-                 int throughput) {
+                 int throughput,
+                 MailboxFactory mailboxFactory,
+                 Duration throughputDeadline,
+                 Duration adaptiveTarget,
+                 Duration passivationTimeout) {
         this.factory = factory;
         this.supervisorStrategy = supervisorStrategy;
         this.throughput = throughput;
+        this.mailboxFactory = mailboxFactory;
+        this.throughputDeadline = throughputDeadline;
+        this.adaptiveTarget = adaptiveTarget;
+        this.passivationTimeout = passivationTimeout;
     }
 
     /**
@@ -36,7 +58,7 @@ public class Props<T> {
             } catch (Exception e) {
                 throw new ActorCreationException("Failed to create actor instance", e);
             }
-        }, DefaultSupervisorStrategy.INSTANCE, 100);
+        }, DefaultSupervisorStrategy.INSTANCE, 100, MailboxFactory.unbounded(), null, null, null);
     }
 
     /**
@@ -59,19 +81,69 @@ public class Props<T> {
             } catch (Exception e) {
                 throw new ActorCreationException("Failed to create actor instance with parameters", e);
             }
-        }, DefaultSupervisorStrategy.INSTANCE, 100);
+        }, DefaultSupervisorStrategy.INSTANCE, 100, MailboxFactory.unbounded(), null, null, null);
     }
 
     public static <T> Props<T> create(Supplier<AbstractActor<T>> factory) {
-        return new Props<>(factory, DefaultSupervisorStrategy.INSTANCE, 100);
+        return new Props<>(factory, DefaultSupervisorStrategy.INSTANCE, 100, MailboxFactory.unbounded(), null, null, null);
     }
 
+    /**
+     * 指定Actor自身失败时的监督策略, 未指定时使用Actor策略自带的一对一策略
+     * 传入 {@link com.avolution.actor.supervision.BackoffSupervisorStrategy} 时按指数退避延迟重启
+     */
     public Props<T> withSupervisorStrategy(SupervisorStrategy strategy) {
-        return new Props<>(this.factory, strategy, this.throughput);
+        return new Props<>(this.factory, strategy, this.throughput, this.mailboxFactory,
+                this.throughputDeadline, this.adaptiveTarget, this.passivationTimeout);
     }
 
+    /**
+     * 每轮最多处理的消息数, 在时间片和自适应模式下作为上限
+     */
     public Props<T> withThroughput(int throughput) {
-        return new Props<>(this.factory, this.supervisorStrategy, throughput);
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("Throughput must be positive");
+        }
+        return new Props<>(this.factory, this.supervisorStrategy, throughput, this.mailboxFactory,
+                this.throughputDeadline, this.adaptiveTarget, this.passivationTimeout);
+    }
+
+    /**
+     * 时间片模式: 每轮持续处理直到时间预算用完再让出线程, 条数上限仍为throughput
+     */
+    public Props<T> withThroughputDeadline(Duration budget) {
+        return new Props<>(this.factory, this.supervisorStrategy, this.throughput, this.mailboxFactory,
+                budget, null, this.passivationTimeout);
+    }
+
+    /**
+     * 自适应模式: 根据处理耗时和调度器负载调整每轮处理量, 条数上限为throughput
+     * @param targetTurn 调度器空闲时每轮的目标时长
+     */
+    public Props<T> withAdaptiveThroughput(Duration targetTurn) {
+        return new Props<>(this.factory, this.supervisorStrategy, this.throughput, this.mailboxFactory,
+                null, targetTurn, this.passivationTimeout);
+    }
+
+    /**
+     * 指定邮箱类型, 例如 {@code MailboxFactory.bounded(1000, OverflowStrategy.DROP_OLD)}
+     */
+    public Props<T> withMailbox(MailboxFactory mailboxFactory) {
+        return new Props<>(this.factory, this.supervisorStrategy, this.throughput, mailboxFactory,
+                this.throughputDeadline, this.adaptiveTarget, this.passivationTimeout);
+    }
+
+    /**
+     * 空闲超过 idleTimeout 后钝化: 停止Actor并释放实例和上下文, 引用保持有效,
+     * 下一条消息到达时通过本Props重新创建, 创建期间的消息先缓存
+     * 钝化时定时器被取消, 有子Actor时不钝化
+     */
+    public Props<T> withPassivation(Duration idleTimeout) {
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Passivation timeout must be positive");
+        }
+        return new Props<>(this.factory, this.supervisorStrategy, this.throughput, this.mailboxFactory,
+                this.throughputDeadline, this.adaptiveTarget, idleTimeout);
     }
 
     public AbstractActor<T> newActor() {
@@ -85,4 +157,29 @@ public class Props<T> {
     public int throughput() {
         return throughput;
     }
+
+    public MailboxFactory mailboxFactory() {
+        return mailboxFactory;
+    }
+
+    /**
+     * @return 钝化的空闲时长, 未启用时为null
+     */
+    public Duration passivationTimeout() {
+        return passivationTimeout;
+    }
+
+    /**
+     * 为一个邮箱创建处理量策略, 每个邮箱一个实例
+     * @param dispatcherQueueDepth 调度器中待执行的邮箱数, 供自适应模式使用
+     */
+    public ThroughputStrategy newThroughputStrategy(IntSupplier dispatcherQueueDepth) {
+        if (adaptiveTarget != null) {
+            return new AdaptiveThroughputStrategy(1, throughput, adaptiveTarget, dispatcherQueueDepth);
+        }
+        if (throughputDeadline != null) {
+            return new DeadlineThroughputStrategy(throughput, throughputDeadline);
+        }
+        return new FixedThroughputStrategy(throughput);
+    }
 }
\ No newline at end of file
@@ -1,20 +1,24 @@
 package com.avolution.actor.core.context;
 
+import com.avolution.actor.config.strategies.ThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.AdaptiveThroughputStrategy;
 import com.avolution.actor.core.*;
 import com.avolution.actor.exception.ActorInitializationException;
 import com.avolution.actor.exception.ActorStopException;
 import com.avolution.actor.mailbox.Mailbox;
 import com.avolution.actor.message.*;
+import com.avolution.actor.supervision.Backoff;
+import com.avolution.actor.supervision.BackoffSupervisorStrategy;
 import com.avolution.actor.supervision.Directive;
 import com.avolution.actor.supervision.SupervisorStrategy;
 import com.avolution.actor.lifecycle.LifecycleState;
-import com.avolution.actor.system.actor.IDeadLetterActorMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -22,12 +26,17 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class ActorContext  {
     private static final Logger logger = LoggerFactory.getLogger(ActorContext.class);
+    // 等待子Actor停止的上限, 超过后强制停止剩余的子Actor
+    private static final Duration CHILD_STOP_TIMEOUT = Duration.ofSeconds(2);
     // Actor路径
+    private final ActorPath actorPath;
     private final String path;
     // Actor系统
     private final ActorSystem system;
-    // Actor实例,强绑定
-    private final AbstractActor<?> self;
+    // Actor实例,强绑定; 重启时替换, 上下文和邮箱保留
+    private volatile AbstractActor<?> self;
+    // 重启时通过Props重新创建实例
+    private final Props<?> props;
 
     private final ActorContext parent;
 
@@ -42,19 +51,49 @@ public class ActorContext  {
     private final AtomicReference<LifecycleState> state = new AtomicReference<>(LifecycleState.NEW);
 
     private final ActorScheduler scheduler;
-    // 添加监视器管理
-    private final Map<ActorRef<?>, Set<Runnable>> watchCallbacks = new ConcurrentHashMap<>();
+    // 邮箱执行任务, 只创建一次, 避免每次投递都分配lambda
+    private final Runnable mailboxTask = this::processMailbox;
+    // 最近一轮邮箱处理结束的时刻, 供钝化判断空闲
+    private volatile long lastActivityNanos = System.nanoTime();
+    // 因钝化而停止, 清理时保留引用注册
+    private volatile boolean passivating;
+    // 本轮内完成了重启, 轮次结束后恢复用户消息; 只在邮箱执行线程中读写
+    private boolean resumeAfterTurn;
+    // 退避重启状态, 监督策略不是退避策略时为null
+    private final Backoff backoff;
+    // 正在等待退避定时器到期
+    private volatile boolean backingOff;
+    // 本Actor及其子树全部停止后完成
+    private final CompletableFuture<Void> terminationFuture = new CompletableFuture<>();
+    // 已投递停止信号, 重复请求只返回同一个Future
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+    // 随父Actor停止, 注册由父Actor清理时整棵子树一起注销
+    private volatile boolean unregisteredByParent;
 
     public ActorContext(String path, ActorSystem system, AbstractActor<?> self, ActorContext parent,
                         Props<?> props) {
-        this.path = path;
+        this(ActorPath.parse(path), system, self, parent, props);
+    }
+
+    public ActorContext(ActorPath path, ActorSystem system, AbstractActor<?> self, ActorContext parent,
+                        Props<?> props) {
+        this.actorPath = path;
+        this.path = path.toString();
         this.system = system;
         this.self = self;
         this.parent = parent;
+        this.props = props;
         this.children = new ConcurrentHashMap<>();
-        this.mailbox = new Mailbox(100);
+        this.mailbox = props.mailboxFactory().create(props.throughput());
+        ThroughputStrategy throughputStrategy = props.newThroughputStrategy(system.dispatcher()::getQueueDepth);
+        if (throughputStrategy instanceof AdaptiveThroughputStrategy) {
+            system.dispatcher().trackQueueDepth();
+        }
+        this.mailbox.setThroughputStrategy(throughputStrategy);
+        this.mailbox.setDeadLetterHandler(this::dropToDeadLetters);
         this.supervisorStrategy = props.supervisorStrategy();
-        this.scheduler=new DefaultActorScheduler();
+        this.backoff = supervisorStrategy instanceof BackoffSupervisorStrategy strategy ? strategy.newBackoff() : null;
+        this.scheduler=new DefaultActorScheduler(system.getTimer());
     }
 
     public void initializeActor() {
@@ -66,30 +105,58 @@ public class ActorContext  {
 
                 state.set(LifecycleState.RUNNING);
             } catch (Exception e) {
-                state.set(LifecycleState.STOPPED);
+                markStopped();
                 throw new ActorInitializationException("Failed to initialize actor", e);
             }
         }
     }
 
     public void tell(Envelope envelope) {
-        if (state.get() == LifecycleState.RUNNING) {
-            // 将消息放入邮箱
-            mailbox.enqueue(envelope);
-            // 如果邮箱中只有当前消息，则立即处理
-            system.dispatcher().dispatch(path, this::processMailbox);
+        LifecycleState current = state.get();
+        // 重启期间照常入队, 由新实例处理
+        if (current == LifecycleState.RUNNING || current == LifecycleState.RESTARTING) {
+            if (current == LifecycleState.RESTARTING && backingOff && !envelope.isSystemMessage()
+                    && backoff.whileBackingOff() == BackoffSupervisorStrategy.WhileBackingOff.DEAD_LETTER) {
+                dropToDeadLetters(envelope);
+                return;
+            }
+            // 将消息放入邮箱, 只有邮箱从空闲切换为已调度时才提交执行
+            if (mailbox.enqueue(envelope)) {
+                system.dispatcher().registerForExecution(mailbox, mailboxTask);
+            }
         }
     }
 
     private void processMailbox() {
-        if (state.get() != LifecycleState.RUNNING) {
-            return;
+        try {
+            if (isAlive()) {
+                mailbox.process(self);
+            }
+        } finally {
+            lastActivityNanos = System.nanoTime();
+            system.dispatcher().executionCompleted(mailbox);
         }
-        mailbox.process(self);
 
-        if (mailbox.hasMessages()) {
-            system.dispatcher().dispatch(path, this::processMailbox);
+        // 新实例从下一轮开始接收排队的用户消息, 本轮的处理器仍是旧实例
+        if (resumeAfterTurn) {
+            resumeAfterTurn = false;
+            mailbox.resume();
         }
+
+        // 处理期间有新消息入队, 重新调度; 暂停时只为系统消息调度
+        if (isAlive() && mailbox.hasRunnableMessages()) {
+            system.dispatcher().registerForExecution(mailbox, mailboxTask);
+        }
+    }
+
+    private boolean isAlive() {
+        LifecycleState current = state.get();
+        return current == LifecycleState.RUNNING || current == LifecycleState.RESTARTING;
+    }
+
+    // 邮箱溢出丢弃的消息转入死信
+    private void dropToDeadLetters(Envelope envelope) {
+        system.deadLetterOffice().publish(envelope, path);
     }
 
     // 添加消息处理失败的处理逻辑
@@ -149,6 +216,10 @@ public class ActorContext  {
         return path;
     }
 
+    public ActorPath getActorPath() {
+        return actorPath;
+    }
+
 
     /**
      * 生命周期
@@ -159,99 +230,108 @@ public class ActorContext  {
                 self.start();
                 state.set(LifecycleState.RUNNING);
             } catch (Exception e) {
-                state.set(LifecycleState.STOPPED);
+                markStopped();
                 throw e;
             }
         }
     }
 
 
+    /**
+     * 请求停止, 立即返回本Actor及其子树全部停止后完成的Future; 已在停止中或已停止时返回同一个Future
+     */
     public CompletableFuture<Void> stop() {
-        CompletableFuture<Void> stopFuture = new CompletableFuture<>();
-
-        // 使用当前Actor的消息处理线程
-        self.tell(new StopMessage(stopFuture), self.getSelf());
-
-        return stopFuture;
+        if (isAlive() && stopRequested.compareAndSet(false, true)) {
+            // 使用当前Actor的消息处理线程
+            tell(new Envelope(new StopMessage(new CompletableFuture<>()), ActorRef.noSender(), self.getSelf(),
+                    MessageType.SYSTEM, 1));
+        } else if (state.get() == LifecycleState.NEW) {
+            markStopped();
+        }
+        return terminationFuture;
     }
 
+    /**
+     * 在Actor线程中处理停止信号, 不阻塞: 并行停止全部子Actor, 子树全部停止后再停止自身并清理;
+     * 子Actor超过 {@link #CHILD_STOP_TIMEOUT} 未停止时强制停止剩余的子Actor
+     */
     public void handleStop(StopMessage message) {
-        if (state.get() == LifecycleState.STOPPED) {
-            message.future.complete(null);
+        terminationFuture.whenComplete((v, e) -> message.future.complete(null));
+        if (!state.compareAndSet(LifecycleState.RUNNING, LifecycleState.STOPPING)
+                && !state.compareAndSet(LifecycleState.RESTARTING, LifecycleState.STOPPING)) {
+            // 已在停止中或已停止
             return;
         }
 
         try {
-            // 1. 暂停邮箱
+            // 1. 暂停邮箱, 之后只处理系统消息
             mailbox.suspend();
-            state.set(LifecycleState.STOPPING);
-
-            // 2. 停止子Actor
-            // 2. 停止子Actor
-            if (!children.isEmpty()) {
-                // 创建子Actor停止的Future列表
-                List<CompletableFuture<Void>> childStopFutures = new ArrayList<>();
-                Map<String, AbstractActor> childrenSnapshot = new HashMap<>(children);
-
-                // 停止所有子Actor
-                childrenSnapshot.forEach((childPath, child) -> {
-
-                    CompletableFuture<Void> childFuture = new CompletableFuture<>();
-                    try {
-                        // 暂停子Actor邮箱
-                        child.getContext().suspend();
-                        // 发送停止消息
-                        child.stopByParent().orTimeout(2, TimeUnit.SECONDS).whenComplete((v, ex) -> {
-                                    if (ex != null) {
-                                        logger.warn("Child actor stop timeout: {}, forcing stop...", childPath);
-                                        forceStopChild(child, childPath);
-                                    }
-                                    childFuture.complete(null);
-                                });
-                    } catch (Exception e) {
-                        logger.error("Error stopping child actor: {}", childPath, e);
-                        forceStopChild(child, childPath);
-                        childFuture.complete(null);
-                    }
-
-                    childStopFutures.add(childFuture);
-                });
 
-                // 等待所有子Actor停止
-                CompletableFuture.allOf(childStopFutures.toArray(new CompletableFuture[0]))
-                        .orTimeout(2, TimeUnit.SECONDS)
-                        .exceptionally(ex -> {
-                            logger.warn("Timeout waiting for children to stop, forcing stop remaining children");
-                            forceStopRemainingChildren();
-                            return null;
-                        })
-                        .join();
+            // 2. 并行停止子Actor, 每个子Actor在自己的线程中停止其子树
+            if (children.isEmpty()) {
+                finishStop();
+                return;
+            }
+            List<CompletableFuture<Void>> childStopFutures = new ArrayList<>(children.size());
+            for (AbstractActor child : children.values()) {
+                ActorContext childContext = child.getContext();
+                if (childContext != null) {
+                    child.recordStopReason(StopReason.PARENT_STOP);
+                    // 子Actor不再逐个注销, 由本Actor清理时一次注销整棵子树
+                    childContext.unregisteredByParent = true;
+                    childStopFutures.add(childContext.stop());
+                }
             }
 
-
-            // 3. 停止自身
-            self.stop()
-                    .orTimeout(1, TimeUnit.SECONDS)
-                    .whenComplete((v, e) -> {
-                        if (e != null) {
-                            self.forceStop();
+            // 3. 子树全部停止后停止自身, 完成回调在最后一个停止的子Actor线程中执行
+            CompletableFuture.allOf(childStopFutures.toArray(new CompletableFuture[0]))
+                    .orTimeout(CHILD_STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((v, ex) -> {
+                        if (ex == null) {
+                            finishStop();
+                            return;
                         }
-
-                        // 4. 清理资源
-                        cleanupContextResources();
-
-                        // 5. 设置状态
-                        state.set(LifecycleState.STOPPED);
-                        message.future.complete(null);
+                        // 超时回调在公共的延迟线程中触发, 强制停止和清理转到虚拟线程, 不阻塞其他超时
+                        logger.warn("Timeout waiting for children of {} to stop, forcing stop remaining children", path);
+                        Thread.startVirtualThread(() -> {
+                            forceStopRemainingChildren();
+                            finishStop();
+                        });
                     });
+        } catch (Exception e) {
+            logger.error("Error during actor stop: {}", path, e);
+            finishStop();
+        }
+    }
 
+    private void finishStop() {
+        try {
+            // 4. 停止自身
+            if (self.stop().isCompletedExceptionally()) {
+                self.forceStop();
+            }
+            // 5. 清理资源
+            cleanupContextResources();
         } catch (Exception e) {
             logger.error("Error during actor stop: {}", path, e);
-            state.set(LifecycleState.STOPPED);
-            message.future.completeExceptionally(e);
+        } finally {
+            // 6. 设置状态
+            markStopped();
         }
     }
 
+    private void markStopped() {
+        state.set(LifecycleState.STOPPED);
+        terminationFuture.complete(null);
+    }
+
+    /**
+     * 本Actor及其子树全部停止后完成
+     */
+    public CompletableFuture<Void> getTerminationFuture() {
+        return terminationFuture;
+    }
+
 
     private void forceStopChild(AbstractActor child, String childPath) {
         if (child == null || !children.containsKey(childPath)) {
@@ -269,8 +349,7 @@ public class ActorContext  {
             // 4. 清理资源
             cleanupChildResources(child, childPath);
 
-            // 5. 通知监视者
-            notifyWatchers(child.getSelf());
+            // 5. 监视者由注册表注销时统一通知
 
             logger.debug("Force stopped child actor: {}", childPath);
 
@@ -279,15 +358,13 @@ public class ActorContext  {
         } finally {
             // 6. 从children中移除并清理上下文
             children.remove(childPath);
-            child.getContext().setState(LifecycleState.STOPPED);
-            child.setContext(null);
+            ActorContext childContext = child.getContext();
+            if (childContext != null) {
+                childContext.markStopped();
+            }
         }
     }
 
-    private void setState(LifecycleState lifecycleState) {
-        this.state.set(lifecycleState);
-    }
-
     /**
      * 并行强制停止所有子Actor
      */
@@ -331,84 +408,158 @@ public class ActorContext  {
     }
 
     public void cleanupContextResources() {
-        // 关闭调度器
-        try {
-            scheduler.shutdown();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Error shutting down scheduler", e);
+        // 取消定时器, 不等待线程
+        scheduler.shutdown();
+
+        // 从系统注销, 钝化时上下文树中只保留引用, 引用仍然有效; 随父Actor停止时由父Actor注销
+        if (passivating) {
+            system.getContextManager().passivateContext(actorPath, this, self.getSelf());
+        } else if (!unregisteredByParent) {
+            system.unregisterActor(actorPath);
         }
 
-        // 从系统注销
-        system.unregisterActor(path);
-
-        // 清理监视关系
-        unwatch(self.getSelf());
-
-        // 清理子Actor引用
+        // 清理子Actor引用, 并从父Actor的子表中移除
         children.clear();
+        if (parent != null) {
+            parent.children.remove(actorPath.name(), self);
+        }
 
         mailbox.close();
     }
 
-    // 添加重启逻辑
+    /**
+     * 重启Actor, 立即返回, 不等待任何线程
+     *
+     * 暂停用户消息并向自身系统队列投递 {@link Restart}, 在Actor线程中通过Props重新创建实例;
+     * 邮箱中排队的消息保留, 由新实例继续处理. 在消息处理中调用时, 同一轮内就会处理重启信号
+     * 使用 {@link BackoffSupervisorStrategy} 时, 重启信号在退避延迟到期后由系统时间轮投递, 重试次数用完则停止Actor
+     */
     public void restart(Throwable reason) {
-        if (state.compareAndSet(LifecycleState.RUNNING, LifecycleState.RESTARTING)) {
-            try {
-                // 1. 执行重启前回调
-                self.onPreRestart(reason);
+        if (!state.compareAndSet(LifecycleState.RUNNING, LifecycleState.RESTARTING)) {
+            return;
+        }
+        mailbox.suspend();
+        if (backoff == null) {
+            postRestart(reason);
+            return;
+        }
 
-                // 2. 停止当前Actor
-                CompletableFuture<Void> stopFuture = stop();
-                stopFuture.get(5, TimeUnit.SECONDS);
+        Duration delay = backoff.nextDelay();
+        if (delay == null) {
+            logger.warn("Actor failed after {} backoff restarts, stopping: {}", backoff.getRestartCount(), path);
+            stop();
+            return;
+        }
+        logger.debug("Actor restarting in {} ms: {}", delay.toMillis(), path);
+        backingOff = true;
+        try {
+            system.getTimer().schedule(() -> postRestart(reason), delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // 时间轮已停止, 重启信号不会再投递, 直接停止, 不留在暂停的重启状态
+            backingOff = false;
+            stop();
+        }
+    }
 
-                // 3. 重新初始化
-                initializeActor();
+    private void postRestart(Throwable reason) {
+        backingOff = false;
+        Envelope envelope = new Envelope(new Restart(reason), ActorRef.noSender(), self.getSelf(), MessageType.SYSTEM, 1);
+        if (mailbox.enqueue(envelope)) {
+            system.dispatcher().registerForExecution(mailbox, mailboxTask);
+        }
+    }
 
-                // 4. 执行重启后回调
-                self.onPostRestart(reason);
+    /**
+     * 处理重启信号, 在Actor线程中执行
+     * 旧实例执行重启前回调并停止, Props创建的新实例接管上下文、邮箱和引用; Props返回原实例时原地重启
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void handleRestart(Restart message) {
+        if (state.get() != LifecycleState.RESTARTING) {
+            return;
+        }
+        Throwable reason = message.cause;
+        AbstractActor old = self;
+        try {
+            old.onPreRestart(reason);
+            // 旧实例注册的定时器作废
+            scheduler.cancelAll();
+
+            AbstractActor fresh = props.newActor();
+            if (fresh != old) {
+                old.retire();
+
+                LocalActorRef ref = (LocalActorRef) old.getSelf();
+                fresh.setContext(this);
+                fresh.setSelfRef(ref);
+                // 策略随上下文保留, 监督的重启计数不因换实例而清零
+                fresh.setStrategy(old.getStrategy());
+                self = fresh;
+                fresh.start();
+                ref.replaceActor(fresh);
+                if (parent != null) {
+                    parent.addChild(actorPath.name(), fresh);
+                }
+            }
+            fresh.onPostRestart(reason);
 
-                state.set(LifecycleState.RUNNING);
-            } catch (Exception e) {
-                state.set(LifecycleState.STOPPED);
-                throw new ActorInitializationException("Failed to restart actor", e);
+            if (backoff != null) {
+                backoff.restarted();
             }
+            state.set(LifecycleState.RUNNING);
+            resumeAfterTurn = true;
+            logger.debug("Actor restarted: {}", path);
+        } catch (Exception e) {
+            logger.error("Failed to restart actor, stopping: {}", path, e);
+            state.set(LifecycleState.STOPPED);
+            // 在本Actor的处理线程中调用, 强制停止不会中断本线程
+            self.forceStop();
+            cleanupContextResources();
+            markStopped();
         }
     }
 
-    public void watch(ActorRef<?> target, Runnable callback) {
-        if (target == null || callback == null) {
-            return;
+    /**
+     * 处理钝化信号, 只对启用了钝化的Actor生效
+     */
+    public void handlePassivate() {
+        if (self.getSelf() instanceof LocalActorRef<?> ref && ref.getPassivation() != null) {
+            ref.getPassivation().passivate(this);
         }
+    }
 
-        watchCallbacks.computeIfAbsent(target, k -> ConcurrentHashMap.newKeySet())
-                .add(callback);
-
-        // 如果目标Actor已经终止，立即触发回调
-        if (!(!(target instanceof AbstractActor) ||
-                !target.isTerminated())) {
-            callback.run();
-            unwatch(target);
+    /**
+     * 钝化时停止: 流程与普通停止相同, 但保留引用注册, 并从父Actor的子表中移除实例
+     */
+    public void stopForPassivation() {
+        passivating = true;
+        if (parent != null) {
+            parent.children.remove(actorPath.name(), self);
         }
+        handleStop(new StopMessage(new CompletableFuture<>()));
     }
 
-    public void unwatch(ActorRef<?> target) {
-        if (target != null) {
-            watchCallbacks.remove(target);
+    public long getLastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+
+    /**
+     * 监视目标Actor, 目标终止时执行回调; 目标已终止时立即执行
+     */
+    public void watch(ActorRef<?> target, Runnable callback) {
+        if (target == null || callback == null) {
+            return;
         }
+        system.deathWatch().watch(self.getSelf(), target, callback);
     }
 
-    // 通知监视器目标Actor已终止
-    public void notifyWatchers(ActorRef<?> target) {
-        Set<Runnable> callbacks = watchCallbacks.remove(target);
-        if (callbacks != null) {
-            callbacks.forEach(callback -> {
-                try {
-                    callback.run();
-                } catch (Exception e) {
-                    logger.error("Error executing watch callback for {}", target.path(), e);
-                }
-            });
+    public void unwatch(ActorRef<?> target) {
+        if (target != null) {
+            system.deathWatch().unwatch(self.getSelf(), target);
         }
     }
 
@@ -461,8 +612,9 @@ public class ActorContext  {
 
 
     public void resume() {
-        if (self.getSelf() instanceof AbstractActor actor) {
-            mailbox.resume();
+        mailbox.resume();
+        if (isAlive() && mailbox.hasMessages()) {
+            system.dispatcher().registerForExecution(mailbox, mailboxTask);
         }
     }
 
@@ -481,6 +633,25 @@ public class ActorContext  {
         this.supervisorStrategy=supervisorStrategy;
     }
 
+    public SupervisorStrategy getSupervisorStrategy() {
+        return supervisorStrategy;
+    }
+
+    /**
+     * 是否正在等待退避重启
+     */
+    public boolean isBackingOff() {
+        return backingOff;
+    }
+
+    /**
+     * 是否继续处理已取出的用户消息: 监督指令要求停止或重启后, 信号在下一轮才处理, 状态仍为运行,
+     * 因此同时检查停止请求和邮箱暂停
+     */
+    public boolean isProcessingUserMessages() {
+        return state.get() == LifecycleState.RUNNING && !stopRequested.get() && !mailbox.isSuspended();
+    }
+
     public ActorRef getSelf() {
         return self.getSelf();
     }
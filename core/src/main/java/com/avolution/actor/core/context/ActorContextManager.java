@@ -1,23 +1,33 @@
 package com.avolution.actor.core.context;
 
+import com.avolution.actor.core.ActorPath;
+import com.avolution.actor.core.ActorPathPattern;
+import com.avolution.actor.core.ActorRef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Actor上下文管理
+ *
+ * 按路径段组织为并发前缀树, 节点的子表为 {@link ConcurrentHashMap} 并在第一次添加子节点时创建,
+ * 查找、添加和移除都不加全局锁; 按完整路径查找走单独的哈希表, 枚举子节点只访问该节点的子表
+ * 通配查询只进入匹配的子树; 每个节点记录所在子树的修改计数, 变化完成后沿路径向上递增,
+ * 缓存的查询结果只在其字面前缀子树内发生变化时失效, 计数分段累加, 根节点上也不争用
+ * 移除上下文后, 既没有上下文也没有子节点的中间节点随之摘除, 路径树不随历史上出现过的路径增长
+ * 钝化的Actor没有上下文, 节点只保留其引用, 通配查询和停止用户Actor时仍能找到
+ */
 public class ActorContextManager {
     private static final Logger logger = LoggerFactory.getLogger(ActorContextManager.class);
 
     private final PathNode root;
     private final Map<String, ActorContext> pathToContext;
 
-    // 添加读写锁以确保线程安全
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-
     public ActorContextManager() {
         this.root = new PathNode("");
         this.pathToContext = new ConcurrentHashMap<>();
@@ -26,157 +36,354 @@ public class ActorContextManager {
     // 内部类：路径树节点
     private static class PathNode {
         private final String name;
-        private final Map<String, PathNode> children = new HashMap<>();
-        private ActorContext context;
+        private volatile ConcurrentMap<String, PathNode> children;
+        private volatile ActorContext context;
+        // 钝化的Actor引用, 与context不同时存在
+        private volatile ActorRef<?> passive;
+        // 由 removeContext 摘除, 区别于摘除空的中间节点
+        private volatile boolean removed;
+        // 子树修改计数, 包括本节点
+        private final LongAdder modifications = new LongAdder();
 
         PathNode(String name) {
             this.name = name;
         }
+
+        PathNode child(String segment) {
+            Map<String, PathNode> current = children;
+            return current != null ? current.get(segment) : null;
+        }
+
+        PathNode getOrCreateChild(String segment) {
+            ConcurrentMap<String, PathNode> current = children;
+            if (current == null) {
+                synchronized (this) {
+                    current = children;
+                    if (current == null) {
+                        current = new ConcurrentHashMap<>(4);
+                        children = current;
+                    }
+                }
+            }
+            return current.computeIfAbsent(segment, PathNode::new);
+        }
+
+        Collection<PathNode> childNodes() {
+            Map<String, PathNode> current = children;
+            return current != null ? current.values() : Collections.emptyList();
+        }
+
+        boolean removeChild(PathNode child) {
+            Map<String, PathNode> current = children;
+            return current != null && current.remove(child.name, child);
+        }
+
+        boolean isEmpty() {
+            Map<String, PathNode> current = children;
+            return context == null && passive == null && (current == null || current.isEmpty());
+        }
     }
 
     public void addContext(String path, ActorContext context) {
         if (path == null || context == null) {
             throw new IllegalArgumentException("Path and context cannot be null");
         }
+        addContext(ActorPath.parse(path), context);
+    }
 
-        String normalizedPath = normalizePath(path);
-        lock.writeLock().lock();
-        try {
-            // 检查是否已存在
-            if (pathToContext.containsKey(normalizedPath)) {
-                throw new IllegalStateException("Context already exists for path: " + normalizedPath);
-            }
+    public void addContext(ActorPath path, ActorContext context) {
+        if (path == null || context == null) {
+            throw new IllegalArgumentException("Path and context cannot be null");
+        }
 
-            String[] parts = normalizedPath.split("/");
-            PathNode current = root;
-            StringBuilder fullPath = new StringBuilder();
+        String key = path.toString();
+        // 检查是否已存在
+        if (pathToContext.putIfAbsent(key, context) != null) {
+            throw new IllegalStateException("Context already exists for path: " + key);
+        }
 
+        List<String> elements = path.elements();
+        PathNode[] nodes = new PathNode[elements.size()];
+        while (true) {
             // 创建或更新路径树
-            for (String part : parts) {
-                if (part.isEmpty()) continue;
-                fullPath.append("/").append(part);
-
-                // 检查是否存在中间节点的上下文
-                PathNode existingNode = current.children.get(part);
-                if (existingNode != null && existingNode.context != null) {
-                    logger.warn("Creating child for path {} which has context", fullPath);
-                }
-
-                current.children.computeIfAbsent(part, PathNode::new);
-                current = current.children.get(part);
+            PathNode current = root;
+            for (int i = 0; i < nodes.length; i++) {
+                current = current.getOrCreateChild(elements.get(i));
+                nodes[i] = current;
             }
-
-            // 设置上下文
             current.context = context;
-            pathToContext.put(normalizedPath, context);
+            current.passive = null;
+            if (findNode(path) == current) {
+                break;
+            }
 
-            logger.debug("Added context for path: {}", normalizedPath);
-        } finally {
-            lock.writeLock().unlock();
+            // 新节点挂在了已摘除的子树上
+            current.context = null;
+            for (PathNode node : nodes) {
+                if (node.removed) {
+                    pathToContext.remove(key, context);
+                    throw new IllegalStateException("Parent of path was removed concurrently: " + key);
+                }
+            }
+            // 只是与空中间节点的摘除竞争, 重新挂入
+        }
+        root.modifications.increment();
+        for (PathNode node : nodes) {
+            node.modifications.increment();
         }
+
+        logger.debug("Added context for path: {}", key);
     }
 
     public Optional<ActorContext> getContext(String path) {
         return Optional.ofNullable(pathToContext.get(normalizePath(path)));
     }
 
+    public Optional<ActorContext> getContext(ActorPath path) {
+        return Optional.ofNullable(pathToContext.get(path.toString()));
+    }
+
     public Set<ActorContext> getChildContexts(String parentPath) {
-        PathNode node = findNode(normalizePath(parentPath));
+        return getChildContexts(ActorPath.parse(parentPath));
+    }
+
+    public Set<ActorContext> getChildContexts(ActorPath parentPath) {
+        PathNode node = findNode(parentPath);
         if (node == null) {
             return Collections.emptySet();
         }
 
-        return node.children.values().stream()
-                .map(child -> child.context)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<ActorContext> contexts = new HashSet<>();
+        for (PathNode child : node.childNodes()) {
+            ActorContext context = child.context;
+            if (context != null) {
+                contexts.add(context);
+            }
+        }
+        return contexts;
+    }
+
+    /**
+     * 钝化的子Actor引用, 不含仍有上下文的子Actor
+     */
+    public Set<ActorRef<?>> getPassiveChildren(ActorPath parentPath) {
+        PathNode node = findNode(parentPath);
+        if (node == null) {
+            return Collections.emptySet();
+        }
+
+        Set<ActorRef<?>> refs = new HashSet<>();
+        for (PathNode child : node.childNodes()) {
+            ActorRef<?> ref = child.passive;
+            if (ref != null) {
+                refs.add(ref);
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * Actor钝化: 移除上下文, 节点保留引用直到重新激活时 {@link #addContext} 替换, 或随 {@link #removeContext} 移除
+     */
+    public void passivateContext(ActorPath path, ActorContext context, ActorRef<?> ref) {
+        PathNode node = findNode(path);
+        if (node == null || node.context != context) {
+            return;
+        }
+        // 先挂引用再清上下文, 并发查询总能看到其中之一
+        node.passive = ref;
+        node.context = null;
+        pathToContext.remove(path.toString(), context);
+        touch(path);
+
+        logger.debug("Passivated context at path: {}", path);
     }
 
     public void removeContext(String path) {
         if (path == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
+        removeContext(ActorPath.parse(path));
+    }
 
-        String normalizedPath = normalizePath(path);
-        lock.writeLock().lock();
-        try {
-            PathNode node = findNode(normalizedPath);
-            if (node == null) {
-                logger.warn("Attempting to remove non-existent context at path: {}", normalizedPath);
-                return;
-            }
+    public void removeContext(ActorPath path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
 
-            // 递归移除所有子节点
-            removeNodeRecursively(node, normalizedPath);
+        PathNode parentNode = path.isRoot() ? null : findNode(path.parent());
+        PathNode node = parentNode != null ? parentNode.child(path.name()) : null;
+        if (node == null) {
+            // 停止流程中可能被重复移除
+            logger.debug("Attempting to remove non-existent context at path: {}", path);
+            return;
+        }
+
+        // 先从父节点摘除, 之后的查找看不到这棵子树
+        node.removed = true;
+        parentNode.removeChild(node);
+
+        // 递归移除所有子节点
+        removeNodeRecursively(node, path);
+        pruneEmptyAncestors(path.parent());
+        touch(path);
+
+        logger.debug("Removed context and all children at path: {}", path);
+    }
+
+    /**
+     * 对所有匹配模式的上下文执行操作, 普通名称段直接查找子节点, 通配段只遍历当前节点的子表
+     */
+    public void forEachMatching(ActorPathPattern pattern, Consumer<ActorContext> action) {
+        walk(root, pattern, 0, node -> {
+            ActorContext context = node.context;
+            if (context != null) {
+                action.accept(context);
+            }
+        });
+    }
 
-            // 从父节点的children中移除当前节点
-            PathNode parentNode = findParentNode(normalizedPath);
-            if (parentNode != null) {
-                String nodeName = getLastPathSegment(normalizedPath);
-                parentNode.children.remove(nodeName);
+    /**
+     * 对所有匹配模式的Actor引用执行操作, 包括钝化的Actor
+     */
+    public void forEachMatchingRef(ActorPathPattern pattern, Consumer<ActorRef<?>> action) {
+        walk(root, pattern, 0, node -> {
+            ActorContext context = node.context;
+            ActorRef<?> ref = context != null ? context.getSelf() : node.passive;
+            if (ref != null) {
+                action.accept(ref);
             }
+        });
+    }
 
-            logger.debug("Removed context and all children at path: {}", normalizedPath);
-        } finally {
-            lock.writeLock().unlock();
+    private void walk(PathNode node, ActorPathPattern pattern, int index, Consumer<PathNode> action) {
+        if (index == pattern.size()) {
+            action.accept(node);
+            return;
+        }
+        if (pattern.isLiteral(index)) {
+            PathNode child = node.child(pattern.segment(index));
+            if (child != null) {
+                walk(child, pattern, index + 1, action);
+            }
+        } else if (pattern.isDescendants(index)) {
+            forEachDescendant(node, action);
+        } else {
+            for (PathNode child : node.childNodes()) {
+                if (pattern.matches(index, child.name)) {
+                    walk(child, pattern, index + 1, action);
+                }
+            }
         }
     }
 
-    private void removeNodeRecursively(PathNode node, String nodePath) {
-        // 先递归处理所有子节点
-        for (Map.Entry<String, PathNode> entry : new HashMap<>(node.children).entrySet()) {
-            String childPath = nodePath + "/" + entry.getKey();
-            removeNodeRecursively(entry.getValue(), childPath);
+    private void forEachDescendant(PathNode node, Consumer<PathNode> action) {
+        for (PathNode child : node.childNodes()) {
+            action.accept(child);
+            forEachDescendant(child, action);
         }
+    }
 
-        // 清理当前节点的上下文
-        if (node.context != null) {
-            // 停止 Actor
-            node.context.stop();
-            // 从映射中移除
-            pathToContext.remove(nodePath);
-            // 清空节点上下文
-            node.context = null;
+    /**
+     * 通配查询结果的版本, 由 {@link #isCurrent(ActorPathPattern, Version)} 判断是否过期
+     */
+    public static final class Version {
+        private final PathNode node;
+        private final long modifications;
+
+        private Version(PathNode node, long modifications) {
+            this.node = node;
+            this.modifications = modifications;
         }
+    }
 
-        // 清空子节点映射
-        node.children.clear();
+    /**
+     * 在查询之前读取版本, 查询期间的变化会让该版本过期
+     */
+    public Version version(ActorPathPattern pattern) {
+        PathNode node = prefixNode(pattern);
+        return new Version(node, node.modifications.sum());
     }
 
-    private PathNode findParentNode(String path) {
-        String parentPath = getParentPath(path);
-        return parentPath != null ? findNode(parentPath) : null;
+    /**
+     * 模式字面前缀所在的子树自读取版本以来是否未变化, 其他子树的变化不影响
+     */
+    public boolean isCurrent(ActorPathPattern pattern, Version version) {
+        PathNode node = prefixNode(pattern);
+        return node == version.node && node.modifications.sum() == version.modifications;
     }
 
-    private String getParentPath(String path) {
-        int lastSlashIndex = path.lastIndexOf('/');
-        return lastSlashIndex > 0 ? path.substring(0, lastSlashIndex) : null;
+    // 模式字面前缀对应的最深的现存节点, 匹配的上下文及前缀上缺失节点的创建都在它的子树内
+    private PathNode prefixNode(ActorPathPattern pattern) {
+        PathNode node = root;
+        for (int i = 0; i < pattern.size() && pattern.isLiteral(i); i++) {
+            PathNode child = node.child(pattern.segment(i));
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        return node;
     }
 
-    private String getLastPathSegment(String path) {
-        int lastSlashIndex = path.lastIndexOf('/');
-        return lastSlashIndex >= 0 ? path.substring(lastSlashIndex + 1) : path;
+    // 变化完成后, 路径上每个仍挂在树上的节点的子树计数加一
+    private void touch(ActorPath path) {
+        PathNode node = root;
+        node.modifications.increment();
+        for (String element : path.elements()) {
+            node = node.child(element);
+            if (node == null) {
+                return;
+            }
+            node.modifications.increment();
+        }
     }
 
+    private void removeNodeRecursively(PathNode node, ActorPath nodePath) {
+        // 先递归处理所有子节点
+        for (PathNode child : node.childNodes()) {
+            removeNodeRecursively(child, nodePath.child(child.name));
+        }
 
-    private PathNode findNode(String path) {
-        String[] parts = path.split("/");
-        PathNode current = root;
+        // 清理当前节点的上下文, 钝化的引用由注册表随子树注销
+        node.passive = null;
+        ActorContext context = node.context;
+        if (context != null) {
+            node.context = null;
+            // 从映射中移除
+            pathToContext.remove(nodePath.toString(), context);
+            // 停止 Actor
+            context.stop();
+        }
+    }
 
-        for (String part : parts) {
-            if (part.isEmpty()) continue;
-            current = current.children.get(part);
-            if (current == null) {
-                return null;
+    /**
+     * 自下而上摘除既没有上下文也没有子节点的中间节点
+     * 与在该节点下添加的线程竞争时, 添加方发现节点已摘除会重新挂入
+     */
+    private void pruneEmptyAncestors(ActorPath path) {
+        while (path != null && !path.isRoot()) {
+            PathNode parentNode = findNode(path.parent());
+            PathNode node = parentNode != null ? parentNode.child(path.name()) : null;
+            if (node == null || !node.isEmpty() || !parentNode.removeChild(node)) {
+                return;
             }
+            path = path.parent();
+        }
+    }
+
+    private PathNode findNode(ActorPath path) {
+        if (path.isRoot()) {
+            return root;
         }
-        return current;
+        PathNode parent = findNode(path.parent());
+        return parent != null ? parent.child(path.name()) : null;
     }
 
     private String normalizePath(String path) {
         String normalized = path.startsWith("/") ? path : "/" + path;
         // 移除末尾的斜杠
-        return normalized.endsWith("/") ?
+        return normalized.endsWith("/") && normalized.length() > 1 ?
                 normalized.substring(0, normalized.length() - 1) : normalized;
     }
 
@@ -184,7 +391,26 @@ public class ActorContextManager {
         return pathToContext.containsKey(normalizePath(path));
     }
 
+    public boolean hasContext(ActorPath path) {
+        return pathToContext.containsKey(path.toString());
+    }
+
     public int getContextCount() {
         return pathToContext.size();
     }
-}
\ No newline at end of file
+
+    /**
+     * 路径树中除根以外的节点数, 包括没有上下文的中间节点
+     */
+    public int getNodeCount() {
+        return countNodes(root);
+    }
+
+    private int countNodes(PathNode node) {
+        int count = 0;
+        for (PathNode child : node.childNodes()) {
+            count += 1 + countNodes(child);
+        }
+        return count;
+    }
+}
@@ -2,25 +2,34 @@ package com.avolution.actor.core.context;
 
 import com.avolution.actor.core.ActorRef;
 import com.avolution.actor.core.ActorSystem;
-import com.avolution.actor.message.Terminated;
+import com.avolution.actor.supervision.DeathWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Actor引用注册表
+ *
+ * 不使用全局锁: 读操作直接访问 {@link ConcurrentHashMap}, 写操作只通过 compute/remove 锁住单个键所在的桶,
+ * 不同Actor的注册和注销互不阻塞
+ * 子到父的反向索引使注销时只需修改父节点一个集合, 不再遍历所有父节点
+ * 监视关系由 {@link DeathWatch} 维护, 注销一棵子树时对每个监视者只发送一条终止通知
+ * 注销期间子树中每个节点的子集合被标记为关闭, 并发注册到这些节点下的子节点会回滚, 不会留下孤立的注册
+ */
 public class ActorRefRegistry {
     private static final Logger logger = LoggerFactory.getLogger(ActorRefRegistry.class);
     // Actor系统引用
     private final ActorSystem system;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final Map<String, ActorRef<?>> pathToRef = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> parentToChildren = new ConcurrentHashMap<>();
-
-    private final Map<String, Set<String>> watcherToWatched = new ConcurrentHashMap<>();
-    private final Map<String, Set<String>> watchedToWatcher = new ConcurrentHashMap<>();
+    // 反向索引: 子 -> 父
+    private final Map<String, String> childToParent = new ConcurrentHashMap<>();
+    // 注销期间占住子集合的位置, 注销完成后移除
+    private static final Set<String> CLOSED = Collections.unmodifiableSet(new HashSet<>());
+    // 以本注册表判断存活的死亡监视
+    private final DeathWatch deathWatch = new DeathWatch(pathToRef::containsKey);
 
     public ActorRefRegistry(ActorSystem system) {
         this.system = system;
@@ -31,173 +40,136 @@ public class ActorRefRegistry {
             throw new IllegalArgumentException("ActorRef cannot be null");
         }
 
-        lock.writeLock().lock();
-        try {
-            String path = ref.path();
-            if (pathToRef.containsKey(path)) {
-                throw new IllegalStateException("Actor already registered at path: " + path);
-            }
-
-            pathToRef.put(path, ref);
+        String path = ref.path();
+        boolean parentRegistered = parentPath != null && pathToRef.containsKey(parentPath);
+        if (pathToRef.putIfAbsent(path, ref) != null) {
+            throw new IllegalStateException("Actor already registered at path: " + path);
+        }
 
-            if (parentPath != null) {
-                parentToChildren.computeIfAbsent(parentPath, k -> ConcurrentHashMap.newKeySet())
-                        .add(path);
+        if (parentPath != null) {
+            childToParent.put(path, parentPath);
+            Set<String> siblings = parentToChildren.compute(parentPath, (key, children) -> {
+                if (children == CLOSED) {
+                    return children;
+                }
+                Set<String> set = children != null ? children : ConcurrentHashMap.newKeySet();
+                set.add(path);
+                return set;
+            });
+            // 父节点正在注销, 或在插入前后已注销完成, 插入的子节点不会再被收集, 回滚
+            if (siblings == CLOSED || (parentRegistered && !pathToRef.containsKey(parentPath))) {
+                remove(path);
+                deathWatch.terminated(path, "Parent unregistered");
+                throw new IllegalStateException("Parent of path was unregistered concurrently: " + path);
             }
-
-            logger.debug("Registered ActorRef: {}", path);
-        } finally {
-            lock.writeLock().unlock();
         }
+
+        logger.debug("Registered ActorRef: {}", path);
     }
 
+    /**
+     * 注销Actor及其所有后代, 后代先于祖先注销
+     */
     public void unregister(String path, String reason) {
         if (path == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
 
-        lock.writeLock().lock();
-        try {
-            // 递归终止子Actor
-            Set<String> children = parentToChildren.get(path);
+        Set<String> rootChildren = parentToChildren.put(path, CLOSED);
+        if (rootChildren == CLOSED) {
+            // 已在注销中, 由先开始的一方完成
+            return;
+        }
+        if (rootChildren == null) {
+            // 没有子节点, 不收集子树
+            remove(path);
+            deathWatch.terminated(path, reason);
+            parentToChildren.remove(path, CLOSED);
+            return;
+        }
+
+        // 先序收集子树并关闭每个节点的子集合, 逆序注销, 不做递归以免深层级时栈溢出
+        List<String> subtree = new ArrayList<>();
+        List<String> closed = new ArrayList<>();
+        subtree.add(path);
+        closed.add(path);
+        Deque<String> pending = new ArrayDeque<>(rootChildren);
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            subtree.add(current);
+            Set<String> children = parentToChildren.put(current, CLOSED);
+            if (children == CLOSED) {
+                continue;
+            }
+            closed.add(current);
             if (children != null) {
-                new HashSet<>(children).forEach(childPath -> unregister(childPath, "Parent stopped"));
-                parentToChildren.remove(path);
+                children.forEach(pending::push);
             }
+        }
 
-            // 通知监视者
-            notifyWatchers(path, reason);
-
-            // 清理所有相关索引
-            cleanupReferences(path);
+        for (int i = subtree.size() - 1; i >= 0; i--) {
+            remove(subtree.get(i));
+        }
 
-            logger.debug("Unregistered ActorRef: {}", path);
-        } finally {
-            lock.writeLock().unlock();
+        // 整棵子树注销后再通知监视者
+        deathWatch.terminated(subtree, reason);
+        for (String current : closed) {
+            parentToChildren.remove(current, CLOSED);
         }
     }
 
-    private void cleanupReferences(String path) {
-        // 清理父子关系
-        parentToChildren.values().forEach(childSet -> childSet.remove(path));
-
-        // 清理监视关系
-        Set<String> watched = watcherToWatched.remove(path);
-        if (watched != null) {
-            watched.forEach(watchedPath -> {
-                Set<String> watchers = watchedToWatcher.get(watchedPath);
-                if (watchers != null) {
-                    watchers.remove(path);
-                    if (watchers.isEmpty()) {
-                        watchedToWatcher.remove(watchedPath);
-                    }
+    private void remove(String path) {
+        // 先移除主索引, 之后登记的监视能发现目标已终止
+        pathToRef.remove(path);
+
+        // 从父节点的子集合中移除
+        String parentPath = childToParent.remove(path);
+        if (parentPath != null) {
+            parentToChildren.computeIfPresent(parentPath, (key, children) -> {
+                if (children == CLOSED) {
+                    return children;
                 }
+                children.remove(path);
+                return children.isEmpty() ? null : children;
             });
         }
 
-        // 移除主索引
-        pathToRef.remove(path);
+        logger.debug("Unregistered ActorRef: {}", path);
     }
 
     public Optional<ActorRef<?>> getRef(String path) {
-        lock.readLock().lock();
-        try {
-            return Optional.ofNullable(pathToRef.get(path));
-        } finally {
-            lock.readLock().unlock();
-        }
+        return Optional.ofNullable(pathToRef.get(path));
     }
 
     public Set<String> getChildren(String parentPath) {
-        lock.readLock().lock();
-        try {
-            return parentToChildren.getOrDefault(parentPath, Collections.emptySet());
-        } finally {
-            lock.readLock().unlock();
-        }
+        Set<String> children = parentToChildren.get(parentPath);
+        return children != null ? Collections.unmodifiableSet(children) : Collections.emptySet();
     }
 
-    public void watch(ActorRef<?> watcher, ActorRef<?> watched) {
-        if (watcher == null || watched == null || watcher.equals(watched)) {
-            throw new IllegalArgumentException("Invalid watch parameters");
-        }
-
-        String watcherPath = watcher.path();
-        String watchedPath = watched.path();
-
-        lock.writeLock().lock();
-        try {
-            if (!pathToRef.containsKey(watchedPath)) {
-                // 如果目标已经终止，直接发送终止通知
-                watcher.tell(new Terminated(watchedPath, "Actor already terminated", false), ActorRef.noSender());
-                return;
-            }
-
-            watcherToWatched.computeIfAbsent(watcherPath, k -> ConcurrentHashMap.newKeySet())
-                    .add(watchedPath);
-            watchedToWatcher.computeIfAbsent(watchedPath, k -> ConcurrentHashMap.newKeySet())
-                    .add(watcherPath);
+    /**
+     * @return 父路径, 未登记父节点时返回null
+     */
+    public String getParent(String path) {
+        return childToParent.get(path);
+    }
 
-            logger.debug("Actor {} now watching {}", watcherPath, watchedPath);
-        } finally {
-            lock.writeLock().unlock();
-        }
+    public void watch(ActorRef<?> watcher, ActorRef<?> watched) {
+        deathWatch.watch(watcher, watched);
     }
 
     public void unwatch(ActorRef<?> watcher, ActorRef<?> watched) {
-        String watcherPath = watcher.path();
-        String watchedPath = watched.path();
-
-        lock.writeLock().lock();
-        try {
-            Set<String> watchedSet = watcherToWatched.get(watcherPath);
-            if (watchedSet != null) {
-                watchedSet.remove(watchedPath);
-                if (watchedSet.isEmpty()) {
-                    watcherToWatched.remove(watcherPath);
-                }
-            }
-
-            Set<String> watcherSet = watchedToWatcher.get(watchedPath);
-            if (watcherSet != null) {
-                watcherSet.remove(watcherPath);
-                if (watcherSet.isEmpty()) {
-                    watchedToWatcher.remove(watchedPath);
-                }
-            }
-        } finally {
-            lock.writeLock().unlock();
-        }
+        deathWatch.unwatch(watcher, watched);
     }
 
-    private void notifyWatchers(String terminatedPath, String reason) {
-        Set<String> watchers = watchedToWatcher.get(terminatedPath);
-        if (watchers != null) {
-            for (String watcherPath : new HashSet<>(watchers)) {
-                ActorRef<?> watcherRef = pathToRef.get(watcherPath);
-                if (watcherRef != null) {
-                    watcherRef.tell(new Terminated(terminatedPath, reason, false), ActorRef.noSender());
-                }
-            }
-            watchedToWatcher.remove(terminatedPath);
-        }
+    public DeathWatch getDeathWatch() {
+        return deathWatch;
     }
 
     public int getRefCount() {
-        lock.readLock().lock();
-        try {
-            return pathToRef.size();
-        } finally {
-            lock.readLock().unlock();
-        }
+        return pathToRef.size();
     }
 
     public boolean contains(String path) {
-        lock.readLock().lock();
-        try {
-            return pathToRef.containsKey(path);
-        } finally {
-            lock.readLock().unlock();
-        }
+        return pathToRef.containsKey(path);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.avolution.actor.dispatch;
 
-import com.avolution.actor.message.Envelope;
+import com.avolution.actor.mailbox.Mailbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +8,7 @@ import java.util.Queue;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Dispatcher {
     private Logger logger= LoggerFactory.getLogger(Dispatcher.class);
@@ -15,6 +16,9 @@ public class Dispatcher {
     private final ExecutorService executor;
     private final Map<String, TaskQueue> taskQueues;
     private volatile boolean isShutdown;
+    // 已调度但尚未执行完一轮的邮箱数, 作为调度器负载信号; 只有自适应邮箱读取, 出现第一个后才开始计数
+    private final LongAdder scheduledMailboxes = new LongAdder();
+    private volatile boolean trackQueueDepth;
 
     public Dispatcher() {
         this.executor = Executors.newVirtualThreadPerTaskExecutor();
@@ -22,6 +26,72 @@ public class Dispatcher {
         this.isShutdown = false;
     }
 
+    /**
+     * 调度邮箱执行
+     * 邮箱自身携带调度状态位, 只有将其从空闲切换为已调度的那次投递才会提交到执行器,
+     * 不需要按路径查找任务队列, 也不会为每条消息分配任务
+     *
+     * @param mailbox     待执行的邮箱
+     * @param mailboxTask 处理邮箱的任务, 执行结束时必须调用 {@link #executionCompleted(Mailbox)}
+     * @return 是否由本次调用提交了执行
+     */
+    public boolean registerForExecution(Mailbox mailbox, Runnable mailboxTask) {
+        if (isShutdown) {
+            return false;
+        }
+        if (!mailbox.setAsScheduled()) {
+            return false;
+        }
+        // 记录本次是否计数, 开始计数前已调度的邮箱结束时不会多减
+        boolean counted = trackQueueDepth;
+        mailbox.setCountedInQueueDepth(counted);
+        if (counted) {
+            scheduledMailboxes.increment();
+        }
+        try {
+            executor.execute(mailboxTask);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (counted) {
+                scheduledMailboxes.decrement();
+            }
+            mailbox.setAsIdle();
+            logger.warn("Mailbox execution rejected, dispatcher is shutting down");
+            return false;
+        }
+    }
+
+    /**
+     * 邮箱一轮执行结束, 将其标记为空闲
+     */
+    public void executionCompleted(Mailbox mailbox) {
+        if (mailbox.isCountedInQueueDepth()) {
+            scheduledMailboxes.decrement();
+        }
+        mailbox.setAsIdle();
+    }
+
+    /**
+     * 开始统计待执行邮箱数, 由使用自适应处理量的邮箱在创建时调用
+     */
+    public void trackQueueDepth() {
+        trackQueueDepth = true;
+    }
+
+    /**
+     * 已调度待执行或正在执行的邮箱数, 调用 {@link #trackQueueDepth()} 之前始终为0
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, scheduledMailboxes.sum());
+    }
+
+    /**
+     * 按路径分发任务(旧模式)
+     * 每次调用都会经过路径映射和二级任务队列, 且映射不会收缩
+     *
+     * @deprecated 使用 {@link #registerForExecution(Mailbox, Runnable)}
+     */
+    @Deprecated
     public void dispatch(String actorPath, Runnable processingTask) {
         if (isShutdown) {
             return;
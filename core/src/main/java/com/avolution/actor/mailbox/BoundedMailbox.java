@@ -0,0 +1,190 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.OverflowStrategy;
+import com.avolution.actor.message.Envelope;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界邮箱
+ * 用户消息数量超过容量时按 {@link OverflowStrategy} 处理, 被丢弃的消息转入死信
+ * 系统消息不受容量限制
+ */
+public class BoundedMailbox extends Mailbox {
+    private final int capacity;
+    private final OverflowStrategy overflowStrategy;
+    private final long pushTimeoutNanos;
+    // 用户消息计数, 入队前预占
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    // BLOCK策略: 发送者在锁条件上挂起, 虚拟线程会让出载体线程
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private volatile int waiters;
+
+    public BoundedMailbox(int throughput, int capacity, OverflowStrategy overflowStrategy) {
+        this(throughput, capacity, overflowStrategy, Duration.ofSeconds(10));
+    }
+
+    /**
+     * @param throughput       每轮最多处理的消息数
+     * @param capacity         用户消息容量
+     * @param overflowStrategy 溢出策略
+     * @param pushTimeout      BLOCK策略下发送者最长等待时间, 超时后消息转入死信
+     */
+    public BoundedMailbox(int throughput, int capacity, OverflowStrategy overflowStrategy, Duration pushTimeout) {
+        super(throughput, new ConcurrentLinkedQueue<>());
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive");
+        }
+        if (overflowStrategy == null) {
+            throw new IllegalArgumentException("Overflow strategy cannot be null");
+        }
+        this.capacity = capacity;
+        this.overflowStrategy = overflowStrategy;
+        this.pushTimeoutNanos = pushTimeout.toNanos();
+    }
+
+    @Override
+    protected boolean offerMessage(Envelope envelope) {
+        if (!tryReserve()) {
+            switch (overflowStrategy) {
+                case DROP_NEW -> {
+                    deadLetter(envelope);
+                    return false;
+                }
+                case DROP_OLD -> {
+                    if (!reserveDroppingOldest()) {
+                        deadLetter(envelope);
+                        return false;
+                    }
+                }
+                case DROP_BUFFER -> {
+                    if (!reserveDroppingBuffer()) {
+                        deadLetter(envelope);
+                        return false;
+                    }
+                }
+                case BLOCK -> {
+                    if (!reserveBlocking()) {
+                        deadLetter(envelope);
+                        return false;
+                    }
+                }
+            }
+        }
+        if (super.offerMessage(envelope)) {
+            return true;
+        }
+        release();
+        return false;
+    }
+
+    @Override
+    protected Envelope pollMessage() {
+        Envelope envelope = super.pollMessage();
+        if (envelope != null) {
+            release();
+        }
+        return envelope;
+    }
+
+    @Override
+    protected void clearMessages() {
+        super.clearMessages();
+        count.set(0);
+        signalNotFull();
+    }
+
+    private boolean tryReserve() {
+        for (;;) {
+            int current = count.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (count.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        count.decrementAndGet();
+        if (waiters > 0) {
+            signalNotFull();
+        }
+    }
+
+    private boolean reserveDroppingOldest() {
+        for (;;) {
+            Envelope oldest = removeOldest();
+            if (oldest != null) {
+                deadLetter(oldest);
+            }
+            if (tryReserve()) {
+                return true;
+            }
+            if (oldest == null) {
+                // 容量已被其他发送者预占, 没有可丢弃的消息
+                return false;
+            }
+        }
+    }
+
+    private boolean reserveDroppingBuffer() {
+        Envelope oldest;
+        while ((oldest = removeOldest()) != null) {
+            deadLetter(oldest);
+        }
+        return tryReserve();
+    }
+
+    private boolean reserveBlocking() {
+        // 执行本邮箱的线程向自身发送消息时阻塞会造成死锁
+        if (isProcessingThread()) {
+            return false;
+        }
+        long remaining = pushTimeoutNanos;
+        lock.lock();
+        try {
+            waiters++;
+            try {
+                while (!tryReserve()) {
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    remaining = notFull.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        lock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+}
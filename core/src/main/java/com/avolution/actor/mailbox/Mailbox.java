@@ -1,13 +1,17 @@
 package com.avolution.actor.mailbox;
 
-import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.config.strategies.ThroughputStrategy;
 import com.avolution.actor.message.Envelope;
 import com.avolution.actor.message.MessageHandler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Actor消息邮箱实现
@@ -15,17 +19,50 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class Mailbox {
     private final Queue<Envelope> queue;
     private final Queue<Envelope> systemQueue;
-    private final MailboxMetrics metrics;
+    protected final MailboxMetrics metrics;
 
     private final AtomicBoolean suspended;
     private final AtomicBoolean processing;
+    // 待处理消息计数; 用户队列自身能给出大小时只统计系统消息
     private final AtomicInteger unprocessedMessages;
+    private final boolean sizedQueue;
 
     private final int throughput;
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    // 待执行的清空请求: 清空只能由持有处理标志的线程执行, 用户队列可能只允许单个消费者
+    private final AtomicBoolean clearRequested = new AtomicBoolean(false);
+    // 调度状态位: 只有将邮箱从空闲切换为已调度的投递才需要提交执行
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // 本次调度是否计入调度器的待执行邮箱数, 由调度器在提交前写入, 执行结束时读取
+    private boolean countedInQueueDepth;
+    // 被丢弃消息的死信处理
+    private volatile Consumer<Envelope> deadLetterHandler;
+    // 当前执行邮箱的线程
+    private volatile Thread processingThread;
+    // 每轮处理量策略, 未设置时每轮最多处理throughput条
+    private volatile ThroughputStrategy throughputStrategy;
 
     public Mailbox(int throughput) {
-        this.queue = new ConcurrentLinkedQueue<>();
+        this(throughput, new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * @param throughput 每轮最多处理的消息数
+     * @param queue      用户消息队列
+     */
+    protected Mailbox(int throughput, Queue<Envelope> queue) {
+        this(throughput, queue, false);
+    }
+
+    /**
+     * @param throughput 每轮最多处理的消息数
+     * @param queue      用户消息队列
+     * @param sizedQueue 用户队列的 {@link Queue#size()} 是O(1)且能统计入队总数,
+     *                   此时邮箱不再为用户消息维护共享计数器
+     */
+    protected Mailbox(int throughput, Queue<Envelope> queue, boolean sizedQueue) {
+        this.queue = queue;
+        this.sizedQueue = sizedQueue;
         this.systemQueue = new ConcurrentLinkedQueue<>();
 
         this.metrics = new MailboxMetrics();
@@ -41,68 +78,178 @@ public class Mailbox {
      * 入队消息
      */
     public boolean enqueue(Envelope envelope) {
-        if (closed.get() || suspended.get()) {
+        if (closed.get()) {
             metrics.messageRejected();
             return false;
         }
 
-        boolean success;
         if (envelope.isSystemMessage()) {
-            success = systemQueue.offer(envelope);
-        } else {
-            success = queue.offer(envelope);
+            if (systemQueue.offer(envelope)) {
+                unprocessedMessages.incrementAndGet();
+                metrics.messageEnqueued();
+                return true;
+            }
+            return false;
         }
 
-        if (success) {
+        if (!offerMessage(envelope)) {
+            return false;
+        }
+        if (!sizedQueue) {
             unprocessedMessages.incrementAndGet();
             metrics.messageEnqueued();
         }
-        return success;
+        return true;
     }
 
     /**
      * 处理队列中的消息
+     * 每轮处理量由 {@link ThroughputStrategy} 决定, 未设置时最多处理throughput条
+     * 处理器的 {@link MessageHandler#batchSize()} 大于1时, 用户消息按批取出交给 {@link MessageHandler#handleBatch(List)}
      */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public void process(MessageHandler<?> handler) {
         if (closed.get()) {
             return;
         }
 
         if (processing.compareAndSet(false, true)) {
+            processingThread = Thread.currentThread();
+            ThroughputStrategy strategy = throughputStrategy;
+            int limit = strategy != null ? strategy.getMaxMessages() : throughput;
+            long budget = strategy != null ? strategy.getTimeBudgetNanos() : 0;
+            long start = System.nanoTime();
+            int processed = 0;
             try {
-                int processed = 0;
-                while (processed < throughput && !suspended.get()) {
-                    // 优先处理系统消息
+                int batchSize = Math.min(handler.batchSize(), limit);
+                while (processed < limit && !clearRequested.get()) {
+                    // 优先处理系统消息, 暂停只挡住用户消息
                     Envelope msg = systemQueue.poll();
-                    if (msg == null) {
-                        msg = queue.poll();
-                    }
-                    if (msg == null){
+                    if (msg != null) {
+                        processOne((MessageHandler) handler, msg, true);
+                        processed++;
+                    } else if (suspended.get()) {
                         break;
+                    } else if (batchSize > 1) {
+                        int drained = processBatch((MessageHandler) handler, Math.min(batchSize, limit - processed));
+                        if (drained == 0) {
+                            break;
+                        }
+                        processed += drained;
+                    } else {
+                        msg = pollMessage();
+                        if (msg == null){
+                            break;
+                        }
+                        processOne((MessageHandler) handler, msg, !sizedQueue);
+                        processed++;
                     }
 
-                    try {
-                        long nanoTime = System.nanoTime();
-                        // 处理消息
-                        handler.handle(msg);
-
-                        metrics.messageProcessed(System.nanoTime()-nanoTime);
-                    } catch (Exception e) {
-                        metrics.messageFailure();
-//                        handler.handleFailure(msg, e);
-                    } finally {
-                        unprocessedMessages.decrementAndGet();
-                        processed++;
+                    // 时间片用完则让出线程
+                    if (budget > 0 && System.nanoTime() - start >= budget) {
+                        break;
                     }
                 }
             } finally {
+                if (strategy != null) {
+                    strategy.onTurnCompleted(processed, System.nanoTime() - start);
+                }
+                processingThread = null;
                 processing.set(false);
             }
+            drainIfRequested();
+        }
+    }
+
+    private void processOne(MessageHandler<Object> handler, Envelope<Object> msg, boolean counted) {
+        try {
+            long nanoTime = System.nanoTime();
+            // 处理消息
+            handler.handle(msg);
+
+            metrics.messageProcessed(System.nanoTime()-nanoTime);
+        } catch (Exception e) {
+            metrics.messageFailure();
+//            handler.handleFailure(msg, e);
+        } finally {
+            if (counted) {
+                unprocessedMessages.decrementAndGet();
+            }
         }
     }
 
     /**
-     * 暂停消息处理
+     * 取出最多limit条用户消息一次交给处理器
+     * @return 本批处理的消息数
+     */
+    private int processBatch(MessageHandler<Object> handler, int limit) {
+        List<Envelope<Object>> batch = new ArrayList<>(Math.min(limit, 64));
+        Envelope msg;
+        while (batch.size() < limit && (msg = pollMessage()) != null) {
+            batch.add(msg);
+        }
+        int size = batch.size();
+        if (size == 0) {
+            return 0;
+        }
+
+        try {
+            long nanoTime = System.nanoTime();
+            handler.handleBatch(Collections.unmodifiableList(batch));
+
+            metrics.batchProcessed(size, System.nanoTime() - nanoTime);
+        } catch (Exception e) {
+            // 无法区分批内哪条失败, 整批计为失败
+            metrics.batchFailed(size);
+        } finally {
+            if (!sizedQueue) {
+                unprocessedMessages.addAndGet(-size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 设置每轮处理量策略
+     */
+    public void setThroughputStrategy(ThroughputStrategy throughputStrategy) {
+        this.throughputStrategy = throughputStrategy;
+    }
+
+    public int getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * 尝试将邮箱标记为已调度
+     * @return 只有把邮箱从空闲切换为已调度的调用者返回true
+     */
+    public boolean setAsScheduled() {
+        // 先读后CAS, 邮箱已调度时避免对缓存行的写竞争
+        return !scheduled.get() && scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 将邮箱标记为空闲, 由执行邮箱的线程在一轮处理结束后调用
+     */
+    public void setAsIdle() {
+        scheduled.set(false);
+    }
+
+    public boolean isScheduled() {
+        return scheduled.get();
+    }
+
+    public boolean isCountedInQueueDepth() {
+        return countedInQueueDepth;
+    }
+
+    public void setCountedInQueueDepth(boolean counted) {
+        this.countedInQueueDepth = counted;
+    }
+
+    /**
+     * 暂停用户消息处理, 正在进行的一轮处理完当前消息后不再取用户消息; 系统消息照常处理, 暂停期间消息照常入队
      */
     public void suspend() {
         suspended.set(true);
@@ -117,21 +264,43 @@ public class Mailbox {
         metrics.mailboxResumed();
     }
 
+    public boolean isSuspended() {
+        return suspended.get();
+    }
+
     /**
      * 清空邮箱
+     * 邮箱空闲时在当前线程清空; 正在处理时由处理线程在本轮结束后清空, 不与消费者并发出队
      */
     public void clear() {
-        int cleared = unprocessedMessages.get();
-        queue.clear();
-        systemQueue.clear();
-        unprocessedMessages.set(0);
-        metrics.messagesCleared(cleared);
+        clearRequested.set(true);
+        drainIfRequested();
+    }
+
+    // 处理线程释放标志后会再次检查请求, 请求不会被遗漏
+    private void drainIfRequested() {
+        while (clearRequested.get() && processing.compareAndSet(false, true)) {
+            try {
+                if (clearRequested.getAndSet(false)) {
+                    int cleared = size();
+                    clearMessages();
+                    systemQueue.clear();
+                    unprocessedMessages.set(0);
+                    metrics.messagesCleared(cleared);
+                }
+            } finally {
+                processing.set(false);
+            }
+        }
     }
 
     /**
      * 获取当前队列大小
      */
     public int size() {
+        if (sizedQueue) {
+            return unprocessedMessages.get() + queue.size();
+        }
         return unprocessedMessages.get();
     }
 
@@ -157,4 +326,68 @@ public class Mailbox {
     public boolean hasMessages() {
         return !systemQueue.isEmpty() || !queue.isEmpty();
     }
+
+    /**
+     * 是否有可在本状态下处理的消息: 暂停时只计系统消息
+     */
+    public boolean hasRunnableMessages() {
+        return !systemQueue.isEmpty() || (!suspended.get() && !queue.isEmpty());
+    }
+
+    /**
+     * 设置被丢弃消息的死信处理
+     */
+    public void setDeadLetterHandler(Consumer<Envelope> deadLetterHandler) {
+        this.deadLetterHandler = deadLetterHandler;
+    }
+
+    /**
+     * 用户消息入队, 子类可覆盖以实现容量限制等语义
+     */
+    protected boolean offerMessage(Envelope envelope) {
+        return queue.offer(envelope);
+    }
+
+    /**
+     * 用户消息出队
+     */
+    protected Envelope pollMessage() {
+        return queue.poll();
+    }
+
+    /**
+     * 清空用户消息
+     */
+    protected void clearMessages() {
+        queue.clear();
+    }
+
+    /**
+     * 移除最旧的一条用户消息, 供溢出策略使用
+     */
+    protected Envelope removeOldest() {
+        Envelope envelope = pollMessage();
+        if (envelope != null && !sizedQueue) {
+            unprocessedMessages.decrementAndGet();
+        }
+        return envelope;
+    }
+
+    /**
+     * 将丢弃的消息转入死信
+     */
+    protected void deadLetter(Envelope envelope) {
+        metrics.messageDropped();
+        Consumer<Envelope> handler = deadLetterHandler;
+        if (handler != null) {
+            handler.accept(envelope);
+        }
+    }
+
+    /**
+     * 当前线程是否正在执行本邮箱
+     */
+    protected boolean isProcessingThread() {
+        return processingThread == Thread.currentThread();
+    }
 }
\ No newline at end of file
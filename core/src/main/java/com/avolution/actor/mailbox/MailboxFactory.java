@@ -0,0 +1,61 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.OverflowStrategy;
+import com.avolution.actor.config.strategies.PriorityStrategy;
+
+import java.time.Duration;
+
+/**
+ * 邮箱工厂, 由Props配置, 每个Actor上下文创建一个邮箱
+ */
+@FunctionalInterface
+public interface MailboxFactory {
+
+    /**
+     * 创建邮箱
+     * @param throughput 每轮最多处理的消息数
+     */
+    Mailbox create(int throughput);
+
+    /**
+     * 无界邮箱
+     */
+    static MailboxFactory unbounded() {
+        return Mailbox::new;
+    }
+
+    /**
+     * 有界邮箱
+     * @param capacity 用户消息容量
+     * @param overflowStrategy 溢出策略
+     */
+    static MailboxFactory bounded(int capacity, OverflowStrategy overflowStrategy) {
+        return throughput -> new BoundedMailbox(throughput, capacity, overflowStrategy);
+    }
+
+    /**
+     * 有界邮箱
+     * @param capacity 用户消息容量
+     * @param overflowStrategy 溢出策略
+     * @param pushTimeout BLOCK策略下发送者最长等待时间
+     */
+    static MailboxFactory bounded(int capacity, OverflowStrategy overflowStrategy, Duration pushTimeout) {
+        return throughput -> new BoundedMailbox(throughput, capacity, overflowStrategy, pushTimeout);
+    }
+
+    /**
+     * 多级优先级邮箱
+     * @param priorityStrategy 优先级策略
+     */
+    static MailboxFactory priority(PriorityStrategy priorityStrategy) {
+        return throughput -> new PriorityMailbox(throughput, priorityStrategy);
+    }
+
+    /**
+     * 基于MPSC数组队列的有界邮箱, 容量向上取整为2的幂, 队列满时新消息转入死信
+     * @param capacity 用户消息容量
+     */
+    static MailboxFactory mpscArray(int capacity) {
+        return throughput -> new MpscArrayMailbox(throughput, capacity);
+    }
+}
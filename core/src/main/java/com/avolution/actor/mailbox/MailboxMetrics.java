@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
  * 邮箱性能指标收集器
@@ -14,6 +15,7 @@ public class MailboxMetrics {
     private final LongAdder messagesProcessed = new LongAdder();
     private final LongAdder messagesFailed = new LongAdder();
     private final LongAdder messagesRejected = new LongAdder();
+    private final LongAdder messagesDropped = new LongAdder();
     private final LongAdder systemMessagesProcessed = new LongAdder();
     
     // 性能指标
@@ -27,15 +29,21 @@ public class MailboxMetrics {
     private final LongAdder clearCount = new LongAdder();
     private final LongAdder messagesCleared = new LongAdder();
     
+    // 队列自身统计的入队总数, 设置后发送方不再更新入队计数器
+    private volatile LongSupplier queueEnqueuedCounter;
+
     // 时间戳
     private final Instant startTime;
-    private volatile Instant lastProcessedTime;
+    private final long startNanos;
+    // 逐条处理时只记录单调时间, 读取快照时再换算为Instant
+    private volatile long lastProcessedNanos;
     private volatile Instant lastFailureTime;
     private volatile Instant lastSuspendedTime;
     private volatile Instant lastResumedTime;
 
     public MailboxMetrics() {
         this.startTime = Instant.now();
+        this.startNanos = System.nanoTime();
     }
 
     // 更新方法
@@ -43,11 +51,18 @@ public class MailboxMetrics {
         messagesEnqueued.increment();
     }
 
+    /**
+     * 使用队列自身的入队总数, 例如数组队列的生产者序号
+     */
+    public void useQueueEnqueuedCounter(LongSupplier counter) {
+        this.queueEnqueuedCounter = counter;
+    }
+
     public void messageProcessed(long processingTimeNanos) {
         messagesProcessed.increment();
         this.processingTimeNanos.add(processingTimeNanos);
         maxProcessingTimeNanos.accumulateAndGet(processingTimeNanos, Math::max);
-        lastProcessedTime = Instant.now();
+        lastProcessedNanos = System.nanoTime();
     }
 
     public void systemMessageProcessed(long processingTimeNanos) {
@@ -64,6 +79,10 @@ public class MailboxMetrics {
         messagesRejected.increment();
     }
 
+    public void messageDropped() {
+        messagesDropped.increment();
+    }
+
     public void mailboxSuspended() {
         suspensionCount.increment();
         lastSuspendedTime = Instant.now();
@@ -83,14 +102,36 @@ public class MailboxMetrics {
         batchesProcessed.increment();
     }
 
+    /**
+     * 一批消息处理成功, 每条消息计入处理数, 耗时按批内平均计算单条最大值
+     */
+    public void batchProcessed(int count, long processingTimeNanos) {
+        messagesProcessed.add(count);
+        this.processingTimeNanos.add(processingTimeNanos);
+        maxProcessingTimeNanos.accumulateAndGet(processingTimeNanos / count, Math::max);
+        batchesProcessed.increment();
+        lastProcessedNanos = System.nanoTime();
+    }
+
+    /**
+     * 一批消息处理失败, 每条消息计入失败数
+     */
+    public void batchFailed(int count) {
+        messagesFailed.add(count);
+        batchesProcessed.increment();
+        lastFailureTime = Instant.now();
+    }
+
     // 获取统计信息
     public MetricsSnapshot getSnapshot() {
+        LongSupplier queueCounter = queueEnqueuedCounter;
         return new MetricsSnapshot(
-            messagesEnqueued.sum(),
+            messagesEnqueued.sum() + (queueCounter != null ? queueCounter.getAsLong() : 0L),
             messagesProcessed.sum(),
             systemMessagesProcessed.sum(),
             messagesFailed.sum(),
             messagesRejected.sum(),
+            messagesDropped.sum(),
             getAverageProcessingTimeMs(),
             getMaxProcessingTimeMs(),
             getMessagesPerSecond(),
@@ -100,7 +141,7 @@ public class MailboxMetrics {
             clearCount.sum(),
             messagesCleared.sum(),
             getUptime(),
-            lastProcessedTime,
+            lastProcessedTime(),
             lastFailureTime,
             lastSuspendedTime,
             lastResumedTime
@@ -128,6 +169,11 @@ public class MailboxMetrics {
         return total > 0 ? (double) messagesFailed.sum() / total : 0.0;
     }
 
+    private Instant lastProcessedTime() {
+        long nanos = lastProcessedNanos;
+        return nanos == 0 ? null : startTime.plusNanos(nanos - startNanos);
+    }
+
     private Duration getUptime() {
         return Duration.between(startTime, Instant.now());
     }
@@ -141,6 +187,7 @@ public class MailboxMetrics {
         long systemMessagesProcessed,
         long messagesFailed,
         long messagesRejected,
+        long messagesDropped,
         double averageProcessingTimeMs,
         double maxProcessingTimeMs,
         double messagesPerSecond,
@@ -159,7 +206,7 @@ public class MailboxMetrics {
         public String toString() {
             return String.format("""
                 Mailbox Metrics:
-                Messages: enqueued=%d, processed=%d, failed=%d, rejected=%d
+                Messages: enqueued=%d, processed=%d, failed=%d, rejected=%d, dropped=%d
                 System Messages: processed=%d
                 Performance: avg=%.2fms, max=%.2fms, throughput=%.2f msg/s
                 Failure Rate: %.2f%%
@@ -167,7 +214,7 @@ public class MailboxMetrics {
                 Uptime: %s
                 Last Events: processed=%s, failed=%s, suspended=%s, resumed=%s
                 """,
-                messagesEnqueued, messagesProcessed, messagesFailed, messagesRejected,
+                messagesEnqueued, messagesProcessed, messagesFailed, messagesRejected, messagesDropped,
                 systemMessagesProcessed,
                 averageProcessingTimeMs, maxProcessingTimeMs, messagesPerSecond,
                 failureRate * 100,
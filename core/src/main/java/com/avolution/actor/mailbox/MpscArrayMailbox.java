@@ -0,0 +1,36 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.message.Envelope;
+
+/**
+ * 基于有界MPSC数组队列的邮箱
+ * 入队不分配队列节点, 发送方只有一次生产者序号CAS和一次槽位写入,
+ * 邮箱大小和入队总数都由队列序号得到, 不再更新共享计数器
+ * 队列满时新消息转入死信
+ */
+public class MpscArrayMailbox extends Mailbox {
+    private final MpscArrayQueue<Envelope> mpscQueue;
+
+    public MpscArrayMailbox(int throughput, int capacity) {
+        this(throughput, new MpscArrayQueue<>(capacity));
+    }
+
+    private MpscArrayMailbox(int throughput, MpscArrayQueue<Envelope> queue) {
+        super(throughput, queue, true);
+        this.mpscQueue = queue;
+        metrics.useQueueEnqueuedCounter(queue::offeredCount);
+    }
+
+    @Override
+    protected boolean offerMessage(Envelope envelope) {
+        if (mpscQueue.offer(envelope)) {
+            return true;
+        }
+        deadLetter(envelope);
+        return false;
+    }
+
+    public int getCapacity() {
+        return mpscQueue.capacity();
+    }
+}
@@ -0,0 +1,230 @@
+package com.avolution.actor.mailbox;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+
+/**
+ * 有界多生产者单消费者数组队列
+ * 生产者CAS竞争生产者序号后按release语义写入槽位, 唯一的消费者按acquire语义读取槽位,
+ * 入队不分配节点对象, 队列大小由生产者/消费者序号相减得到, 不需要额外的共享计数器
+ * 序号字段之间做了缓存行填充, 避免生产者和消费者之间的伪共享
+ *
+ * 只允许一个线程调用 {@link #poll()}/{@link #peek()}/{@link #clear()}, 邮箱的处理标志保证了这一点
+ *
+ * @param <E> 元素类型
+ */
+public class MpscArrayQueue<E> extends MpscConsumerIndexField<E> {
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Object[] buffer;
+    private final long mask;
+    private final int capacity;
+
+    public MpscArrayQueue(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        if (requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity is too large");
+        }
+        this.capacity = 1 << (32 - Integer.numberOfLeadingZeros(requestedCapacity - 1));
+        this.mask = capacity - 1;
+        this.buffer = new Object[capacity];
+        soProducerLimit(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long producerLimit = lvProducerLimit();
+        long producerIndex;
+        do {
+            producerIndex = lvProducerIndex();
+            if (producerIndex >= producerLimit) {
+                // 缓存的上限用完后才读取消费者序号, 减少对消费者缓存行的访问
+                producerLimit = lvConsumerIndex() + capacity;
+                if (producerIndex >= producerLimit) {
+                    return false;
+                }
+                soProducerLimit(producerLimit);
+            }
+        } while (!casProducerIndex(producerIndex, producerIndex + 1));
+
+        ELEMENT.setRelease(buffer, offset(producerIndex), e);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long consumerIndex = lpConsumerIndex();
+        int offset = offset(consumerIndex);
+        Object e = ELEMENT.getAcquire(buffer, offset);
+        if (e == null) {
+            if (consumerIndex == lvProducerIndex()) {
+                return null;
+            }
+            // 生产者已占用序号但尚未写入元素, 等待写入可见
+            do {
+                Thread.onSpinWait();
+                e = ELEMENT.getAcquire(buffer, offset);
+            } while (e == null);
+        }
+        ELEMENT.set(buffer, offset, null);
+        soConsumerIndex(consumerIndex + 1);
+        return (E) e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long consumerIndex = lpConsumerIndex();
+        int offset = offset(consumerIndex);
+        Object e = ELEMENT.getAcquire(buffer, offset);
+        if (e == null && consumerIndex != lvProducerIndex()) {
+            do {
+                Thread.onSpinWait();
+                e = ELEMENT.getAcquire(buffer, offset);
+            } while (e == null);
+        }
+        return (E) e;
+    }
+
+    @Override
+    public int size() {
+        // 两次读取之间消费者序号可能前进, 重读直到得到一致的快照
+        long after = lvConsumerIndex();
+        long before;
+        long producerIndex;
+        do {
+            before = after;
+            producerIndex = lvProducerIndex();
+            after = lvConsumerIndex();
+        } while (before != after);
+        long size = producerIndex - after;
+        if (size < 0) {
+            return 0;
+        }
+        return size > capacity ? capacity : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lvConsumerIndex() == lvProducerIndex();
+    }
+
+    /**
+     * 队列创建以来成功入队的元素总数
+     */
+    public long offeredCount() {
+        return lvProducerIndex();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException("MpscArrayQueue does not support iteration");
+    }
+
+    private int offset(long index) {
+        return (int) (index & mask);
+    }
+}
+
+/**
+ * 缓存行填充
+ */
+abstract class MpscPad0<E> extends AbstractQueue<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * 生产者序号, 由所有生产者CAS竞争
+ */
+abstract class MpscProducerIndexField<E> extends MpscPad0<E> {
+    private static final VarHandle PRODUCER_INDEX;
+
+    static {
+        try {
+            PRODUCER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(MpscProducerIndexField.class, "producerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long producerIndex;
+
+    final long lvProducerIndex() {
+        return producerIndex;
+    }
+
+    final boolean casProducerIndex(long expect, long update) {
+        return PRODUCER_INDEX.compareAndSet(this, expect, update);
+    }
+}
+
+abstract class MpscPad1<E> extends MpscProducerIndexField<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * 生产者缓存的可写上限, 只在耗尽时才去读取消费者序号
+ */
+abstract class MpscProducerLimitField<E> extends MpscPad1<E> {
+    private volatile long producerLimit;
+
+    final long lvProducerLimit() {
+        return producerLimit;
+    }
+
+    final void soProducerLimit(long limit) {
+        this.producerLimit = limit;
+    }
+}
+
+abstract class MpscPad2<E> extends MpscProducerLimitField<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * 消费者序号, 只由唯一的消费者写入
+ */
+abstract class MpscConsumerIndexField<E> extends MpscPad2<E> {
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(MpscConsumerIndexField.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long consumerIndex;
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+
+    final long lvConsumerIndex() {
+        return consumerIndex;
+    }
+
+    final long lpConsumerIndex() {
+        return (long) CONSUMER_INDEX.get(this);
+    }
+
+    final void soConsumerIndex(long index) {
+        CONSUMER_INDEX.setRelease(this, index);
+    }
+}
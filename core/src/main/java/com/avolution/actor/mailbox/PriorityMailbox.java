@@ -0,0 +1,155 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.PriorityStrategy;
+import com.avolution.actor.message.Envelope;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 多级优先级邮箱
+ * 按 {@link PriorityStrategy#getPriority(Envelope)} 将用户消息放入 {@link PriorityStrategy#getMaxPriority()} 个级别,
+ * 数值越大优先级越高, {@link PriorityStrategy#isHighPriority(Envelope)} 的消息直接进入最高级别
+ * 同一级别内保持FIFO顺序, 每个级别是独立的无锁队列, 入队出队都是O(1)
+ */
+public class PriorityMailbox extends Mailbox {
+
+    private final PriorityStrategy priorityStrategy;
+
+    public PriorityMailbox(int throughput, PriorityStrategy priorityStrategy) {
+        super(throughput, new LevelQueue(priorityStrategy));
+        this.priorityStrategy = priorityStrategy;
+    }
+
+    public PriorityStrategy getPriorityStrategy() {
+        return priorityStrategy;
+    }
+
+    /**
+     * 分级队列, 每级一个FIFO队列, 出队时从最高级别开始查找
+     */
+    static final class LevelQueue extends AbstractQueue<Envelope> {
+        private final PriorityStrategy strategy;
+        private final Queue<Envelope>[] levels;
+        private final int highest;
+
+        @SuppressWarnings("unchecked")
+        LevelQueue(PriorityStrategy strategy) {
+            if (strategy == null) {
+                throw new IllegalArgumentException("Priority strategy cannot be null");
+            }
+            int levelCount = strategy.getMaxPriority();
+            if (levelCount <= 0) {
+                throw new IllegalArgumentException("Max priority must be positive");
+            }
+            this.strategy = strategy;
+            this.levels = new Queue[levelCount];
+            for (int i = 0; i < levelCount; i++) {
+                levels[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.highest = levelCount - 1;
+        }
+
+        private int levelOf(Envelope envelope) {
+            if (strategy.isHighPriority(envelope)) {
+                return highest;
+            }
+            int priority = strategy.getPriority(envelope);
+            if (priority < 0) {
+                return 0;
+            }
+            return Math.min(priority, highest);
+        }
+
+        @Override
+        public boolean offer(Envelope envelope) {
+            return levels[levelOf(envelope)].offer(envelope);
+        }
+
+        @Override
+        public Envelope poll() {
+            for (int i = highest; i >= 0; i--) {
+                Envelope envelope = levels[i].poll();
+                if (envelope != null) {
+                    return envelope;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Envelope peek() {
+            for (int i = highest; i >= 0; i--) {
+                Envelope envelope = levels[i].peek();
+                if (envelope != null) {
+                    return envelope;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (int i = highest; i >= 0; i--) {
+                if (!levels[i].isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 遍历所有级别统计, O(n), 邮箱的 {@link Mailbox#size()} 不经过这里
+         */
+        @Override
+        public int size() {
+            int size = 0;
+            for (Queue<Envelope> level : levels) {
+                size += level.size();
+            }
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            for (Queue<Envelope> level : levels) {
+                level.clear();
+            }
+        }
+
+        @Override
+        public Iterator<Envelope> iterator() {
+            return new Iterator<>() {
+                private int level = highest;
+                private Iterator<Envelope> current = levels[highest].iterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (level == 0) {
+                            return false;
+                        }
+                        current = levels[--level].iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public Envelope next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+
+                @Override
+                public void remove() {
+                    current.remove();
+                }
+            };
+        }
+    }
+}
@@ -1,32 +1,70 @@
 package com.avolution.actor.message;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.avolution.actor.core.ActorRef;
 
 /**
  * 消息封装类
+ *
+ * 默认使用精简格式: 消息ID在首次读取时从全局序号分配, 时间戳为单调的纳秒值, 创建时不分配UUID、Instant和集合
+ * 启动参数 {@code -Davolution.actor.envelope.debug=true} 切换为调试格式: 创建时生成UUID和Instant
+ *
+ * 两种格式都记录处理过本消息的Actor路径, 同一Actor重复处理同一个Envelope即视为循环投递;
+ * 精简格式只记录第一个处理者, 出现第二个不同的处理者时才分配集合.
+ * 检测只针对同一个Envelope的重复投递, 处理消息时发出的新消息是新的Envelope, 正常的请求应答不受影响
  */
 public class Envelope<T> {
-    // 消息ID
-    private final String messageId;
+    /**
+     * 是否使用调试格式
+     */
+    public static final boolean DEBUG = Boolean.getBoolean("avolution.actor.envelope.debug");
+    /**
+     * 同一个Envelope最多被处理的次数, 超过视为循环投递
+     */
+    public static final int MAX_HOPS = 32;
+
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final VarHandle ID;
+
+    static {
+        try {
+            ID = MethodHandles.lookup().findVarHandle(Envelope.class, "id", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 消息ID, 0表示尚未分配
+    private volatile long id;
     // 消息内容
     private final T message;
     // 发送者
     private final ActorRef<?> sender;
     // 接收者
     private final ActorRef<T> recipient;
-    // 时间戳
-    private final Instant timestamp;
+    // 创建时的单调时间(纳秒)
+    private final long createdNanos;
 
     private final MessageType messageType;
 
     private final int retryCount;
 
-    private final Set<String> processedActors;
+    // 已处理次数和处理者, 由处理消息的线程更新, 经邮箱队列传递可见性
+    private int hops;
+    private String firstProcessor;
+    // 第一个之后的处理者, 调试格式创建时分配, 精简格式出现第二个处理者时分配
+    private Set<String> processedActors;
+
+    // 以下字段仅调试格式使用
+    private final String debugId;
+    private final Instant debugTimestamp;
 
     // 直接使用构造方法替代Builder
     public Envelope(T message, ActorRef<?> sender, ActorRef<T> recipient, MessageType messageType, int retryCount) {
@@ -36,19 +74,40 @@ public class Envelope<T> {
         if (recipient == null) {
             throw new IllegalArgumentException("Recipient cannot be null");
         }
-        this.messageId = UUID.randomUUID().toString();
         this.message = message;
         this.sender = sender;
         this.recipient = recipient;
-        this.timestamp = Instant.now();
+        this.createdNanos = System.nanoTime();
         this.messageType = messageType != null ? messageType : MessageType.NORMAL;
         this.retryCount = retryCount;
-        this.processedActors = ConcurrentHashMap.newKeySet();
+        if (DEBUG) {
+            this.debugId = UUID.randomUUID().toString();
+            this.debugTimestamp = Instant.now();
+            this.processedActors = ConcurrentHashMap.newKeySet();
+        } else {
+            this.debugId = null;
+            this.debugTimestamp = null;
+        }
     }
 
     // Getters
     public String messageId() {
-        return messageId;
+        return debugId != null ? debugId : Long.toString(getId());
+    }
+
+    /**
+     * 单调递增的消息ID, 首次调用时分配
+     */
+    public long getId() {
+        long current = id;
+        if (current != 0) {
+            return current;
+        }
+        long assigned = ID_SEQUENCE.incrementAndGet();
+        if (ID.compareAndSet(this, 0L, assigned)) {
+            return assigned;
+        }
+        return id;
     }
 
     public T getMessage() {
@@ -63,8 +122,28 @@ public class Envelope<T> {
         return recipient;
     }
 
+    /**
+     * 创建时间, 精简格式下由单调时间换算得到
+     */
     public Instant getTimestamp() {
-        return timestamp;
+        if (debugTimestamp != null) {
+            return debugTimestamp;
+        }
+        return Instant.now().minusNanos(System.nanoTime() - createdNanos);
+    }
+
+    /**
+     * 创建时的 {@link System#nanoTime()}
+     */
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    /**
+     * 消息创建至今的纳秒数
+     */
+    public long getAgeNanos() {
+        return System.nanoTime() - createdNanos;
     }
 
     public MessageType getMessageType() {
@@ -85,12 +164,29 @@ public class Envelope<T> {
     }
 
     public void markProcessed(String actorPath) {
-        processedActors.add(actorPath);
+        hops++;
+        if (firstProcessor == null) {
+            firstProcessor = actorPath;
+        } else if (!firstProcessor.equals(actorPath)) {
+            if (processedActors == null) {
+                processedActors = ConcurrentHashMap.newKeySet();
+            }
+            processedActors.add(actorPath);
+        }
     }
 
+    /**
+     * 是否检测到循环投递: 该Actor已处理过本消息, 或处理次数达到 {@link #MAX_HOPS}
+     */
     public boolean hasBeenProcessedBy(String actorPath) {
-        return processedActors.contains(actorPath);
+        if (hops >= MAX_HOPS || actorPath.equals(firstProcessor)) {
+            return true;
+        }
+        Set<String> others = processedActors;
+        return others != null && others.contains(actorPath);
     }
 
-
+    public int getHops() {
+        return hops;
+    }
 }
@@ -1,5 +1,7 @@
 package com.avolution.actor.message;
 
+import java.util.List;
+
 /**
  * 消息处理器接口
  * @param <T> 消息类型
@@ -13,4 +15,22 @@ public interface MessageHandler<T> {
      */
     void handle(Envelope<T> message) throws Exception;
 
+    /**
+     * 每批最多处理的消息数, 默认1即逐条处理
+     * 大于1时邮箱会一次取出多条用户消息调用 {@link #handleBatch(List)}, 系统消息始终逐条处理
+     */
+    default int batchSize() {
+        return 1;
+    }
+
+    /**
+     * 批量处理消息, 默认逐条调用 {@link #handle(Envelope)}
+     * @param messages 按入队顺序排列的消息, 只读
+     * @throws Exception 抛出异常时整批计为失败
+     */
+    default void handleBatch(List<Envelope<T>> messages) throws Exception {
+        for (Envelope<T> message : messages) {
+            handle(message);
+        }
+    }
 }
\ No newline at end of file
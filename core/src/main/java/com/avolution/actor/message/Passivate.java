@@ -0,0 +1,17 @@
+package com.avolution.actor.message;
+
+import com.avolution.actor.core.AbstractActor;
+
+/**
+ * 空闲检查发出的钝化信号, 在Actor线程中执行钝化, 保证不与消息处理并发
+ */
+public final class Passivate implements Signal {
+    public static final Passivate INSTANCE = new Passivate();
+
+    private Passivate() {}
+
+    @Override
+    public void handle(AbstractActor<?> actor) {
+        actor.getContext().handlePassivate();
+    }
+}
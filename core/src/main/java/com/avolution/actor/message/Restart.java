@@ -2,14 +2,20 @@ package com.avolution.actor.message;
 
 import com.avolution.actor.core.AbstractActor;
 
+/**
+ * 重启信号, 由 {@link com.avolution.actor.core.context.ActorContext#restart(Throwable)} 投递到自身的系统队列,
+ * 在Actor线程中替换实例, 不阻塞调度线程
+ */
 public final class Restart implements Signal {
-    public static final Restart INSTANCE = new Restart();
 
-    private Restart() {}
+    public final Throwable cause;
+
+    public Restart(Throwable cause) {
+        this.cause = cause;
+    }
 
     @Override
     public void handle(AbstractActor<?> actor) {
-        actor.onPreRestart(null);
-        actor.onPostRestart(null);
+        actor.getContext().handleRestart(this);
     }
 }
@@ -1,29 +1,42 @@
 package com.avolution.actor.message;
 
 import com.avolution.actor.core.AbstractActor;
-import com.avolution.actor.system.actor.IDeadLetterActorMessage;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
+/**
+ * 被监视的Actor终止的通知
+ * 一棵子树终止时, 每个监视者收到一条, {@link #getActorPaths()} 为其监视的全部终止路径
+ */
 public final class Terminated implements Signal {
 
-    private final String actorPath;
+    private final List<String> actorPaths;
     private final String reason;
     private final boolean expected;
 
     public Terminated() {
-        this(null, "Normal termination", true);
+        this((String) null, "Normal termination", true);
     }
 
     public Terminated(String actorPath, String reason, boolean expected) {
-        this.actorPath = actorPath;
+        this(actorPath != null ? List.of(actorPath) : List.of(), reason, expected);
+    }
+
+    public Terminated(List<String> actorPaths, String reason, boolean expected) {
+        this.actorPaths = List.copyOf(actorPaths);
         this.reason = reason;
         this.expected = expected;
     }
 
+    /**
+     * @return 第一个终止的路径
+     */
     public String getActorPath() {
-        return actorPath;
+        return actorPaths.isEmpty() ? null : actorPaths.get(0);
+    }
+
+    public List<String> getActorPaths() {
+        return actorPaths;
     }
 
     public String getReason() {
@@ -38,7 +51,7 @@ public final class Terminated implements Signal {
     @Override
     public String toString() {
         return String.format("Terminated[actor=%s, reason=%s, expected=%s]",
-                actorPath, reason, expected);
+                actorPaths.size() == 1 ? actorPaths.get(0) : actorPaths, reason, expected);
     }
 
     @Override
@@ -46,20 +59,10 @@ public final class Terminated implements Signal {
         if (target instanceof AbstractActor<?> actor) {
             // 通知死信系统
             if (actor.getContext() != null && actor.getContext().system() != null) {
-                IDeadLetterActorMessage.DeadLetter deadLetter = new IDeadLetterActorMessage.DeadLetter(
-                        this,
-                        actor.getSelf().path(),
-                        actorPath != null ? actorPath : "unknown",
-                        LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                        MessageType.SYSTEM.toString(),
-                        0
-                );
-                actor.getContext().system().getDeadLetters().tell(deadLetter, actor.getSelf());
+                actor.getContext().system().deadLetterOffice().publish(this, actor.getSelf().path(),
+                        actorPaths.isEmpty() ? "unknown" : actorPaths.get(0), MessageType.SYSTEM, 0);
             }
 
-            // 通知监视器
-            actor.getContext().notifyWatchers(target);
-
             // 如果是非预期终止，记录日志
             if (!expected) {
 //                actor.logger.warn("Actor terminated unexpectedly: {} - Reason: {}",
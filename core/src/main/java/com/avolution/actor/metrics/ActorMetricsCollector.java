@@ -1,47 +1,131 @@
 package com.avolution.actor.metrics;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import java.util.concurrent.atomic.*;
 
+/**
+ * Actor的消息度量: 每个Actor单独统计消息数和失败数, 处理耗时和邮箱等待时间(入队到出队)记录在本Actor的延迟直方图中,
+ * 直方图只由Actor线程记录, 只用一个分段; 桶数组在第一次记录时才分配, 没有处理过消息的Actor只占计数器的内存
+ *
+ * 整类Actor的延迟分布需要通过 {@link #classLatency(Class)} 显式开启, 开启后同类Actor的样本同时记入该类共享的分段直方图
+ */
 public class ActorMetricsCollector {
-    private static final Logger logger = LoggerFactory.getLogger(ActorMetricsCollector.class);
+    private static final ClassValue<ClassLatencyHolder> CLASS_LATENCIES = new ClassValue<>() {
+        @Override
+        protected ClassLatencyHolder computeValue(Class<?> actorClass) {
+            return new ClassLatencyHolder();
+        }
+    };
+
+    /**
+     * 同类Actor共享的延迟直方图; 区间快照会推进所有读取方共用的区间起点, 应只由一个使用方调用
+     */
+    public record ClassLatency(LatencyHistogram processingTime, LatencyHistogram mailboxWaitTime) {}
+
+    // 未开启时为空, 记录时只多读一次volatile字段
+    private static final class ClassLatencyHolder {
+        private volatile ClassLatency latency;
+    }
 
     private final String actorPath;
     private final AtomicBoolean enabled;
     private final AtomicLong messageCount;
     private final AtomicLong failureCount;
-    private final AtomicLong totalProcessingTime;
-    private final AtomicLong maxProcessingTime;
-    private final AtomicLong minProcessingTime;
     private volatile long lastProcessingTime;
     private final AtomicInteger deadLetterCount;
+    private final LatencyHistogram processingTime;
+    private final LatencyHistogram mailboxWaitTime;
+    private final ClassLatencyHolder classLatency;
 
     public ActorMetricsCollector(String actorPath) {
+        this(actorPath, null);
+    }
+
+    /**
+     * 该Actor类开启了整类延迟统计时, 样本同时记入共享的直方图
+     */
+    public ActorMetricsCollector(String actorPath, Class<?> actorClass) {
         this.actorPath = actorPath;
         this.enabled = new AtomicBoolean(true);
         this.messageCount = new AtomicLong(0);
         this.failureCount = new AtomicLong(0);
-        this.totalProcessingTime = new AtomicLong(0);
-        this.maxProcessingTime = new AtomicLong(0);
-        this.minProcessingTime = new AtomicLong(Long.MAX_VALUE);
         this.deadLetterCount = new AtomicInteger(0);
         this.lastProcessingTime = 0;
+        this.processingTime = new LatencyHistogram(1);
+        this.mailboxWaitTime = new LatencyHistogram(1);
+        this.classLatency = actorClass != null ? CLASS_LATENCIES.get(actorClass) : null;
+    }
+
+    /**
+     * 开启并返回该Actor类共享的延迟直方图, 重复调用返回同一组; 开启前已记录的样本不计入
+     */
+    public static ClassLatency classLatency(Class<?> actorClass) {
+        if (actorClass == null) {
+            throw new IllegalArgumentException("Actor class cannot be null");
+        }
+        ClassLatencyHolder holder = CLASS_LATENCIES.get(actorClass);
+        ClassLatency latency = holder.latency;
+        if (latency == null) {
+            synchronized (holder) {
+                latency = holder.latency;
+                if (latency == null) {
+                    // 同类Actor在多个线程上并发记录, 使用分段直方图
+                    latency = new ClassLatency(new LatencyHistogram(), new LatencyHistogram());
+                    holder.latency = latency;
+                }
+            }
+        }
+        return latency;
     }
 
     public void recordMessage(long startTime, boolean success) {
+        recordMessage(startTime, -1, success);
+    }
+
+    /**
+     * @param startTime          开始处理的时间, System.nanoTime()
+     * @param mailboxWaitNanos   消息在邮箱中等待的时间, 负值表示未知
+     */
+    public void recordMessage(long startTime, long mailboxWaitNanos, boolean success) {
         if (!enabled.get()) return;
 
-        long processingTime = System.nanoTime() - startTime;
+        long elapsed = System.nanoTime() - startTime;
         messageCount.incrementAndGet();
         if (!success) {
             failureCount.incrementAndGet();
         }
 
-        totalProcessingTime.addAndGet(processingTime);
-        lastProcessingTime = processingTime;
-        updateMaxProcessingTime(processingTime);
-        updateMinProcessingTime(processingTime);
+        lastProcessingTime = elapsed;
+        recordLatency(elapsed, mailboxWaitNanos);
+    }
+
+    /**
+     * 整批处理的消息计入消息数, 批处理耗时和第一条消息的等待时间各记为一个样本
+     */
+    public void recordBatch(long startTime, int size, long mailboxWaitNanos, boolean success) {
+        if (!enabled.get()) return;
+
+        long elapsed = System.nanoTime() - startTime;
+        messageCount.addAndGet(size);
+        if (!success) {
+            failureCount.addAndGet(size);
+        }
+
+        lastProcessingTime = elapsed;
+        recordLatency(elapsed, mailboxWaitNanos);
+    }
+
+    private void recordLatency(long elapsed, long mailboxWaitNanos) {
+        processingTime.record(elapsed);
+        if (mailboxWaitNanos >= 0) {
+            mailboxWaitTime.record(mailboxWaitNanos);
+        }
+        ClassLatency shared = classLatency != null ? classLatency.latency : null;
+        if (shared != null) {
+            shared.processingTime().record(elapsed);
+            if (mailboxWaitNanos >= 0) {
+                shared.mailboxWaitTime().record(mailboxWaitNanos);
+            }
+        }
     }
 
     public void recordDeadLetter() {
@@ -50,46 +134,64 @@ public class ActorMetricsCollector {
         }
     }
 
-    private void updateMaxProcessingTime(long time) {
-        long  current;
-        do {
-            current = maxProcessingTime.get();
-            if (time <= current) break;
-        } while (!maxProcessingTime.compareAndSet(current, time));
+    /**
+     * 处理耗时直方图, 可用于区间快照和重置
+     */
+    public LatencyHistogram getProcessingTime() {
+        return processingTime;
     }
 
-    private void updateMinProcessingTime(long time) {
-        long current;
-        do {
-            current = minProcessingTime.get();
-            if (time >= current) break;
-        } while (!minProcessingTime.compareAndSet(current, time));
+    /**
+     * 邮箱等待时间直方图, 从消息入队到开始处理
+     */
+    public LatencyHistogram getMailboxWaitTime() {
+        return mailboxWaitTime;
     }
 
+    /**
+     * 计数为累计值, 延迟分布为直方图上次区间快照或重置以来的值
+     */
     public MetricsSnapshot getSnapshot() {
         if (!enabled.get()){
             return MetricsSnapshot.EMPTY;
         }
-        long total = messageCount.get();
-        MetricsSnapshot.Builder builder = MetricsSnapshot.builder();
-        builder.actorPath(actorPath)
-                .totalMessages(total)
+        return snapshot(processingTime.snapshot(), mailboxWaitTime.snapshot());
+    }
+
+    /**
+     * 返回上次区间快照以来的延迟分布并开始新区间, 快照期间并发记录的样本计入下一区间
+     */
+    public MetricsSnapshot getIntervalSnapshot() {
+        if (!enabled.get()){
+            return MetricsSnapshot.EMPTY;
+        }
+        return snapshot(processingTime.intervalSnapshot(), mailboxWaitTime.intervalSnapshot());
+    }
+
+    private MetricsSnapshot snapshot(LatencyHistogram.Snapshot processing, LatencyHistogram.Snapshot mailboxWait) {
+        return MetricsSnapshot.builder()
+                .actorPath(actorPath)
+                .totalMessages(messageCount.get())
                 .failedMessages(failureCount.get())
                 .deadLetters(deadLetterCount.get())
-                .averageProcessingTime(total == 0 ? 0 : totalProcessingTime.get() / total)
+                .averageProcessingTime(processing.mean())
                 .lastProcessingTime(lastProcessingTime)
-                .maxProcessingTime(maxProcessingTime.get())
-                .minProcessingTime(minProcessingTime.get());
-        return builder.build();
+                .maxProcessingTime(processing.max())
+                .minProcessingTime(processing.min())
+                .processingTime(processing)
+                .mailboxWaitTime(mailboxWait)
+                .build();
     }
 
+    /**
+     * 重置本Actor的计数和直方图, 不影响整类共享的直方图
+     */
     public void reset() {
         messageCount.set(0);
         failureCount.set(0);
-        totalProcessingTime.set(0);
-        maxProcessingTime.set(0);
-        minProcessingTime.set(Long.MAX_VALUE);
         deadLetterCount.set(0);
         lastProcessingTime = 0;
+        processingTime.reset();
+        mailboxWaitTime.reset();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,279 @@
+package com.avolution.actor.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数分桶延迟直方图, 单位纳秒
+ *
+ * 分桶方式与 HdrHistogram 相同: 每个2的幂区间再线性分为 {@link #SUB_BUCKETS} 个子桶, 相对误差不超过 1/16;
+ * 小于 {@link #SUB_BUCKETS} 的值每个值一个桶, 超过 2^40 纳秒(约18分钟)的值计入最后一个桶
+ *
+ * 记录只对当前线程所在分段的一个桶做一次原子自增. 计数只增不减, 区间快照把本次读到的计数作为下一区间的起点,
+ * 快照过程中并发记录的样本要么计入本区间, 要么计入下一区间, 不会丢失
+ * 计数数组在第一次记录时分配, 区间起点在第一次区间快照或重置时分配, 没有样本的直方图只占一个对象头
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MAGNITUDE = 39;
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final VarHandle COUNTS;
+
+    static {
+        try {
+            COUNTS = MethodHandles.lookup().findVarHandle(LatencyHistogram.class, "counts", AtomicLongArray.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int stripeMask;
+    // 各分段的桶依次排列, 分段 i 占 [i * BUCKETS, (i + 1) * BUCKETS); 第一次记录时分配
+    private volatile AtomicLongArray counts;
+    // 上一区间结束时的计数, 只在快照时读写; 第一次区间快照或重置时分配
+    private long[] baseline;
+
+    /**
+     * 分段数取不小于CPU核数的2的幂
+     */
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * 记录一个延迟值, 负值按0计
+     */
+    public void record(long nanos) {
+        AtomicLongArray current = counts;
+        if (current == null) {
+            current = allocate();
+        }
+        current.getAndIncrement(stripe() * BUCKETS + bucketIndex(nanos));
+    }
+
+    private AtomicLongArray allocate() {
+        AtomicLongArray allocated = new AtomicLongArray((stripeMask + 1) * BUCKETS);
+        if (COUNTS.compareAndSet(this, null, allocated)) {
+            return allocated;
+        }
+        return counts;
+    }
+
+    /**
+     * 是否已记录过样本并分配了计数数组
+     */
+    boolean isAllocated() {
+        return counts != null;
+    }
+
+    private int stripe() {
+        if (stripeMask == 0) {
+            return 0;
+        }
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & stripeMask;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketLowest(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    static long bucketHighest(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return bucketLowest(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * 上次区间快照或重置以来的分布, 不开始新区间
+     */
+    public synchronized Snapshot snapshot() {
+        long[] current = sum();
+        if (current == null) {
+            return Snapshot.EMPTY;
+        }
+        if (baseline != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                current[i] -= baseline[i];
+            }
+        }
+        return new Snapshot(current);
+    }
+
+    /**
+     * 返回上次区间快照或重置以来的分布, 并开始新区间
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        long[] current = sum();
+        if (current == null) {
+            return Snapshot.EMPTY;
+        }
+        if (baseline == null) {
+            baseline = current;
+            return new Snapshot(current.clone());
+        }
+        long[] interval = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            interval[i] = current[i] - baseline[i];
+        }
+        baseline = current;
+        return new Snapshot(interval);
+    }
+
+    /**
+     * 丢弃当前区间的样本, 重置过程中记录的样本计入新区间
+     */
+    public synchronized void reset() {
+        long[] current = sum();
+        if (current != null) {
+            baseline = current;
+        }
+    }
+
+    // 尚未记录过样本时返回null
+    private long[] sum() {
+        AtomicLongArray counts = this.counts;
+        if (counts == null) {
+            return null;
+        }
+        long[] result = new long[BUCKETS];
+        int stripes = stripeMask + 1;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int offset = stripe * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                result[i] += counts.get(offset + i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 直方图的不可变快照, 分位数取所在桶的上界, 单位纳秒
+     */
+    public static final class Snapshot {
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS]);
+
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * @param percentile 0到100之间的百分位, 例如 99.9
+         * @return 不少于该比例的样本小于等于的值, 没有样本时为0
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketHighest(i);
+                }
+            }
+            return bucketHighest(BUCKETS - 1);
+        }
+
+        public long p50() {
+            return valueAtPercentile(50);
+        }
+
+        public long p90() {
+            return valueAtPercentile(90);
+        }
+
+        public long p99() {
+            return valueAtPercentile(99);
+        }
+
+        public long p999() {
+            return valueAtPercentile(99.9);
+        }
+
+        public long min() {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    return bucketLowest(i);
+                }
+            }
+            return 0;
+        }
+
+        public long max() {
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return bucketHighest(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 按桶中点估算的平均值
+         */
+        public long mean() {
+            if (count == 0) {
+                return 0;
+            }
+            double total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    total += counts[i] * ((bucketLowest(i) + bucketHighest(i)) / 2.0);
+                }
+            }
+            return (long) (total / count);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, p50=%dns, p90=%dns, p99=%dns, p999=%dns, max=%dns",
+                    count, p50(), p90(), p99(), p999(), max());
+        }
+    }
+}
@@ -21,6 +21,10 @@ public record MetricsSnapshot(
         long maxProcessingTime,
         long minProcessingTime,
 
+        // 延迟分布（纳秒）, 含 p50/p90/p99/p999
+        LatencyHistogram.Snapshot processingTime,
+        LatencyHistogram.Snapshot mailboxWaitTime,
+
         // 邮箱统计
         long messagesEnqueued,
         long messagesProcessed,
@@ -48,6 +52,7 @@ public record MetricsSnapshot(
             "unknown",
             0L, 0L, 0L,
             0L, 0L, 0L, 0L,
+            LatencyHistogram.Snapshot.EMPTY, LatencyHistogram.Snapshot.EMPTY,
             0L, 0L, 0L, 0L,
             0.0, 0.0, 0.0, 0.0,
             0L, 0L, 0L, 0L, 0L, 0.0,
@@ -74,6 +79,8 @@ public record MetricsSnapshot(
         private long lastProcessingTime = 0;
         private long maxProcessingTime = 0;
         private long minProcessingTime = 0;
+        private LatencyHistogram.Snapshot processingTime = LatencyHistogram.Snapshot.EMPTY;
+        private LatencyHistogram.Snapshot mailboxWaitTime = LatencyHistogram.Snapshot.EMPTY;
         private long messagesEnqueued = 0;
         private long messagesProcessed = 0;
         private long systemMessagesProcessed = 0;
@@ -131,6 +138,16 @@ public record MetricsSnapshot(
             return this;
         }
 
+        public Builder processingTime(LatencyHistogram.Snapshot processingTime) {
+            this.processingTime = processingTime;
+            return this;
+        }
+
+        public Builder mailboxWaitTime(LatencyHistogram.Snapshot mailboxWaitTime) {
+            this.mailboxWaitTime = mailboxWaitTime;
+            return this;
+        }
+
         public Builder messagesEnqueued(long messagesEnqueued) {
             this.messagesEnqueued = messagesEnqueued;
             return this;
@@ -216,6 +233,7 @@ public record MetricsSnapshot(
             return new MetricsSnapshot(
                     actorPath, totalMessages, failedMessages, deadLetters,
                     averageProcessingTime, lastProcessingTime, maxProcessingTime, minProcessingTime,
+                    processingTime, mailboxWaitTime,
                     messagesEnqueued, messagesProcessed, systemMessagesProcessed, messagesRejected,
                     mailboxProcessingTimeMs, mailboxMaxProcessingTimeMs, messagesPerSecond, failureRate,
                     activeThreads, totalTasks, completedTasks, failedTasks, rejectedTasks,
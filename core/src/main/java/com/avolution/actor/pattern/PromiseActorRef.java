@@ -0,0 +1,130 @@
+package com.avolution.actor.pattern;
+
+import com.avolution.actor.concurrent.HashedWheelTimer;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.exception.AskTimeoutException;
+import com.avolution.actor.message.MessageType;
+import com.avolution.actor.message.Signal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ask使用的一次性应答引用
+ * 收到第一条消息时直接完成future, 不创建Actor、上下文和邮箱, 也不注册到Actor层级中
+ * 路径只在被读取时才生成, 超时登记在系统共享的时间轮上, 应答到达时O(1)取消
+ *
+ * @param <R> 应答类型
+ */
+public final class PromiseActorRef<R> implements ActorRef<R> {
+    private static final String TEMP_PATH_PREFIX = "/temp/ask-";
+    private static final AtomicLong PATH_SEQUENCE = new AtomicLong();
+    private static final VarHandle PATH;
+
+    static {
+        try {
+            PATH = MethodHandles.lookup().findVarHandle(PromiseActorRef.class, "path", String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final CompletableFuture<R> future = new CompletableFuture<>();
+    private final ActorSystem system;
+    private volatile Future<?> timeoutTask;
+    private volatile String path;
+
+    private PromiseActorRef(ActorSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * 创建应答引用并登记超时
+     */
+    public static <R> PromiseActorRef<R> create(ActorSystem system, Duration timeout) {
+        PromiseActorRef<R> ref = new PromiseActorRef<>(system);
+        // 定时器停止时立即超时, 不让调用方一直等待
+        HashedWheelTimer.RunOnStop onTimeout =
+                () -> ref.future.completeExceptionally(new AskTimeoutException("Ask timed out after " + timeout));
+        ref.timeoutTask = system.getTimer().schedule(onTimeout, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        // 超时任务登记前可能已收到应答
+        if (ref.future.isDone()) {
+            ref.cancelTimeout();
+        }
+        return ref;
+    }
+
+    public CompletableFuture<R> future() {
+        return future;
+    }
+
+    @Override
+    public void tell(R message, ActorRef sender) {
+        if (future.complete(message)) {
+            cancelTimeout();
+        } else {
+            // 已超时或已应答, 迟到的消息转入死信
+            deadLetter(message, sender);
+        }
+    }
+
+    @Override
+    public void tell(Signal signal, ActorRef sender) {
+        // 应答引用不处理信号
+    }
+
+    @Override
+    public <T> CompletableFuture<T> ask(R message, Duration timeout) {
+        throw new UnsupportedOperationException("PromiseActorRef cannot ask messages");
+    }
+
+    /**
+     * 首次读取时分配路径, 并发读取时只有一个路径生效
+     */
+    @Override
+    public String path() {
+        String current = path;
+        if (current != null) {
+            return current;
+        }
+        String assigned = TEMP_PATH_PREFIX + PATH_SEQUENCE.incrementAndGet();
+        if (PATH.compareAndSet(this, null, assigned)) {
+            return assigned;
+        }
+        return path;
+    }
+
+    @Override
+    public String name() {
+        String current = path();
+        return current.substring(current.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return future.isDone();
+    }
+
+    @Override
+    public String toString() {
+        return "PromiseActorRef[" + path() + "]";
+    }
+
+    private void cancelTimeout() {
+        Future<?> task = timeoutTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    private void deadLetter(Object message, ActorRef sender) {
+        system.deadLetterOffice().publish(message, sender != null ? sender.path() : "unknown", path(),
+                MessageType.NORMAL, 0);
+    }
+}
@@ -51,7 +51,11 @@ public class DefaultActorStrategy<T> implements ActorStrategy<T> {
 
     @Override
     public void handleFailure(Throwable cause, Envelope<T> message, AbstractActor<T> self) {
-        Directive directive = supervisorStrategy.handle(cause);
+        // Props指定了监督策略时由其决定, 否则使用默认的一对一策略
+        SupervisorStrategy configured = self.getContext().getSupervisorStrategy();
+        SupervisorStrategy strategy = configured != null && configured != DefaultSupervisorStrategy.INSTANCE
+                ? configured : supervisorStrategy;
+        Directive directive = strategy.handle(cause);
         switch (directive) {
             case RESUME -> self.getContext().resume();
             case RESTART -> self.getContext().restart(cause);
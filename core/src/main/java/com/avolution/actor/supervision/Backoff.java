@@ -0,0 +1,61 @@
+package com.avolution.actor.supervision;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 单个Actor的退避状态, 由 {@link BackoffSupervisorStrategy#newBackoff()} 创建
+ *
+ * 只在Actor线程中访问: 失败和重启都在处理消息时发生, 不需要同步
+ */
+public final class Backoff {
+    private final BackoffSupervisorStrategy strategy;
+    // 当前退避级别, 即连续重启次数
+    private int restartCount;
+    // 最近一次完成重启的时刻, 0表示尚未重启
+    private long lastRestartNanos;
+
+    Backoff(BackoffSupervisorStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 计算下一次重启前的延迟并进入下一级
+     *
+     * @return 延迟, 超过最大重试次数时返回null
+     */
+    public Duration nextDelay() {
+        long now = System.nanoTime();
+        if (lastRestartNanos != 0 && now - lastRestartNanos >= strategy.resetAfter().toNanos()) {
+            restartCount = 0;
+        }
+        if (restartCount >= strategy.retryStrategy().getMaxRetries()) {
+            return null;
+        }
+
+        long delay = strategy.retryStrategy().getRetryDelay(restartCount++).toNanos();
+        double factor = strategy.randomFactor();
+        if (factor > 0) {
+            delay += (long) (delay * ThreadLocalRandom.current().nextDouble() * factor);
+        }
+        return Duration.ofNanos(Math.min(delay, strategy.maxDelay().toNanos()));
+    }
+
+    /**
+     * 重启完成, 从此刻开始计算稳定期
+     */
+    public void restarted() {
+        lastRestartNanos = System.nanoTime();
+    }
+
+    /**
+     * 当前退避级别
+     */
+    public int getRestartCount() {
+        return restartCount;
+    }
+
+    public BackoffSupervisorStrategy.WhileBackingOff whileBackingOff() {
+        return strategy.whileBackingOff();
+    }
+}
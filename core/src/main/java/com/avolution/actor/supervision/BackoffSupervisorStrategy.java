@@ -0,0 +1,156 @@
+package com.avolution.actor.supervision;
+
+import com.avolution.actor.config.strategies.RetryStrategy;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 退避重启策略
+ *
+ * 决定重启时不立即重启, 而是按 {@link RetryStrategy#getRetryDelay(int)} 计算的指数延迟加随机抖动,
+ * 在系统时间轮上到期后再重启; 超过 {@link RetryStrategy#getMaxRetries()} 次后停止Actor.
+ * 距上次重启稳定运行超过 resetAfter 后, 下一次失败重新从第一级延迟开始
+ *
+ * 本类只保存配置, 可在多个Props间共享; 每个Actor的重启计数由 {@link #newBackoff()} 创建的 {@link Backoff} 维护
+ *
+ * <pre>
+ * Props.create(DbActor.class).withSupervisorStrategy(
+ *         new BackoffSupervisorStrategy(new DefaultRetryStrategy(10, Duration.ofMillis(200)))
+ *                 .withMaxDelay(Duration.ofSeconds(30))
+ *                 .withWhileBackingOff(BackoffSupervisorStrategy.WhileBackingOff.DEAD_LETTER));
+ * </pre>
+ */
+public class BackoffSupervisorStrategy implements SupervisorStrategy {
+
+    /**
+     * 退避等待期间新到达的用户消息如何处理
+     */
+    public enum WhileBackingOff {
+        // 留在邮箱中, 重启后由新实例处理
+        STASH,
+        // 转入死信, 发送方不必等待退避结束
+        DEAD_LETTER
+    }
+
+    private final RetryStrategy retryStrategy;
+    private final Function<Throwable, Directive> decider;
+    private final double randomFactor;
+    private final Duration resetAfter;
+    private final Duration maxDelay;
+    private final WhileBackingOff whileBackingOff;
+
+    public BackoffSupervisorStrategy(RetryStrategy retryStrategy) {
+        this(retryStrategy, SupervisorStrategy.defaultDecider(), 0.2, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), WhileBackingOff.STASH);
+    }
+
+    private BackoffSupervisorStrategy(RetryStrategy retryStrategy,
+                                      Function<Throwable, Directive> decider,
+                                      double randomFactor,
+                                      Duration resetAfter,
+                                      Duration maxDelay,
+                                      WhileBackingOff whileBackingOff) {
+        if (retryStrategy == null) {
+            throw new IllegalArgumentException("Retry strategy cannot be null");
+        }
+        this.retryStrategy = retryStrategy;
+        this.decider = decider;
+        this.randomFactor = randomFactor;
+        this.resetAfter = resetAfter;
+        this.maxDelay = maxDelay;
+        this.whileBackingOff = whileBackingOff;
+    }
+
+    /**
+     * 失败类型到处理指令的映射, 默认为 {@link SupervisorStrategy#defaultDecider()}
+     */
+    public BackoffSupervisorStrategy withDecider(Function<Throwable, Directive> decider) {
+        if (decider == null) {
+            throw new IllegalArgumentException("Decider cannot be null");
+        }
+        return new BackoffSupervisorStrategy(retryStrategy, decider, randomFactor, resetAfter, maxDelay, whileBackingOff);
+    }
+
+    /**
+     * 随机抖动比例, 实际延迟在 [delay, delay * (1 + randomFactor)] 之间, 避免大量Actor同时重启
+     */
+    public BackoffSupervisorStrategy withRandomFactor(double randomFactor) {
+        if (randomFactor < 0) {
+            throw new IllegalArgumentException("Random factor must not be negative");
+        }
+        return new BackoffSupervisorStrategy(retryStrategy, decider, randomFactor, resetAfter, maxDelay, whileBackingOff);
+    }
+
+    /**
+     * 重启后稳定运行多久重置重启计数
+     */
+    public BackoffSupervisorStrategy withResetAfter(Duration resetAfter) {
+        if (resetAfter == null || resetAfter.isNegative()) {
+            throw new IllegalArgumentException("Reset period must not be negative");
+        }
+        return new BackoffSupervisorStrategy(retryStrategy, decider, randomFactor, resetAfter, maxDelay, whileBackingOff);
+    }
+
+    /**
+     * 单次延迟的上限, 抖动之后同样受限
+     */
+    public BackoffSupervisorStrategy withMaxDelay(Duration maxDelay) {
+        if (maxDelay == null || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Max delay must not be negative");
+        }
+        return new BackoffSupervisorStrategy(retryStrategy, decider, randomFactor, resetAfter, maxDelay, whileBackingOff);
+    }
+
+    public BackoffSupervisorStrategy withWhileBackingOff(WhileBackingOff whileBackingOff) {
+        if (whileBackingOff == null) {
+            throw new IllegalArgumentException("Backing-off behavior cannot be null");
+        }
+        return new BackoffSupervisorStrategy(retryStrategy, decider, randomFactor, resetAfter, maxDelay, whileBackingOff);
+    }
+
+    /**
+     * 只按失败类型给出指令, 重启次数和延迟由每个Actor的 {@link Backoff} 处理
+     */
+    @Override
+    public Directive handle(Throwable cause) {
+        return decider.apply(cause);
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return retryStrategy.getMaxRetries();
+    }
+
+    @Override
+    public Duration getWithinTimeRange() {
+        return resetAfter;
+    }
+
+    /**
+     * 为一个Actor创建退避状态, 每个Actor上下文一个实例
+     */
+    public Backoff newBackoff() {
+        return new Backoff(this);
+    }
+
+    RetryStrategy retryStrategy() {
+        return retryStrategy;
+    }
+
+    double randomFactor() {
+        return randomFactor;
+    }
+
+    Duration resetAfter() {
+        return resetAfter;
+    }
+
+    Duration maxDelay() {
+        return maxDelay;
+    }
+
+    public WhileBackingOff whileBackingOff() {
+        return whileBackingOff;
+    }
+}
@@ -1,97 +1,300 @@
 package com.avolution.actor.supervision;
 
-
-
-/**
- * Actor死亡监视器
- */
+import com.avolution.actor.core.ActorRef;
 import com.avolution.actor.message.Terminated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.avolution.actor.core.ActorRef;
-import com.avolution.actor.core.ActorSystem;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
+/**
+ * Actor死亡监视器
+ *
+ * 系统中唯一的监视表, 以路径为键; 按被监视者路径分段加锁, 不同段的监视、取消和终止互不阻塞
+ * 子树终止时按段成批取走监视关系, 每个监视者只收到一条包含全部终止路径的 {@link Terminated},
+ * 同一子树内的监视者不再通知
+ * 登记监视时在段锁内检查目标是否存活, 与终止在同一把锁上串行, 保证每个监视者恰好收到一次通知
+ */
 public class DeathWatch {
     private static final Logger logger = LoggerFactory.getLogger(DeathWatch.class);
 
-    private final ActorSystem system;
-    private final Map<ActorRef, Set<ActorRef>> watchedBy;
-    private final Map<ActorRef, Set<ActorRef>> watching;
+    private static final int STRIPES = 64;
 
-    public DeathWatch(ActorSystem system) {
-        this.system = system;
-        this.watchedBy = new ConcurrentHashMap<>();
-        this.watching = new ConcurrentHashMap<>();
+    // 一个监视者对一个目标的监视
+    private static final class Watch {
+        final ActorRef<?> watcher;
+        // 是否发送Terminated, 只登记回调时为false
+        boolean notify;
+        List<Runnable> callbacks;
+
+        Watch(ActorRef<?> watcher) {
+            this.watcher = watcher;
+        }
     }
 
-    public synchronized void watch(ActorRef watcher, ActorRef watched) {
-        if (watcher == null || watched == null || watcher == watched) {
+    // 一个监视者本次要收到的通知
+    private static final class Pending {
+        final ActorRef<?> watcher;
+        final List<String> paths = new ArrayList<>();
+        boolean notify;
+        List<Runnable> callbacks;
+
+        Pending(ActorRef<?> watcher) {
+            this.watcher = watcher;
+        }
+    }
+
+    // 每段: 被监视者路径 -> (监视者路径 -> 监视), 由段锁保护
+    private final Object[] locks = new Object[STRIPES];
+    @SuppressWarnings("unchecked")
+    private final Map<String, Map<String, Watch>>[] watchedBy = new Map[STRIPES];
+    // 反向索引: 监视者路径 -> 被监视者路径, 监视者终止时用于清理
+    private final Map<String, Set<String>> watching = new ConcurrentHashMap<>();
+    // 目标是否存活, 终止前必须先让它返回false
+    private final Predicate<String> alive;
+    private final DeathWatchMetrics metrics = new DeathWatchMetrics();
+
+    /**
+     * @param alive 判断路径对应的Actor是否存活, 通常为引用注册表的查询
+     */
+    public DeathWatch(Predicate<String> alive) {
+        this.alive = alive;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+            watchedBy[i] = new HashMap<>();
+        }
+    }
+
+    private static int stripe(String path) {
+        int h = path.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * watcher 监视 watched, 目标终止时 watcher 收到 {@link Terminated}
+     */
+    public void watch(ActorRef<?> watcher, ActorRef<?> watched) {
+        register(watcher, watched, null);
+    }
+
+    /**
+     * 以 watcher 的名义登记回调, 目标终止时执行; 通过 {@link #unwatch} 一并取消
+     */
+    public void watch(ActorRef<?> watcher, ActorRef<?> watched, Runnable callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback cannot be null");
+        }
+        register(watcher, watched, callback);
+    }
+
+    private void register(ActorRef<?> watcher, ActorRef<?> watched, Runnable callback) {
+        if (watcher == null || watched == null || watcher.equals(watched)) {
+            throw new IllegalArgumentException("Invalid watch parameters");
+        }
+        String watcherPath = watcher.path();
+        String watchedPath = watched.path();
+
+        int index = stripe(watchedPath);
+        boolean terminated;
+        synchronized (locks[index]) {
+            terminated = !alive.test(watchedPath);
+            if (!terminated) {
+                Map<String, Watch> watchers = watchedBy[index].get(watchedPath);
+                if (watchers == null) {
+                    watchers = new HashMap<>(4);
+                    watchedBy[index].put(watchedPath, watchers);
+                    metrics.watchedAdded();
+                }
+                Watch watch = watchers.get(watcherPath);
+                if (watch == null) {
+                    watch = new Watch(watcher);
+                    watchers.put(watcherPath, watch);
+                    metrics.watchAdded();
+                }
+                if (callback == null) {
+                    watch.notify = true;
+                } else {
+                    if (watch.callbacks == null) {
+                        watch.callbacks = new ArrayList<>(1);
+                    }
+                    watch.callbacks.add(callback);
+                }
+                watching.computeIfAbsent(watcherPath, k -> ConcurrentHashMap.newKeySet()).add(watchedPath);
+            }
+        }
+
+        if (terminated) {
+            // 目标已经终止, 直接通知
+            if (callback == null) {
+                send(watcher, List.of(watchedPath), "Actor already terminated");
+            } else {
+                run(callback, watchedPath);
+            }
             return;
         }
+        logger.debug("Actor {} now watching {}", watcherPath, watchedPath);
+    }
 
-        if (watched.isTerminated()) {
-            notifyWatcher(watcher, new Terminated(watched.path(), "Actor already terminated", false));
+    public void unwatch(ActorRef<?> watcher, ActorRef<?> watched) {
+        if (watcher == null || watched == null) {
             return;
         }
+        String watcherPath = watcher.path();
+        String watchedPath = watched.path();
+        synchronized (locks[stripe(watchedPath)]) {
+            // 与登记在同一把锁内修改反向索引, 并发登记同一对监视时两个索引保持一致
+            removeWatch(watchedPath, watcherPath);
+            watching.computeIfPresent(watcherPath, (key, watchedSet) -> {
+                watchedSet.remove(watchedPath);
+                return watchedSet.isEmpty() ? null : watchedSet;
+            });
+        }
+    }
 
-        watchedBy.computeIfAbsent(watched, k -> ConcurrentHashMap.newKeySet()).add(watcher);
-        watching.computeIfAbsent(watcher, k -> ConcurrentHashMap.newKeySet()).add(watched);
+    private void removeWatch(String watchedPath, String watcherPath) {
+        int index = stripe(watchedPath);
+        synchronized (locks[index]) {
+            Map<String, Watch> watchers = watchedBy[index].get(watchedPath);
+            if (watchers != null && watchers.remove(watcherPath) != null) {
+                metrics.watchesRemoved(1);
+                if (watchers.isEmpty()) {
+                    watchedBy[index].remove(watchedPath);
+                    metrics.watchedRemoved();
+                }
+            }
+        }
+    }
 
-        logger.debug("Actor {} now watching {}", watcher.path(), watched.path());
+    /**
+     * 单个Actor终止
+     */
+    public void terminated(String path, String reason) {
+        terminated(List.of(path), reason);
     }
 
-    public synchronized void unwatch(ActorRef watcher, ActorRef watched) {
-        if (watcher == null || watched == null) {
+    /**
+     * 一组Actor终止, 通常为一棵子树; 调用前这些路径必须已不再存活
+     * 每个监视者只收到一条通知, 终止的Actor之间的监视不通知
+     */
+    public void terminated(Collection<String> paths, String reason) {
+        if (paths.isEmpty()) {
             return;
         }
+        Map<String, Pending> pending = new HashMap<>();
+        Set<String> dead;
+        if (paths.size() == 1) {
+            // 单个Actor终止是最常见的情况, 不分组
+            String path = paths.iterator().next();
+            dead = Set.of(path);
+            collectWatchers(stripe(path), dead, dead, pending);
+        } else {
+            dead = paths instanceof Set<String> set ? set : new HashSet<>(paths);
 
-        Optional.ofNullable(watchedBy.get(watched))
-                .ifPresent(watchers -> {
-                    watchers.remove(watcher);
-                    if (watchers.isEmpty()) {
-                        watchedBy.remove(watched);
-                    }
-                });
+            // 按段分组, 每段只加一次锁
+            List<List<String>> byStripe = new ArrayList<>(Collections.nCopies(STRIPES, null));
+            for (String path : dead) {
+                int index = stripe(path);
+                List<String> group = byStripe.get(index);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    byStripe.set(index, group);
+                }
+                group.add(path);
+            }
+            for (int index = 0; index < STRIPES; index++) {
+                List<String> group = byStripe.get(index);
+                if (group != null) {
+                    collectWatchers(index, group, dead, pending);
+                }
+            }
+        }
 
-        Optional.ofNullable(watching.get(watcher))
-                .ifPresent(watchedActors -> {
-                    watchedActors.remove(watched);
-                    if (watchedActors.isEmpty()) {
-                        watching.remove(watcher);
+        // 终止的Actor发起的监视不再需要
+        for (String path : dead) {
+            Set<String> watchedSet = watching.remove(path);
+            if (watchedSet != null) {
+                for (String watchedPath : watchedSet) {
+                    if (!dead.contains(watchedPath)) {
+                        removeWatch(watchedPath, path);
                     }
-                });
-    }
+                }
+            }
+        }
 
-    public void terminated(ActorRef actor) {
-        if (actor == null) return;
+        pending.forEach((watcherPath, p) -> {
+            watching.computeIfPresent(watcherPath, (key, watchedSet) -> {
+                p.paths.forEach(watchedSet::remove);
+                return watchedSet.isEmpty() ? null : watchedSet;
+            });
+            if (p.notify) {
+                send(p.watcher, p.paths, reason);
+            }
+            if (p.callbacks != null) {
+                p.callbacks.forEach(callback -> run(callback, p.paths));
+            }
+        });
 
-        Set<ActorRef> watchers = watchedBy.remove(actor);
-        if (watchers != null) {
-            Terminated terminated = new Terminated(actor.path(), "Normal termination", true);
-            watchers.forEach(watcher -> notifyWatcher(watcher, terminated));
+        if (!pending.isEmpty()) {
+            logger.debug("{} actors terminated, notified {} watchers", dead.size(), pending.size());
         }
+    }
 
-        Set<ActorRef> watchedActors = watching.remove(actor);
-        if (watchedActors != null) {
-            watchedActors.forEach(watched ->
-                    Optional.ofNullable(watchedBy.get(watched))
-                            .ifPresent(ws -> ws.remove(actor))
-            );
+    // 摘除同一段内终止路径的监视记录, 按监视者汇总待发送的通知
+    private void collectWatchers(int index, Collection<String> group, Set<String> dead, Map<String, Pending> pending) {
+        synchronized (locks[index]) {
+            for (String path : group) {
+                Map<String, Watch> watchers = watchedBy[index].remove(path);
+                if (watchers == null) {
+                    continue;
+                }
+                metrics.watchedRemoved();
+                metrics.watchesRemoved(watchers.size());
+                watchers.forEach((watcherPath, watch) -> {
+                    if (dead.contains(watcherPath)) {
+                        return;
+                    }
+                    Pending p = pending.computeIfAbsent(watcherPath, k -> new Pending(watch.watcher));
+                    p.paths.add(path);
+                    p.notify |= watch.notify;
+                    if (watch.callbacks != null) {
+                        if (p.callbacks == null) {
+                            p.callbacks = new ArrayList<>();
+                        }
+                        p.callbacks.addAll(watch.callbacks);
+                    }
+                });
+            }
         }
+    }
 
-        logger.info("Actor {} terminated, notified {} watchers",
-                actor.path(), watchers != null ? watchers.size() : 0);
+    private void send(ActorRef<?> watcher, List<String> paths, String reason) {
+        try {
+            watcher.tell(new Terminated(paths, reason, false), ActorRef.noSender());
+            metrics.notificationSent(paths.size());
+        } catch (Exception e) {
+            logger.error("Failed to notify watcher {} about termination of {}", watcher.path(), paths, e);
+        }
     }
 
-    private void notifyWatcher(ActorRef watcher, Terminated terminated) {
+    private void run(Runnable callback, Object path) {
         try {
-            watcher.tell(terminated, ActorRef.noSender());
+            callback.run();
         } catch (Exception e) {
-            logger.error("Failed to notify watcher {} about termination of {}",
-                    watcher.path(), terminated.getActorPath(), e);
+            logger.error("Error executing watch callback for {}", path, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @return watcher 当前监视的路径
+     */
+    public Set<String> getWatched(String watcherPath) {
+        Set<String> watchedSet = watching.get(watcherPath);
+        return watchedSet != null ? Collections.unmodifiableSet(watchedSet) : Collections.emptySet();
+    }
+
+    public DeathWatchMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,74 @@
+package com.avolution.actor.supervision;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 死亡监视的度量, 包括监视表规模和终止通知的批量情况
+ */
+public class DeathWatchMetrics {
+    // 监视表的估算开销: 被监视者一项约为段内哈希表的节点及其监视者表(HashMap), 每条监视关系约为监视者表的一个节点、
+    // Watch对象和反向索引中的一项
+    static final long BYTES_PER_WATCHED = 160;
+    static final long BYTES_PER_WATCH = 128;
+
+    private final LongAdder watchedActors = new LongAdder();
+    private final LongAdder watches = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder notifiedPaths = new LongAdder();
+
+    void watchedAdded() {
+        watchedActors.increment();
+    }
+
+    void watchedRemoved() {
+        watchedActors.decrement();
+    }
+
+    void watchAdded() {
+        watches.increment();
+    }
+
+    void watchesRemoved(int count) {
+        watches.add(-count);
+    }
+
+    void notificationSent(int paths) {
+        notifications.increment();
+        notifiedPaths.add(paths);
+    }
+
+    /**
+     * 当前被监视的Actor数
+     */
+    public long getWatchedActors() {
+        return watchedActors.sum();
+    }
+
+    /**
+     * 当前的监视关系数
+     */
+    public long getWatches() {
+        return watches.sum();
+    }
+
+    /**
+     * 已发送的终止通知数, 一次子树终止对每个监视者只发一条
+     */
+    public long getNotifications() {
+        return notifications.sum();
+    }
+
+    /**
+     * 终止通知中包含的路径总数
+     */
+    public long getNotifiedPaths() {
+        return notifiedPaths.sum();
+    }
+
+    /**
+     * 监视表占用内存的估算值(字节)
+     */
+    public long getEstimatedMemoryBytes() {
+        return getWatchedActors() * BYTES_PER_WATCHED + getWatches() * BYTES_PER_WATCH;
+    }
+}
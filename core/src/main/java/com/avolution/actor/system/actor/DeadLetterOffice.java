@@ -0,0 +1,213 @@
+package com.avolution.actor.system.actor;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 死信汇总: 按接收者和消息类型计数, 在固定大小的环形缓冲区中保留最近的样本, 日志只按间隔输出汇总
+ *
+ * 记录一条死信只有两次哈希查找、一次计数和一次样本写入, 不加锁、不格式化时间、不打日志,
+ * 故障期间大量死信不会拖垮系统. 样本只记录毫秒时间戳, 读取时才格式化
+ *
+ * 可通过系统属性配置:
+ * avolution.actor.deadletters.samples           - 保留的样本数, 向上取整为2的幂, 默认256
+ * avolution.actor.deadletters.max-recipients    - 单独计数的接收者上限, 超出后计入 {@link #OTHER_RECIPIENTS}, 默认10000
+ * avolution.actor.deadletters.log-interval-millis - 汇总日志的间隔, 默认10秒
+ */
+public class DeadLetterOffice {
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterOffice.class);
+
+    public static final String OTHER_RECIPIENTS = "<other>";
+    // 汇总日志中列出的条目数
+    private static final int SUMMARY_TOP = 10;
+
+    /**
+     * 某个接收者收到的某类消息的死信数
+     */
+    public record Count(String recipient, Class<?> messageClass, long count) {}
+
+    private static final class Counter {
+        final LongAdder count = new LongAdder();
+        // 上次汇总时的计数, 只在汇总时读写
+        long reported;
+    }
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Class<?>, Counter>> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger recipients = new AtomicInteger();
+    private final int maxRecipients;
+
+    // 写入序号同时是死信总数
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<IDeadLetterActorMessage.DeadLetter> samples;
+    private final int mask;
+
+    private final long logIntervalMillis;
+    private long reportedTotal;
+    private long lastSummaryMillis = System.currentTimeMillis();
+
+    public DeadLetterOffice() {
+        this(Integer.getInteger("avolution.actor.deadletters.samples", 256),
+                Integer.getInteger("avolution.actor.deadletters.max-recipients", 10_000),
+                Long.getLong("avolution.actor.deadletters.log-interval-millis", 10_000));
+    }
+
+    public DeadLetterOffice(int sampleSize, int maxRecipients, long logIntervalMillis) {
+        if (sampleSize <= 0 || maxRecipients <= 0 || logIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Dead letter settings must be positive");
+        }
+        int capacity = Integer.highestOneBit(sampleSize);
+        if (capacity < sampleSize) {
+            capacity <<= 1;
+        }
+        this.samples = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxRecipients = maxRecipients;
+        this.logIntervalMillis = logIntervalMillis;
+    }
+
+    /**
+     * 记录投递失败的信封
+     */
+    public void publish(Envelope<?> envelope, String recipient) {
+        ActorRef<?> sender = envelope.getSender();
+        publish(envelope.getMessage(), sender != null ? sender.path() : "unknown", recipient,
+                envelope.getMessageType(), envelope.getRetryCount());
+    }
+
+    public void publish(Object message, String sender, String recipient, MessageType type, int retryCount) {
+        count(recipient, message).increment();
+        long seq = sequence.getAndIncrement();
+        samples.lazySet((int) (seq & mask), new IDeadLetterActorMessage.DeadLetter(
+                message, sender, recipient, System.currentTimeMillis(), type.toString(), retryCount));
+    }
+
+    /**
+     * 记录已构造好的死信, 供直接发给死信Actor的消息使用
+     */
+    public void publish(IDeadLetterActorMessage.DeadLetter deadLetter) {
+        count(deadLetter.recipient(), deadLetter.message()).increment();
+        long seq = sequence.getAndIncrement();
+        samples.lazySet((int) (seq & mask), deadLetter);
+    }
+
+    private LongAdder count(String recipient, Object message) {
+        String key = recipient != null ? recipient : "unknown";
+        ConcurrentHashMap<Class<?>, Counter> byClass = counters.get(key);
+        if (byClass == null) {
+            byClass = recipients.get() < maxRecipients
+                    ? counters.computeIfAbsent(key, k -> {
+                        recipients.incrementAndGet();
+                        return new ConcurrentHashMap<>();
+                    })
+                    : counters.computeIfAbsent(OTHER_RECIPIENTS, k -> new ConcurrentHashMap<>());
+        }
+        Class<?> messageClass = message != null ? message.getClass() : Void.class;
+        Counter counter = byClass.get(messageClass);
+        if (counter == null) {
+            counter = byClass.computeIfAbsent(messageClass, k -> new Counter());
+        }
+        return counter.count;
+    }
+
+    /**
+     * 死信总数
+     */
+    public long getTotal() {
+        return sequence.get();
+    }
+
+    /**
+     * 指定接收者收到的某类消息的死信数
+     */
+    public long getCount(String recipient, Class<?> messageClass) {
+        ConcurrentHashMap<Class<?>, Counter> byClass = counters.get(recipient);
+        Counter counter = byClass != null ? byClass.get(messageClass) : null;
+        return counter != null ? counter.count.sum() : 0;
+    }
+
+    /**
+     * 全部计数, 按死信数从多到少排列
+     */
+    public List<Count> getCounts() {
+        List<Count> result = new ArrayList<>();
+        counters.forEach((recipient, byClass) -> byClass.forEach((messageClass, counter) ->
+                result.add(new Count(recipient, messageClass, counter.count.sum()))));
+        result.sort(Comparator.comparingLong(Count::count).reversed());
+        return result;
+    }
+
+    /**
+     * 最近的死信样本, 从旧到新; 并发写入时可能缺少正在写入的样本
+     */
+    public List<IDeadLetterActorMessage.DeadLetter> getRecentDeadLetters() {
+        long end = sequence.get();
+        long start = Math.max(0, end - samples.length());
+        List<IDeadLetterActorMessage.DeadLetter> result = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            IDeadLetterActorMessage.DeadLetter sample = samples.get((int) (seq & mask));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    public long getLogIntervalMillis() {
+        return logIntervalMillis;
+    }
+
+    /**
+     * 输出上次汇总以来的死信数和最多的几项, 没有新死信时不输出
+     *
+     * @return 本次汇总的死信数
+     */
+    public synchronized long logSummary() {
+        long now = System.currentTimeMillis();
+        long total = sequence.get();
+        long delta = total - reportedTotal;
+        long elapsedMillis = now - lastSummaryMillis;
+        reportedTotal = total;
+        lastSummaryMillis = now;
+        if (delta == 0) {
+            return 0;
+        }
+
+        List<Count> top = new ArrayList<>();
+        counters.forEach((recipient, byClass) -> byClass.forEach((messageClass, counter) -> {
+            long sum = counter.count.sum();
+            long count = sum - counter.reported;
+            counter.reported = sum;
+            if (count > 0) {
+                top.add(new Count(recipient, messageClass, count));
+            }
+        }));
+        top.sort(Comparator.comparingLong(Count::count).reversed());
+
+        StringBuilder detail = new StringBuilder();
+        for (int i = 0; i < Math.min(SUMMARY_TOP, top.size()); i++) {
+            Count count = top.get(i);
+            if (i > 0) {
+                detail.append(", ");
+            }
+            detail.append(count.recipient()).append(' ')
+                    .append(count.messageClass().getSimpleName()).append(" x").append(count.count());
+        }
+        if (top.size() > SUMMARY_TOP) {
+            detail.append(", ... ").append(top.size() - SUMMARY_TOP).append(" more");
+        }
+        log.warn("{} dead letters in the last {} ms ({} total): {}", delta, elapsedMillis, total, detail);
+        return delta;
+    }
+}
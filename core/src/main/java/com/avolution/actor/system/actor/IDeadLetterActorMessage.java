@@ -2,37 +2,46 @@ package com.avolution.actor.system.actor;
 
 import com.avolution.actor.message.Envelope;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public interface IDeadLetterActorMessage {
 
-    DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
 
     default DeadLetter messageToDeadLetter(Envelope envelope) {
         return new DeadLetter(
                 envelope.getMessage(),
                 envelope.getSender().path(),
                 envelope.getRecipient().path(),
-                LocalDateTime.now().format(FORMATTER),
+                System.currentTimeMillis(),
                 envelope.getMessageType().toString(),
                 envelope.getRetryCount()
         );
     }
 
+    /**
+     * @param timestampMillis 产生死信的毫秒时间戳, 由 {@link #timestamp()} 按需格式化
+     */
     record DeadLetter(
             Object message,
             String sender,
             String recipient,
-            String timestamp,
+            long timestampMillis,
             String messageType,
             int retryCount
     ) implements IDeadLetterActorMessage {
+
+        public String timestamp() {
+            return FORMATTER.format(Instant.ofEpochMilli(timestampMillis));
+        }
+
         @Override
         public String toString() {
             return String.format(
                     "DeadLetter[message=%s, from=%s, to=%s, at=%s, type=%s, retries=%d]",
-                    message, sender, recipient, timestamp, messageType, retryCount
+                    message, sender, recipient, timestamp(), messageType, retryCount
             );
         }
     }
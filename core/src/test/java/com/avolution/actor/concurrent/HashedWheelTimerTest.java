@@ -0,0 +1,148 @@
+package com.avolution.actor.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(5), 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("任务在到期后执行, 不早于延迟时间")
+    void testSchedule() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("超过一圈的延迟按轮数等待")
+    void testMultipleRounds() throws Exception {
+        // 8格 * 5ms = 40ms一圈
+        ScheduledFuture<Integer> future = timer.schedule(() -> 42, 120, TimeUnit.MILLISECONDS);
+        assertFalse(future.isDone());
+        long start = System.nanoTime();
+        assertEquals(42, future.get(1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("取消后不执行, 等待数归零")
+    void testCancel() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = timer.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.pendingTimeouts());
+
+        assertTrue(future.cancel(false));
+        assertFalse(future.cancel(false));
+        assertTrue(future.isCancelled());
+        assertEquals(0, timer.pendingTimeouts());
+        assertThrows(CancellationException.class, future::get);
+
+        Thread.sleep(80);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("大量登记和取消")
+    void testManyTimeouts() throws Exception {
+        int count = 100_000;
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            futures[i] = timer.schedule(() -> {
+                runs.incrementAndGet();
+            }, 100 + (i % 50), TimeUnit.MILLISECONDS);
+        }
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (futures[i].cancel(false)) {
+                cancelled++;
+            }
+        }
+        int expected = count - cancelled;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runs.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, runs.get());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("固定频率任务重复执行直到取消")
+    void testFixedRate() throws Exception {
+        CountDownLatch latch = new CountDownLatch(3);
+        ScheduledFuture<?> future = timer.scheduleAtFixedRate(latch::countDown, 10, 10, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertFalse(future.isDone());
+        assertTrue(future.cancel(false));
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("任务异常通过get抛出")
+    void testFailure() {
+        ScheduledFuture<Object> future = timer.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 10, TimeUnit.MILLISECONDS);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("停止后拒绝新任务")
+    void testStop() {
+        timer.schedule(() -> {}, 1, TimeUnit.SECONDS);
+        assertEquals(1, timer.stop());
+        assertTrue(timer.isStopped());
+        assertThrows(RejectedExecutionException.class, () -> timer.schedule(() -> {}, 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("停止时未到期任务的future被取消, RunOnStop任务立即执行")
+    void testStopCompletesPending() throws Exception {
+        ScheduledFuture<?> plain = timer.schedule(() -> {}, 1, TimeUnit.HOURS);
+        ScheduledFuture<?> periodic = timer.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+        AtomicInteger ran = new AtomicInteger();
+        HashedWheelTimer.RunOnStop onStop = ran::incrementAndGet;
+        ScheduledFuture<?> runOnStop = timer.schedule(onStop, 1, TimeUnit.HOURS);
+        // 等工作线程把任务挂入槽位
+        Thread.sleep(50);
+        ScheduledFuture<?> queued = timer.schedule(() -> {}, 1, TimeUnit.HOURS);
+
+        assertEquals(4, timer.stop());
+
+        assertThrows(CancellationException.class, () -> plain.get(1, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, () -> periodic.get(1, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertNull(runOnStop.get(1, TimeUnit.SECONDS));
+        assertEquals(1, ran.get());
+    }
+}
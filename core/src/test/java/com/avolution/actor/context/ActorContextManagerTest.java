@@ -112,6 +112,72 @@ class ActorContextManagerTest {
         assertEquals(threadCount, contextManager.getContextCount());
     }
 
+    @Test
+    @DisplayName("按ActorPath添加、查找和枚举子节点")
+    void testActorPathKeys() {
+        ActorPath parentPath = ActorPath.USER.child("parent");
+        ActorContext parent = new ActorContext(parentPath, system, new TestActor(), null, Props.create(TestActor.class));
+        ActorContext child = new ActorContext(parentPath.child("child"), system, new TestActor(), parent, Props.create(TestActor.class));
+        contextManager.addContext(parentPath, parent);
+        contextManager.addContext(child.getActorPath(), child);
+
+        assertSame(child, contextManager.getContext("/user/parent/child").orElse(null));
+        assertSame(parent, contextManager.getContext(ActorPath.parse("/user/parent")).orElse(null));
+        assertEquals(Set.of(child), contextManager.getChildContexts(parentPath));
+        assertTrue(contextManager.getChildContexts(ActorPath.USER.child("missing")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("多线程在同一父节点下添加和移除子节点")
+    void testConcurrentAddRemove() throws Exception {
+        ActorPath parentPath = ActorPath.USER.child("parent");
+        contextManager.addContext(parentPath,
+                new ActorContext(parentPath, system, new TestActor(), null, Props.create(TestActor.class)));
+        int threadCount = 8;
+        int perThread = 200;
+        CompletableFuture<Void>[] futures = new CompletableFuture[threadCount];
+
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    ActorPath path = parentPath.child("c" + index + "-" + j);
+                    contextManager.addContext(path,
+                            new ActorContext(path, system, new TestActor(), null, Props.create(TestActor.class)));
+                    if (j % 2 == 0) {
+                        contextManager.removeContext(path);
+                    }
+                }
+            });
+        }
+
+        CompletableFuture.allOf(futures).get();
+        assertEquals(1 + threadCount * perThread / 2, contextManager.getContextCount());
+        assertEquals(threadCount * perThread / 2, contextManager.getChildContexts(parentPath).size());
+    }
+
+    @Test
+    @DisplayName("移除上下文后摘除空的中间节点")
+    void testPrunesEmptyIntermediateNodes() {
+        ActorPath deep = ActorPath.USER.child("a").child("b").child("c");
+        ActorPath sibling = ActorPath.USER.child("a").child("d");
+        contextManager.addContext(deep, new ActorContext(deep, system, new TestActor(), null, Props.create(TestActor.class)));
+        contextManager.addContext(sibling, new ActorContext(sibling, system, new TestActor(), null, Props.create(TestActor.class)));
+        // user, a, b, c, d
+        assertEquals(5, contextManager.getNodeCount());
+
+        contextManager.removeContext(deep);
+        assertEquals(3, contextManager.getNodeCount());
+
+        contextManager.removeContext(sibling);
+        assertEquals(0, contextManager.getNodeCount());
+
+        // 摘除后可以重新添加
+        contextManager.addContext(deep, new ActorContext(deep, system, new TestActor(), null, Props.create(TestActor.class)));
+        assertTrue(contextManager.hasContext(deep));
+        assertEquals(4, contextManager.getNodeCount());
+    }
+
     // 测试用Actor类
     private static class TestActor extends AbstractActor<Object> {
         @Override
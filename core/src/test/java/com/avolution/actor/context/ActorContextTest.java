@@ -72,11 +72,16 @@ class ActorContextTest {
 
     @Test
     @DisplayName("测试Actor重启机制")
-    void testActorRestart() {
+    void testActorRestart() throws InterruptedException {
         ErrorActor actor = new ErrorActor();
         ActorRef<Message> actorRef = system.actorOf(Props.create(() -> actor), "error");
 
+        // 重启在Actor线程中异步完成
         actor.getContext().restart(new RuntimeException("test"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!actor.wasPostRestartCalled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
 
         assertTrue(actor.wasPreRestartCalled());
         assertTrue(actor.wasPostRestartCalled());
@@ -6,7 +6,20 @@ import com.avolution.actor.message.PoisonPill;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.avolution.actor.message.Signal;
+import com.avolution.actor.message.Terminated;
+import com.avolution.actor.supervision.DeathWatchMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -134,6 +147,245 @@ class ActorRefRegistryTest {
         assertTrue(watcher2.hasReceivedTerminated());
     }
 
+    @Test
+    @DisplayName("注销父节点时后代一并注销, 并从反向索引中移除")
+    void testUnregisterSubtree() {
+        registry.register(new PathRef("/user/a"), null);
+        registry.register(new PathRef("/user/a/b"), "/user/a");
+        registry.register(new PathRef("/user/a/b/c"), "/user/a/b");
+        registry.register(new PathRef("/user/a/d"), "/user/a");
+
+        assertEquals("/user/a/b", registry.getParent("/user/a/b/c"));
+
+        registry.unregister("/user/a", "stop");
+
+        assertEquals(0, registry.getRefCount());
+        assertTrue(registry.getChildren("/user/a").isEmpty());
+        assertTrue(registry.getChildren("/user/a/b").isEmpty());
+        assertNull(registry.getParent("/user/a/b/c"));
+    }
+
+    @Test
+    @DisplayName("注销子节点只修改其父节点的子集合")
+    void testUnregisterChild() {
+        registry.register(new PathRef("/user/p1"), null);
+        registry.register(new PathRef("/user/p1/c1"), "/user/p1");
+        registry.register(new PathRef("/user/p1/c2"), "/user/p1");
+
+        registry.unregister("/user/p1/c1", "stop");
+
+        assertEquals(Set.of("/user/p1/c2"), registry.getChildren("/user/p1"));
+        registry.unregister("/user/p1/c2", "stop");
+        assertTrue(registry.getChildren("/user/p1").isEmpty());
+        assertTrue(registry.contains("/user/p1"));
+    }
+
+    @Test
+    @DisplayName("监视已注销的Actor立即收到终止通知, 每个监视者只通知一次")
+    void testWatchTerminated() {
+        PathRef watcher = new PathRef("/user/watcher");
+        PathRef watched = new PathRef("/user/watched");
+        registry.register(watcher, null);
+        registry.register(watched, null);
+
+        registry.watch(watcher, watched);
+        registry.unregister(watched.path(), "stop");
+        registry.watch(watcher, watched);
+
+        assertEquals(2, watcher.signals.size());
+    }
+
+    @Test
+    @DisplayName("子树注销时每个监视者只收到一条包含全部路径的通知, 子树内部的监视不通知")
+    void testBatchedTerminated() {
+        PathRef lobby = new PathRef("/user/lobby");
+        PathRef room = new PathRef("/user/room");
+        registry.register(lobby, null);
+        registry.register(room, null);
+        List<PathRef> players = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            PathRef player = new PathRef("/user/room/p" + i);
+            registry.register(player, "/user/room");
+            registry.watch(lobby, player);
+            registry.watch(room, player);
+            players.add(player);
+        }
+        // 子树内的Actor监视子树外的Actor, 注销后关系被清理
+        registry.watch(players.get(0), lobby);
+
+        DeathWatchMetrics metrics = registry.getDeathWatch().getMetrics();
+        assertEquals(201, metrics.getWatches());
+        assertEquals(101, metrics.getWatchedActors());
+        assertTrue(metrics.getEstimatedMemoryBytes() > 0);
+
+        registry.unregister("/user/room", "room closed");
+
+        assertEquals(1, lobby.signals.size());
+        Terminated terminated = (Terminated) lobby.signals.get(0);
+        assertEquals(100, terminated.getActorPaths().size());
+        assertTrue(room.signals.isEmpty());
+        assertEquals(0, metrics.getWatches());
+        assertEquals(0, metrics.getWatchedActors());
+        assertEquals(1, metrics.getNotifications());
+        assertTrue(registry.getDeathWatch().getWatched("/user/lobby").isEmpty());
+    }
+
+    @Test
+    @DisplayName("多线程在同一父节点下注册和注销, 索引保持一致")
+    void testConcurrentChurn() throws Exception {
+        registry.register(new PathRef("/user/parent"), null);
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        String path = "/user/parent/c-" + id + "-" + i;
+                        registry.register(new PathRef(path), "/user/parent");
+                        registry.unregister(path, "stop");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, registry.getRefCount());
+        assertTrue(registry.getChildren("/user/parent").isEmpty());
+    }
+
+    @Test
+    @DisplayName("父节点注销期间并发注册的子节点要么随子树注销, 要么回滚, 不留下孤立注册")
+    void testRegisterWhileParentUnregisters() throws Exception {
+        for (int round = 0; round < 500; round++) {
+            String parent = "/user/room-" + round;
+            String child = parent + "/late";
+            registry.register(new PathRef(parent), null);
+            // 较大的子树让注销持续一段时间, 注册落在注销过程中
+            for (int i = 0; i < 200; i++) {
+                registry.register(new PathRef(parent + "/p" + i), parent);
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean overlapped = new AtomicBoolean();
+            Thread registering = Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                overlapped.set(registry.contains(parent));
+                try {
+                    registry.register(new PathRef(child), parent);
+                } catch (IllegalStateException e) {
+                    // 父节点已在注销, 注册回滚
+                }
+            });
+            Thread unregistering = Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                registry.unregister(parent, "room closed");
+            });
+            start.countDown();
+            registering.join();
+            unregistering.join();
+
+            if (overlapped.get()) {
+                assertFalse(registry.contains(child), "orphaned child in round " + round);
+                assertNull(registry.getParent(child));
+                assertTrue(registry.getChildren(parent).isEmpty());
+            } else {
+                // 父节点注销完成后才开始注册, 与上下文树相同, 不属于并发注销
+                registry.unregister(parent, "cleanup");
+            }
+        }
+        assertEquals(0, registry.getRefCount());
+    }
+
+    @Test
+    @DisplayName("并发监视和取消同一对监视时, 正向表和反向索引保持一致")
+    void testConcurrentWatchUnwatch() throws Exception {
+        PathRef watcher = new PathRef("/user/watcher");
+        PathRef watched = new PathRef("/user/watched");
+        registry.register(watcher, null);
+        registry.register(watched, null);
+        DeathWatchMetrics metrics = registry.getDeathWatch().getMetrics();
+
+        for (int round = 0; round < 2_000; round++) {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread watching = Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                registry.watch(watcher, watched);
+            });
+            Thread unwatching = Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                registry.unwatch(watcher, watched);
+            });
+            start.countDown();
+            watching.join();
+            unwatching.join();
+
+            boolean reverse = registry.getDeathWatch().getWatched(watcher.path()).contains(watched.path());
+            assertEquals(metrics.getWatches() == 1, reverse, "indexes diverged in round " + round);
+            registry.unwatch(watcher, watched);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 只记录收到信号的引用, 不创建Actor
+     */
+    private static class PathRef implements ActorRef<Object> {
+        private final String path;
+        final List<Object> signals = new CopyOnWriteArrayList<>();
+
+        PathRef(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void tell(Object message, ActorRef sender) {
+            signals.add(message);
+        }
+
+        @Override
+        public void tell(Signal signal, ActorRef sender) {
+            signals.add(signal);
+        }
+
+        @Override
+        public <R> CompletableFuture<R> ask(Object message, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public String name() {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+    }
+
     private static class TestMessage {
         private final String content;
         TestMessage(String content) { this.content = content; }
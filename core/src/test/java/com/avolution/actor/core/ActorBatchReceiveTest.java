@@ -0,0 +1,132 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.metrics.MetricsSnapshot;
+import com.avolution.actor.supervision.Directive;
+import com.avolution.actor.supervision.OneForOneStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorBatchReceiveTest {
+    private ActorSystem system;
+
+    static final List<Integer> RECEIVED = new CopyOnWriteArrayList<>();
+    static volatile CountDownLatch blocked;
+    static volatile CountDownLatch release;
+    static volatile BatchActor instance;
+
+    // 0 阻塞直到放行, 负数抛出 Error, 其余记录
+    public static class BatchActor extends AbstractActor<Integer> {
+        public BatchActor() {
+            instance = this;
+        }
+
+        @Override
+        public int batchSize() {
+            return 16;
+        }
+
+        @Override
+        public void onReceive(Integer message) {
+            if (message == 0) {
+                try {
+                    blocked.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (message < 0) {
+                throw new Error("boom " + message);
+            }
+            RECEIVED.add(message);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+        RECEIVED.clear();
+        blocked = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        instance = null;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    private ActorRef<Integer> sendBatch(Directive directive) throws Exception {
+        ActorRef<Integer> ref = system.actorOf(Props.create(BatchActor.class)
+                .withSupervisorStrategy(new OneForOneStrategy(3, Duration.ofMinutes(1), cause -> directive)), "batch");
+
+        ref.tell(0, ActorRef.noSender());
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        // 阻塞期间排队的消息作为一批处理
+        for (int value : new int[]{1, 2, -1, 3, 4}) {
+            ref.tell(value, ActorRef.noSender());
+        }
+        release.countDown();
+        return ref;
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("批内单条失败只监督失败的消息, 恢复后继续处理剩余消息, 度量按条记录")
+    void failureIsAttributedToFailingMessage() throws Exception {
+        ActorRef<Integer> ref = sendBatch(Directive.RESUME);
+
+        await(() -> RECEIVED.size() >= 5, "batch was not processed");
+        assertEquals(List.of(0, 1, 2, 3, 4), RECEIVED);
+
+        await(() -> instance.getMetricsCollector().getSnapshot().totalMessages() >= 6, "metrics were not recorded");
+        MetricsSnapshot snapshot = instance.getMetricsCollector().getSnapshot();
+        assertEquals(6, snapshot.totalMessages());
+        assertEquals(1, snapshot.failedMessages());
+        assertEquals(0, system.deadLetterOffice().getCount(ref.path(), Integer.class));
+    }
+
+    @Test
+    @DisplayName("失败导致停止时, 批内剩余消息不再处理, 转入死信")
+    void stopDeadLettersRemainingMessages() throws Exception {
+        ActorRef<Integer> ref = sendBatch(Directive.STOP);
+
+        await(ref::isTerminated, "actor was not stopped");
+        await(() -> system.deadLetterOffice().getCount(ref.path(), Integer.class) >= 2, "remaining messages were not dead-lettered");
+        assertEquals(List.of(0, 1, 2), RECEIVED);
+        assertEquals(2, system.deadLetterOffice().getCount(ref.path(), Integer.class));
+    }
+
+    @Test
+    @DisplayName("失败导致重启时, 旧实例不再处理批内剩余消息, 转入死信")
+    void restartDeadLettersRemainingMessages() throws Exception {
+        ActorRef<Integer> ref = sendBatch(Directive.RESTART);
+        BatchActor first = instance;
+
+        await(() -> instance != first, "actor was not restarted");
+        await(() -> system.deadLetterOffice().getCount(ref.path(), Integer.class) >= 2, "remaining messages were not dead-lettered");
+        assertEquals(List.of(0, 1, 2), RECEIVED);
+        assertEquals(2, system.deadLetterOffice().getCount(ref.path(), Integer.class));
+
+        ref.tell(5, ActorRef.noSender());
+        await(() -> RECEIVED.size() >= 4, "restarted actor did not receive");
+        assertEquals(List.of(0, 1, 2, 5), RECEIVED);
+    }
+}
@@ -0,0 +1,84 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorContext;
+import com.avolution.actor.exception.ActorCreationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorBatchSpawnTest {
+    private ActorSystem system;
+
+    public static class EntityActor extends AbstractActor<String> {
+        static volatile CountDownLatch latch = new CountDownLatch(0);
+
+        @OnReceive(String.class)
+        public void onText(String text) {
+            latch.countDown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("批量创建的Actor按名称顺序返回并可接收消息")
+    void testBatchSpawn() throws InterruptedException {
+        Props<String> props = Props.create(EntityActor.class);
+        List<ActorRef<String>> refs = system.actorOfAll(props, 2_000, i -> "entity-" + i, null);
+
+        assertEquals(2_000, refs.size());
+        assertEquals("/user/entity-0", refs.get(0).path());
+        assertEquals("/user/entity-1999", refs.get(1999).path());
+        assertTrue(system.getContextManager().hasContext("/user/entity-1000"));
+        assertTrue(system.getRefRegistry().getRef("/user/entity-1000").isPresent());
+
+        EntityActor.latch = new CountDownLatch(refs.size());
+        for (ActorRef<String> ref : refs) {
+            ref.tell("load", ActorRef.noSender());
+        }
+        assertTrue(EntityActor.latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("在父Actor下批量创建子Actor")
+    void testBatchSpawnUnderParent() {
+        Props<String> props = Props.create(EntityActor.class);
+        ActorRef<String> world = system.actorOf(props, "world");
+        ActorContext worldContext = system.getContextManager().getContext(world.path()).orElseThrow();
+
+        system.actorOfAll(props, List.of("a", "b", "c"), worldContext);
+
+        assertEquals(3, system.getContextManager().getChildContexts(world.path()).size());
+        assertEquals(3, worldContext.getChildren().size());
+    }
+
+    @Test
+    @DisplayName("名称非法、重复或已存在时整批不创建")
+    void testBatchValidation() {
+        Props<String> props = Props.create(EntityActor.class);
+        system.actorOf(props, "existing");
+        int before = system.getContextManager().getContextCount();
+
+        assertThrows(IllegalArgumentException.class, () -> system.actorOfAll(props, List.of("ok1", "bad/name"), null));
+        assertThrows(IllegalArgumentException.class, () -> system.actorOfAll(props, List.of("ok1", "ok1"), null));
+        assertThrows(IllegalArgumentException.class, () -> system.actorOfAll(props, List.of("ok1", "User"), null));
+        assertThrows(ActorCreationException.class, () -> system.actorOfAll(props, List.of("ok1", "existing"), null));
+        assertEquals(before, system.getContextManager().getContextCount());
+    }
+}
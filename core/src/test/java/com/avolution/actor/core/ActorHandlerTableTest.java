@@ -0,0 +1,212 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorHandlerTableTest {
+
+    static class SampleActor {
+        final List<Object> received = new ArrayList<>();
+
+        @OnReceive(String.class)
+        private void onText(String text) {
+            received.add(text);
+        }
+
+        @OnReceive(Integer.class)
+        public int onNumber(Integer number) {
+            received.add(number);
+            return number;
+        }
+
+        @OnReceive(Long.class)
+        void onFailure(Long value) throws IOException {
+            throw new IOException("failed " + value);
+        }
+
+        void notAHandler(String text) {
+            received.add("unexpected");
+        }
+    }
+
+    sealed interface Shape permits Circle, Square {
+    }
+
+    record Circle(int radius) implements Shape {
+    }
+
+    record Square(int side) implements Shape {
+    }
+
+    static class Base {
+    }
+
+    static class Derived extends Base implements Comparable<Derived> {
+        @Override
+        public int compareTo(Derived other) {
+            return 0;
+        }
+    }
+
+    static class ShapeActor {
+        final List<String> received = new ArrayList<>();
+
+        @OnReceive(Shape.class)
+        void onShape(Shape shape) {
+            received.add("shape");
+        }
+
+        @OnReceive(Square.class)
+        void onSquare(Square square) {
+            received.add("square");
+        }
+
+        @OnReceive(Base.class)
+        void onBase(Base base) {
+            received.add("base");
+        }
+
+        @OnReceive(Comparable.class)
+        void onComparable(Comparable<?> comparable) {
+            received.add("comparable");
+        }
+    }
+
+    static class ChildShapeActor extends ShapeActor {
+        @OnReceive(Square.class)
+        void onChildSquare(Square square) {
+            received.add("child-square");
+        }
+    }
+
+    @Test
+    @DisplayName("为密封接口注册的处理器匹配其子类型, 最具体的处理器优先")
+    void testHierarchyResolution() {
+        ActorHandlerTable table = ActorHandlerTable.forClass(ShapeActor.class);
+        ShapeActor actor = new ShapeActor();
+
+        table.get(Circle.class).invoke(actor, new Circle(1));
+        table.get(Square.class).invoke(actor, new Square(2));
+
+        assertEquals(List.of("shape", "square"), actor.received);
+    }
+
+    @Test
+    @DisplayName("父类与接口距离相同时父类优先, 解析结果按消息类缓存")
+    void testSuperclassBeforeInterface() {
+        ActorHandlerTable table = ActorHandlerTable.forClass(ShapeActor.class);
+        ShapeActor actor = new ShapeActor();
+
+        ActorHandlerTable.Invoker invoker = table.get(Derived.class);
+        invoker.invoke(actor, new Derived());
+
+        assertEquals(List.of("base"), actor.received);
+        assertSame(invoker, table.get(Derived.class));
+        assertNull(table.get(Object.class));
+    }
+
+    @Test
+    @DisplayName("子类继承父类的处理器, 同一消息类型以子类声明为准")
+    void testInheritedHandlers() {
+        ActorHandlerTable table = ActorHandlerTable.forClass(ChildShapeActor.class);
+        ChildShapeActor actor = new ChildShapeActor();
+
+        table.get(Circle.class).invoke(actor, new Circle(1));
+        table.get(Square.class).invoke(actor, new Square(2));
+
+        assertEquals(List.of("shape", "child-square"), actor.received);
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    @DisplayName("存在生成的分发器时不做反射扫描")
+    void testGeneratedDispatcher() throws Throwable {
+        ActorHandlerTable table = ActorHandlerTable.forClass(GeneratedActor.class);
+        GeneratedActor actor = new GeneratedActor();
+
+        assertTrue(table.isGenerated());
+        assertEquals(0, table.size());
+        assertTrue(table.dispatch(actor, "hello"));
+        assertFalse(table.dispatch(actor, 42));
+        assertEquals(List.of("generated:hello"), actor.received);
+    }
+
+    @Test
+    @DisplayName("没有生成的分发器时使用反射构建的处理器表")
+    void testReflectionFallback() throws Throwable {
+        ActorHandlerTable table = ActorHandlerTable.forClass(SampleActor.class);
+        SampleActor actor = new SampleActor();
+
+        assertFalse(table.isGenerated());
+        assertTrue(table.dispatch(actor, "hello"));
+        assertFalse(table.dispatch(actor, 1.0));
+        assertEquals(List.of("hello"), actor.received);
+    }
+
+    @Test
+    @DisplayName("同一Actor类只解析一次处理器表")
+    void testCachedPerClass() {
+        ActorHandlerTable first = ActorHandlerTable.forClass(SampleActor.class);
+        ActorHandlerTable second = ActorHandlerTable.forClass(SampleActor.class);
+
+        assertSame(first, second);
+        assertEquals(3, first.size());
+    }
+
+    @Test
+    @DisplayName("私有和有返回值的处理器都能被调用")
+    void testInvoke() {
+        ActorHandlerTable table = ActorHandlerTable.forClass(SampleActor.class);
+        SampleActor actor = new SampleActor();
+
+        table.get(String.class).invoke(actor, "hello");
+        table.get(Integer.class).invoke(actor, 42);
+
+        assertEquals(List.of("hello", 42), actor.received);
+        assertNull(table.get(Double.class));
+    }
+
+    @Test
+    @DisplayName("处理器抛出的受检异常原样传出")
+    void testCheckedException() {
+        ActorHandlerTable.Invoker invoker = ActorHandlerTable.forClass(SampleActor.class).get(Long.class);
+
+        Throwable thrown = assertThrows(Throwable.class, () -> invoker.invoke(new SampleActor(), 7L));
+        Throwable cause = thrown instanceof ActorHandlerTable.HandlerException ? thrown.getCause() : thrown;
+        assertInstanceOf(IOException.class, cause);
+        assertEquals("failed 7", cause.getMessage());
+    }
+}
+
+/**
+ * 模拟注解处理器的输出, 类名为Actor类的二进制名加后缀
+ */
+class GeneratedActor {
+    final List<String> received = new ArrayList<>();
+
+    @OnReceive(String.class)
+    void onText(String text) {
+        received.add("reflective:" + text);
+    }
+}
+
+final class GeneratedActor$$OnReceiveDispatcher implements GeneratedDispatcher {
+    @Override
+    public boolean dispatch(Object actor, Object message) {
+        GeneratedActor self = (GeneratedActor) actor;
+        switch (message) {
+            case String m -> self.received.add("generated:" + m);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.avolution.actor.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorPathPatternTest {
+
+    @Test
+    @DisplayName("普通名称与单段通配")
+    void testLiteralAndAny() {
+        ActorPathPattern pattern = ActorPathPattern.parse("/user/rooms/*/players/*");
+
+        assertEquals(5, pattern.size());
+        assertTrue(pattern.isLiteral(0));
+        assertFalse(pattern.isLiteral(2));
+        assertTrue(pattern.matches(ActorPath.parse("/user/rooms/r1/players/p1")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/rooms/r1/players")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/rooms/r1/players/p1/x")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/halls/r1/players/p1")));
+    }
+
+    @Test
+    @DisplayName("段内通配")
+    void testGlob() {
+        ActorPathPattern pattern = ActorPathPattern.parse("/user/room-?/p*er*");
+
+        assertTrue(pattern.matches(ActorPath.parse("/user/room-1/player")));
+        assertTrue(pattern.matches(ActorPath.parse("/user/room-1/per")));
+        assertTrue(pattern.matches(ActorPath.parse("/user/room-1/pxerxx")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/room-12/player")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/room-1/layer")));
+    }
+
+    @Test
+    @DisplayName("** 匹配所有后代且只能作为最后一段")
+    void testDescendants() {
+        ActorPathPattern pattern = ActorPathPattern.parse("/user/rooms/**");
+
+        assertTrue(pattern.isDescendants(2));
+        assertTrue(pattern.matches(ActorPath.parse("/user/rooms/r1")));
+        assertTrue(pattern.matches(ActorPath.parse("/user/rooms/r1/players/p1")));
+        assertFalse(pattern.matches(ActorPath.parse("/user/rooms")));
+        assertThrows(IllegalArgumentException.class, () -> ActorPathPattern.parse("/user/**/players"));
+        assertThrows(IllegalArgumentException.class, () -> ActorPathPattern.parse(""));
+    }
+}
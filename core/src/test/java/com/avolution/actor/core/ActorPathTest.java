@@ -0,0 +1,65 @@
+package com.avolution.actor.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorPathTest {
+
+    @Test
+    @DisplayName("解析与字符串形式一致")
+    void testParse() {
+        ActorPath path = ActorPath.parse("/user/parent/child");
+
+        assertEquals("/user/parent/child", path.toString());
+        assertEquals("child", path.name());
+        assertEquals(3, path.depth());
+        assertEquals(List.of("user", "parent", "child"), path.elements());
+        assertEquals("/user/parent", path.parent().toString());
+        assertEquals(ActorPath.ROOT, ActorPath.parse("/"));
+        assertEquals(path, ActorPath.parse("user//parent/child/"));
+    }
+
+    @Test
+    @DisplayName("子路径与解析得到的路径相等且哈希相同")
+    void testEquality() {
+        ActorPath built = ActorPath.USER.child("parent").child("child");
+        ActorPath parsed = ActorPath.parse("/user/parent/child");
+
+        assertEquals(built, parsed);
+        assertEquals(built.hashCode(), parsed.hashCode());
+        assertNotEquals(built, ActorPath.USER.child("parent").child("other"));
+        assertNotEquals(built, ActorPath.SYSTEM.child("parent").child("child"));
+    }
+
+    @Test
+    @DisplayName("解析得到的路径复用 /user 和 /system 前缀")
+    void testSharedRoots() {
+        assertSame(ActorPath.USER, ActorPath.parse("/user/a").parent());
+        assertSame(ActorPath.SYSTEM, ActorPath.parse("/system/a/b").parent().parent());
+        assertSame(ActorPath.USER, ActorPath.ROOT.child("user"));
+    }
+
+    @Test
+    @DisplayName("后代判断")
+    void testDescendant() {
+        ActorPath parent = ActorPath.USER.child("parent");
+        ActorPath child = parent.child("child");
+
+        assertTrue(child.isDescendantOf(parent));
+        assertTrue(child.isDescendantOf(ActorPath.ROOT));
+        assertFalse(parent.isDescendantOf(child));
+        assertFalse(child.isDescendantOf(child));
+        assertFalse(child.isDescendantOf(ActorPath.SYSTEM));
+    }
+
+    @Test
+    @DisplayName("名称段不能为空或包含斜杠")
+    void testInvalidElement() {
+        assertThrows(IllegalArgumentException.class, () -> ActorPath.USER.child(""));
+        assertThrows(IllegalArgumentException.class, () -> ActorPath.USER.child("a/b"));
+    }
+}
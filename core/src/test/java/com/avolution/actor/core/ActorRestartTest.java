@@ -0,0 +1,115 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.lifecycle.LifecycleState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorRestartTest {
+    private ActorSystem system;
+
+    public record Increment() {}
+
+    public record Fail() {}
+
+    public record Get() {}
+
+    static final AtomicInteger INSTANCES = new AtomicInteger();
+    static final AtomicInteger POST_RESTARTS = new AtomicInteger();
+
+    public static class CounterActor extends AbstractActor<Object> {
+        private int count;
+
+        public CounterActor() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @OnReceive(Increment.class)
+        public void onIncrement(Increment increment) {
+            count++;
+        }
+
+        @OnReceive(Fail.class)
+        public void onFail(Fail fail) {
+            throw new IllegalStateException("boom");
+        }
+
+        @OnReceive(Get.class)
+        public void onGet(Get get) {
+            getSender().tell(count, getSelf());
+        }
+
+        @Override
+        public void onPostRestart(Throwable reason) {
+            super.onPostRestart(reason);
+            POST_RESTARTS.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+        INSTANCES.set(0);
+        POST_RESTARTS.set(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("重启通过Props创建新实例, 引用和上下文保持不变")
+    void restartCreatesFreshInstance() throws Exception {
+        ActorRef<Object> ref = system.actorOf(Props.create(CounterActor.class), "counter");
+        ref.tell(new Increment(), ActorRef.noSender());
+        ref.tell(new Increment(), ActorRef.noSender());
+        assertEquals(2, ref.<Integer>ask(new Get(), Duration.ofSeconds(2)).get(3, TimeUnit.SECONDS));
+
+        ref.tell(new Fail(), ActorRef.noSender());
+
+        assertEquals(0, ref.<Integer>ask(new Get(), Duration.ofSeconds(2)).get(3, TimeUnit.SECONDS));
+        assertEquals(2, INSTANCES.get());
+        assertEquals(1, POST_RESTARTS.get());
+        assertFalse(ref.isTerminated());
+        assertSame(ref, system.getRefRegistry().getRef(ref.path()).orElseThrow());
+        assertEquals(LifecycleState.RUNNING,
+                system.getContextManager().getContext(ref.path()).orElseThrow().getState().get());
+    }
+
+    @Test
+    @DisplayName("重启期间排队的消息保留并由新实例处理")
+    void restartKeepsQueuedMessages() throws Exception {
+        ActorRef<Object> ref = system.actorOf(Props.create(CounterActor.class), "counter");
+
+        ref.tell(new Fail(), ActorRef.noSender());
+        for (int i = 0; i < 1000; i++) {
+            ref.tell(new Increment(), ActorRef.noSender());
+        }
+
+        assertEquals(1000, ref.<Integer>ask(new Get(), Duration.ofSeconds(2)).get(3, TimeUnit.SECONDS));
+        assertEquals(2, INSTANCES.get());
+    }
+
+    @Test
+    @DisplayName("重启不阻塞调度线程")
+    void restartDoesNotBlock() throws Exception {
+        ActorRef<Object> ref = system.actorOf(Props.create(CounterActor.class), "counter");
+
+        long start = System.nanoTime();
+        ref.tell(new Fail(), ActorRef.noSender());
+        ref.tell(new Increment(), ActorRef.noSender());
+        assertEquals(1, ref.<Integer>ask(new Get(), Duration.ofSeconds(2)).get(3, TimeUnit.SECONDS));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1),
+                "restart should complete well within the old stop timeout");
+    }
+}
@@ -0,0 +1,105 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorContext;
+import com.avolution.actor.core.context.ActorContextManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorSelectionTest {
+    private ActorSystem system;
+
+    public static class CountingActor extends AbstractActor<Object> {
+        static volatile CountDownLatch latch = new CountDownLatch(0);
+
+        @OnReceive(String.class)
+        public void onText(String text) {
+            latch.countDown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    private ActorContext context(ActorRef<?> ref) {
+        return system.getContextManager().getContext(ref.path()).orElseThrow();
+    }
+
+    private ActorRef<Object> spawn(String name, ActorRef<?> parent) {
+        Props<Object> props = Props.create(CountingActor.class);
+        return system.actorOf(props, name, parent == null ? null : context(parent));
+    }
+
+    @Test
+    @DisplayName("广播到所有匹配的Actor")
+    void testBroadcast() throws InterruptedException {
+        ActorRef<Object> rooms = spawn("sel-rooms", null);
+        for (int r = 0; r < 3; r++) {
+            ActorRef<Object> room = spawn("room" + r, rooms);
+            ActorRef<Object> players = spawn("players", room);
+            for (int p = 0; p < 4; p++) {
+                spawn("p" + p, players);
+            }
+        }
+
+        ActorSelection selection = system.actorSelection("/user/sel-rooms/*/players/*");
+        assertEquals(12, selection.size());
+        assertEquals(3, system.actorSelection("/user/sel-rooms/room?").size());
+        assertEquals(3 + 3 + 12, system.actorSelection("/user/sel-rooms/**").size());
+
+        CountingActor.latch = new CountDownLatch(12);
+        selection.tell("hello", ActorRef.noSender());
+        assertTrue(CountingActor.latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("层级变化后缓存失效")
+    void testCacheInvalidation() {
+        ActorRef<Object> room = spawn("sel-room", null);
+        spawn("a", room);
+
+        ActorSelection selection = system.actorSelection("/user/sel-room/*");
+        assertEquals(1, selection.size());
+        assertSame(selection.resolve().get(0), selection.resolve().get(0));
+
+        ActorRef<Object> b = spawn("b", room);
+        assertEquals(2, selection.size());
+
+        system.getContextManager().removeContext(b.path());
+        assertEquals(1, selection.size());
+    }
+
+    @Test
+    @DisplayName("只有字面前缀所在子树的变化使缓存失效")
+    void testUnrelatedChangesKeepCache() {
+        ActorContextManager contextManager = system.getContextManager();
+        ActorPathPattern pattern = ActorPathPattern.parse("/user/sel-lobby/*");
+        ActorContextManager.Version missing = contextManager.version(pattern);
+
+        ActorRef<Object> lobby = spawn("sel-lobby", null);
+        assertFalse(contextManager.isCurrent(pattern, missing), "creating the prefix must invalidate");
+        ActorContextManager.Version version = contextManager.version(pattern);
+
+        ActorRef<Object> other = spawn("sel-other", null);
+        spawn("x", other);
+        system.getContextManager().removeContext(other.path());
+        assertTrue(contextManager.isCurrent(pattern, version));
+
+        spawn("a", lobby);
+        assertFalse(contextManager.isCurrent(pattern, version));
+    }
+}
@@ -0,0 +1,107 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinatedShutdownTest {
+    private ActorSystem system;
+
+    static final Queue<String> EVENTS = new ConcurrentLinkedQueue<>();
+
+    public static class SlowStopActor extends AbstractActor<String> {
+        @OnReceive(String.class)
+        public void onText(String text) {
+        }
+
+        @Override
+        protected void onPostStop() {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            EVENTS.add("stopped:" + path());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+        EVENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("阶段按顺序执行, 报告包含每个阶段的耗时")
+    void runsPhasesInOrder() throws Exception {
+        system.actorOf(Props.create(SlowStopActor.class), "worker");
+        system.coordinatedShutdown().addTask(CoordinatedShutdown.PHASE_SERVICE_UNBIND, "unbind",
+                () -> CompletableFuture.runAsync(() -> EVENTS.add("unbind")));
+
+        system.terminate().get(10, TimeUnit.SECONDS);
+        CoordinatedShutdown.Report report = system.coordinatedShutdown().run().get();
+
+        assertEquals(List.of("unbind", "stopped:/user/worker"), List.copyOf(EVENTS));
+        assertEquals(CoordinatedShutdown.PHASES,
+                report.phases().stream().map(CoordinatedShutdown.PhaseResult::phase).toList());
+        CoordinatedShutdown.PhaseResult userPhase = report.phase(CoordinatedShutdown.PHASE_USER_ACTORS).orElseThrow();
+        assertFalse(userPhase.timedOut());
+        assertTrue(userPhase.elapsed().toMillis() >= 100);
+    }
+
+    @Test
+    @DisplayName("子树并行停止, 父Actor在全部子Actor之后停止")
+    void stopsSubtreesInParallel() throws Exception {
+        Props<String> props = Props.create(SlowStopActor.class);
+        ActorRef<String> room = system.actorOf(props, "room");
+        ActorContext roomContext = system.getContextManager().getContext(room.path()).orElseThrow();
+        List<ActorRef<String>> players = system.actorOfAll(props, 20, i -> "player-" + i, roomContext);
+
+        long start = System.nanoTime();
+        system.terminate().get(10, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 逐个停止至少需要 21 * 100ms
+        assertTrue(elapsedMillis < 1_000, "shutdown took " + elapsedMillis + " ms");
+        assertTrue(players.stream().allMatch(ActorRef::isTerminated));
+        assertTrue(room.isTerminated());
+        assertEquals(21, EVENTS.size());
+        assertEquals("stopped:/user/room", List.copyOf(EVENTS).get(20));
+        assertEquals(0, system.getContextManager().getChildContexts(ActorPath.USER).size());
+    }
+
+    @Test
+    @DisplayName("阶段超出时间预算后继续执行后续阶段")
+    void continuesAfterPhaseTimeout() throws Exception {
+        CoordinatedShutdown shutdown = system.coordinatedShutdown();
+        shutdown.setPhaseTimeout(CoordinatedShutdown.PHASE_SERVICE_UNBIND, Duration.ofMillis(100));
+        shutdown.addTask(CoordinatedShutdown.PHASE_SERVICE_UNBIND, "hanging", CompletableFuture::new);
+        system.actorOf(Props.create(SlowStopActor.class), "worker");
+
+        system.terminate().get(10, TimeUnit.SECONDS);
+        CoordinatedShutdown.Report report = shutdown.run().get();
+
+        assertTrue(report.phase(CoordinatedShutdown.PHASE_SERVICE_UNBIND).orElseThrow().timedOut());
+        assertFalse(report.phase(CoordinatedShutdown.PHASE_USER_ACTORS).orElseThrow().timedOut());
+        assertEquals(List.of("stopped:/user/worker"), List.copyOf(EVENTS));
+        assertThrows(IllegalStateException.class,
+                () -> shutdown.addTask(CoordinatedShutdown.PHASE_USER_ACTORS, "late", CompletableFuture::new));
+    }
+}
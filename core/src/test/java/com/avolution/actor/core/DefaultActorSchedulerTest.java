@@ -0,0 +1,114 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.concurrent.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultActorSchedulerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(5), 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("没有定时器的调度器创建和关闭不登记任何任务")
+    void testNoTimers() {
+        DefaultActorScheduler scheduler = new DefaultActorScheduler(timer);
+        scheduler.cancelTimer("none");
+        scheduler.shutdown();
+
+        assertEquals(0, scheduler.activeTimers());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("一次性定时器执行后从键表移除")
+    void testScheduleOnce() throws Exception {
+        DefaultActorScheduler scheduler = new DefaultActorScheduler(timer);
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.scheduleOnce("tick", Duration.ofMillis(20), "msg", msg -> latch.countDown());
+
+        assertEquals(1, scheduler.activeTimers());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (scheduler.activeTimers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, scheduler.activeTimers());
+    }
+
+    @Test
+    @DisplayName("同一键重复登记会取消旧的定时器")
+    void testReplaceKey() throws Exception {
+        DefaultActorScheduler scheduler = new DefaultActorScheduler(timer);
+        AtomicInteger first = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.scheduleOnce("key", Duration.ofMillis(50), 1, msg -> first.incrementAndGet());
+        scheduler.scheduleOnce("key", Duration.ofMillis(50), 2, msg -> latch.countDown());
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(0, first.get());
+    }
+
+    @Test
+    @DisplayName("按键取消周期定时器")
+    void testCancelRepeated() throws Exception {
+        DefaultActorScheduler scheduler = new DefaultActorScheduler(timer);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(3);
+        scheduler.scheduleRepeatedly("repeat", Duration.ofMillis(10), Duration.ofMillis(10), "msg", msg -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        scheduler.cancelTimer("repeat");
+        assertEquals(0, scheduler.activeTimers());
+        Thread.sleep(50);
+        int stopped = runs.get();
+        Thread.sleep(50);
+        assertEquals(stopped, runs.get());
+    }
+
+    @Test
+    @DisplayName("关闭后周期任务停止, 新任务被拒绝")
+    void testShutdown() throws Exception {
+        DefaultActorScheduler scheduler = new DefaultActorScheduler(timer);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(2);
+        scheduler.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 10, 10, TimeUnit.MILLISECONDS);
+        scheduler.scheduleRepeatedly("repeat", Duration.ofMillis(10), Duration.ofMillis(10), "msg", msg -> runs.incrementAndGet());
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        Thread.sleep(50);
+        int stopped = runs.get();
+        Thread.sleep(50);
+        assertEquals(stopped, runs.get());
+        assertEquals(0, scheduler.activeTimers());
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.schedule(() -> {}, 10, TimeUnit.MILLISECONDS));
+    }
+}
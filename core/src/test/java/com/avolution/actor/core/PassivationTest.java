@@ -0,0 +1,191 @@
+package com.avolution.actor.core;
+
+import com.avolution.actor.core.annotation.OnReceive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassivationTest {
+    private ActorSystem system;
+
+    public record Increment() {}
+
+    public record Get() {}
+
+    // 模拟外部存储
+    static final Map<String, Integer> STORE = new ConcurrentHashMap<>();
+    static final AtomicInteger INSTANCES = new AtomicInteger();
+    static final AtomicInteger PASSIVATIONS = new AtomicInteger();
+
+    public static class CounterActor extends AbstractActor<Object> {
+        private int count;
+
+        public CounterActor() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @OnReceive(Increment.class)
+        public void onIncrement(Increment increment) {
+            count++;
+        }
+
+        @OnReceive(Get.class)
+        public void onGet(Get get) {
+            getSender().tell(count, getSelf());
+        }
+
+        @Override
+        protected void onPassivate() {
+            PASSIVATIONS.incrementAndGet();
+            STORE.put(path(), count);
+        }
+
+        @Override
+        protected void onActivate() {
+            count = STORE.getOrDefault(path(), 0);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+        STORE.clear();
+        INSTANCES.set(0);
+        PASSIVATIONS.set(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    private static void awaitPassive(ActorRef<?> ref) throws InterruptedException {
+        Passivation<?> passivation = ((LocalActorRef<?>) ref).getPassivation();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!passivation.isPassive()) {
+            assertTrue(System.currentTimeMillis() < deadline, "actor was not passivated");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("空闲后钝化并释放上下文, 下一条消息重新创建并恢复状态")
+    void testPassivateAndReactivate() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> ref = system.actorOf(props, "counter");
+        ref.tell(new Increment(), ActorRef.noSender());
+        ref.tell(new Increment(), ActorRef.noSender());
+
+        awaitPassive(ref);
+        assertEquals(1, PASSIVATIONS.get());
+        assertFalse(system.getContextManager().hasContext(ref.path()));
+        assertSame(ref, system.getRefRegistry().getRef(ref.path()).orElseThrow());
+        assertFalse(ref.isTerminated());
+
+        Integer count = ref.<Integer>ask(new Get(), Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+        assertEquals(2, count);
+        assertEquals(2, INSTANCES.get());
+        assertTrue(system.getContextManager().hasContext(ref.path()));
+    }
+
+    @Test
+    @DisplayName("重新创建期间到达的消息按顺序缓存后投递")
+    void testBufferedWhileActivating() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> ref = system.actorOf(props, "buffered");
+        awaitPassive(ref);
+
+        Thread[] senders = new Thread[4];
+        for (int t = 0; t < senders.length; t++) {
+            senders[t] = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 250; i++) {
+                    ref.tell(new Increment(), ActorRef.noSender());
+                }
+            });
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        Integer count = ref.<Integer>ask(new Get(), Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+        assertEquals(1000, count);
+    }
+
+    @Test
+    @DisplayName("钝化的Actor停止后不再重新创建")
+    void testStoppedWhilePassive() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> ref = system.actorOf(props, "stopped");
+        awaitPassive(ref);
+
+        system.getRefRegistry().unregister(ref.path(), "test");
+        assertTrue(ref.isTerminated());
+        ref.tell(new Increment(), ActorRef.noSender());
+        assertEquals(1, INSTANCES.get());
+    }
+
+    @Test
+    @DisplayName("停止钝化的Actor时不重新创建, 直接注销并通知监视者")
+    void testStopPassiveActor() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> ref = system.actorOf(props, "stopped");
+        awaitPassive(ref);
+
+        CountDownLatch terminated = new CountDownLatch(1);
+        system.deathWatch().watch(system.getDeadLetters(), ref, terminated::countDown);
+        system.stop(ref).get(5, TimeUnit.SECONDS);
+
+        assertTrue(terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(ref.isTerminated());
+        assertFalse(system.getRefRegistry().contains(ref.path()));
+        assertEquals(0, system.actorSelection("/user/*").size());
+        ref.tell(new Increment(), ActorRef.noSender());
+        assertEquals(1, INSTANCES.get());
+    }
+
+    @Test
+    @DisplayName("通配选择包含钝化的Actor, 投递时重新激活")
+    void testSelectionFindsPassiveActors() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> first = system.actorOf(props, "first");
+        ActorRef<Object> second = system.actorOf(props, "second");
+        awaitPassive(first);
+        awaitPassive(second);
+
+        ActorSelection selection = system.actorSelection("/user/*");
+        assertEquals(2, selection.size());
+        selection.tell(new Increment(), ActorRef.noSender());
+
+        assertEquals(1, first.<Integer>ask(new Get(), Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS));
+        assertEquals(1, second.<Integer>ask(new Get(), Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS));
+        assertEquals(2, selection.size());
+    }
+
+    @Test
+    @DisplayName("系统停止时注销钝化的Actor并通知监视者")
+    void testShutdownStopsPassiveActors() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withPassivation(Duration.ofMillis(100));
+        ActorRef<Object> ref = system.actorOf(props, "watched");
+        awaitPassive(ref);
+
+        CountDownLatch terminated = new CountDownLatch(1);
+        system.deathWatch().watch(system.getDeadLetters(), ref, terminated::countDown);
+        system.terminate().get(10, TimeUnit.SECONDS);
+
+        assertTrue(terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(ref.isTerminated());
+        assertFalse(system.getRefRegistry().contains(ref.path()));
+        assertEquals(0, system.getContextManager().getNodeCount());
+        assertEquals(1, INSTANCES.get());
+    }
+}
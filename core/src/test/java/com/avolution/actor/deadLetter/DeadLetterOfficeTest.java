@@ -0,0 +1,118 @@
+package com.avolution.actor.deadLetter;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.message.MessageType;
+import com.avolution.actor.system.actor.DeadLetterOffice;
+import com.avolution.actor.system.actor.IDeadLetterActorMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadLetterOfficeTest {
+
+    @Test
+    @DisplayName("按接收者和消息类型聚合计数")
+    void aggregatesByRecipientAndClass() {
+        DeadLetterOffice office = new DeadLetterOffice(16, 100, 1_000);
+        for (int i = 0; i < 5; i++) {
+            office.publish("text", "/user/a", "/user/b", MessageType.NORMAL, 0);
+        }
+        office.publish(42, "/user/a", "/user/b", MessageType.NORMAL, 0);
+        office.publish("text", "/user/a", "/user/c", MessageType.NORMAL, 0);
+
+        assertEquals(7, office.getTotal());
+        assertEquals(5, office.getCount("/user/b", String.class));
+        assertEquals(1, office.getCount("/user/b", Integer.class));
+        assertEquals(1, office.getCount("/user/c", String.class));
+        assertEquals(new DeadLetterOffice.Count("/user/b", String.class, 5), office.getCounts().get(0));
+    }
+
+    @Test
+    @DisplayName("接收者超出上限后计入其他")
+    void capsRecipients() {
+        DeadLetterOffice office = new DeadLetterOffice(16, 2, 1_000);
+        for (int i = 0; i < 5; i++) {
+            office.publish("text", "/user/a", "/user/r" + i, MessageType.NORMAL, 0);
+        }
+
+        assertEquals(1, office.getCount("/user/r1", String.class));
+        assertEquals(0, office.getCount("/user/r2", String.class));
+        assertEquals(3, office.getCount(DeadLetterOffice.OTHER_RECIPIENTS, String.class));
+    }
+
+    @Test
+    @DisplayName("环形缓冲区只保留最近的样本, 从旧到新")
+    void keepsRecentSamples() {
+        DeadLetterOffice office = new DeadLetterOffice(4, 100, 1_000);
+        for (int i = 0; i < 10; i++) {
+            office.publish(i, "/user/a", "/user/b", MessageType.NORMAL, 0);
+        }
+
+        List<Object> messages = office.getRecentDeadLetters().stream()
+                .map(IDeadLetterActorMessage.DeadLetter::message).toList();
+        assertEquals(List.of(6, 7, 8, 9), messages);
+        assertFalse(office.getRecentDeadLetters().get(0).timestamp().isEmpty());
+    }
+
+    @Test
+    @DisplayName("汇总只包含上次汇总以来的死信")
+    void summarizesSinceLastSummary() {
+        DeadLetterOffice office = new DeadLetterOffice(16, 100, 1_000);
+        for (int i = 0; i < 3; i++) {
+            office.publish("text", "/user/a", "/user/b", MessageType.NORMAL, 0);
+        }
+
+        assertEquals(3, office.logSummary());
+        assertEquals(0, office.logSummary());
+        office.publish("text", "/user/a", "/user/b", MessageType.NORMAL, 0);
+        assertEquals(1, office.logSummary());
+        assertEquals(4, office.getCount("/user/b", String.class));
+    }
+
+    @Test
+    @DisplayName("多个线程并发记录不丢计数")
+    void countsConcurrently() throws Exception {
+        DeadLetterOffice office = new DeadLetterOffice(64, 100, 1_000);
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.startVirtualThread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    office.publish("text", "/user/a", "/user/b", MessageType.NORMAL, 0);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, office.getTotal());
+        assertEquals(threads * perThread, office.getCount("/user/b", String.class));
+        assertEquals(64, office.getRecentDeadLetters().size());
+    }
+
+    @Test
+    @DisplayName("发给已停止Actor的消息直接计入系统的死信汇总")
+    void recordsMessagesToStoppedActor() throws Exception {
+        ActorSystem system = ActorSystem.create("test-system");
+        try {
+            ActorRef<String> target = system.actorOf(Props.create(StringActor.class), "target");
+            system.stop(target).get(5, TimeUnit.SECONDS);
+
+            for (int i = 0; i < 100; i++) {
+                target.tell("after stop", ActorRef.noSender());
+            }
+
+            assertEquals(100, system.deadLetterOffice().getCount("/user/target", String.class));
+        } finally {
+            system.terminate().get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.OverflowStrategy;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedMailboxTest {
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    private static List<Object> drain(Mailbox mailbox) {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        mailbox.process(envelope -> received.add(envelope.getMessage()));
+        return received;
+    }
+
+    @Test
+    @DisplayName("DROP_NEW丢弃新消息并转入死信")
+    void testDropNew() {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 2, OverflowStrategy.DROP_NEW);
+        List<Object> deadLetters = new CopyOnWriteArrayList<>();
+        mailbox.setDeadLetterHandler(envelope -> deadLetters.add(envelope.getMessage()));
+
+        assertTrue(mailbox.enqueue(envelope("a")));
+        assertTrue(mailbox.enqueue(envelope("b")));
+        assertFalse(mailbox.enqueue(envelope("c")));
+
+        assertEquals(List.of("c"), deadLetters);
+        assertEquals(1, mailbox.getMetrics().getSnapshot().messagesDropped());
+        assertEquals(List.of("a", "b"), drain(mailbox));
+    }
+
+    @Test
+    @DisplayName("DROP_OLD丢弃最旧的消息")
+    void testDropOld() {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 2, OverflowStrategy.DROP_OLD);
+        List<Object> deadLetters = new CopyOnWriteArrayList<>();
+        mailbox.setDeadLetterHandler(envelope -> deadLetters.add(envelope.getMessage()));
+
+        mailbox.enqueue(envelope("a"));
+        mailbox.enqueue(envelope("b"));
+        assertTrue(mailbox.enqueue(envelope("c")));
+
+        assertEquals(List.of("a"), deadLetters);
+        assertEquals(2, mailbox.size());
+        assertEquals(List.of("b", "c"), drain(mailbox));
+    }
+
+    @Test
+    @DisplayName("DROP_BUFFER清空缓冲区后接收新消息")
+    void testDropBuffer() {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 3, OverflowStrategy.DROP_BUFFER);
+        List<Object> deadLetters = new CopyOnWriteArrayList<>();
+        mailbox.setDeadLetterHandler(envelope -> deadLetters.add(envelope.getMessage()));
+
+        mailbox.enqueue(envelope("a"));
+        mailbox.enqueue(envelope("b"));
+        mailbox.enqueue(envelope("c"));
+        assertTrue(mailbox.enqueue(envelope("d")));
+
+        assertEquals(List.of("a", "b", "c"), deadLetters);
+        assertEquals(3, mailbox.getMetrics().getSnapshot().messagesDropped());
+        assertEquals(List.of("d"), drain(mailbox));
+    }
+
+    @Test
+    @DisplayName("系统消息不受容量限制")
+    void testSystemMessagesBypassCapacity() {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 1, OverflowStrategy.DROP_NEW);
+        mailbox.enqueue(envelope("a"));
+        assertTrue(mailbox.enqueue(new Envelope("sys", ActorRef.noSender(), ActorRef.noSender(), MessageType.SYSTEM, 1)));
+        assertEquals(List.of("sys", "a"), drain(mailbox));
+    }
+
+    @Test
+    @DisplayName("BLOCK挂起发送者直到有空位")
+    void testBlockParksSender() throws Exception {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 1, OverflowStrategy.BLOCK, Duration.ofSeconds(5));
+        mailbox.enqueue(envelope("a"));
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean accepted = new AtomicBoolean(false);
+        Thread sender = Thread.ofVirtual().start(() -> {
+            started.countDown();
+            accepted.set(mailbox.enqueue(envelope("b")));
+        });
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertFalse(accepted.get());
+
+        List<Object> received = new ArrayList<>(drain(mailbox));
+        sender.join(1000);
+        assertTrue(accepted.get());
+        received.addAll(drain(mailbox));
+        assertEquals(List.of("a", "b"), received);
+    }
+
+    @Test
+    @DisplayName("BLOCK等待超时后转入死信")
+    void testBlockTimeout() {
+        BoundedMailbox mailbox = new BoundedMailbox(100, 1, OverflowStrategy.BLOCK, Duration.ofMillis(50));
+        List<Object> deadLetters = new CopyOnWriteArrayList<>();
+        mailbox.setDeadLetterHandler(envelope -> deadLetters.add(envelope.getMessage()));
+
+        mailbox.enqueue(envelope("a"));
+        assertFalse(mailbox.enqueue(envelope("b")));
+        assertEquals(List.of("b"), deadLetters);
+    }
+}
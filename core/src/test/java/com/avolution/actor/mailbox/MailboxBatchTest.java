@@ -0,0 +1,114 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageHandler;
+import com.avolution.actor.message.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxBatchTest {
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    // 记录每一批收到的消息
+    static class BatchRecorder implements MessageHandler<Object> {
+        final int batchSize;
+        final List<List<Object>> batches = new ArrayList<>();
+        final List<Object> single = new ArrayList<>();
+        boolean fail;
+
+        BatchRecorder(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void handle(Envelope<Object> message) {
+            single.add(message.getMessage());
+        }
+
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void handleBatch(List<Envelope<Object>> messages) {
+            batches.add(messages.stream().map(Envelope::getMessage).toList());
+            if (fail) {
+                throw new IllegalStateException("batch failed");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("按批取出用户消息, 受吞吐量限制")
+    void testBatchDrain() {
+        Mailbox mailbox = new Mailbox(5);
+        for (int i = 0; i < 7; i++) {
+            mailbox.enqueue(envelope(i));
+        }
+
+        BatchRecorder handler = new BatchRecorder(3);
+        mailbox.process(handler);
+        assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4)), handler.batches);
+        assertEquals(2, mailbox.size());
+
+        mailbox.process(handler);
+        assertEquals(List.of(5, 6), handler.batches.get(2));
+        assertEquals(0, mailbox.size());
+        assertEquals(7, mailbox.getMetrics().getSnapshot().messagesProcessed());
+    }
+
+    @Test
+    @DisplayName("系统消息逐条处理并优先于批")
+    void testSystemMessagesNotBatched() {
+        Mailbox mailbox = new Mailbox(100);
+        mailbox.enqueue(envelope("a"));
+        mailbox.enqueue(envelope("b"));
+        mailbox.enqueue(new Envelope("sys", ActorRef.noSender(), ActorRef.noSender(), MessageType.SYSTEM, 1));
+
+        BatchRecorder handler = new BatchRecorder(10);
+        mailbox.process(handler);
+        assertEquals(List.of("sys"), handler.single);
+        assertEquals(List.of(List.of("a", "b")), handler.batches);
+    }
+
+    @Test
+    @DisplayName("批处理失败时每条消息计为失败")
+    void testBatchFailureCountedPerMessage() {
+        Mailbox mailbox = new Mailbox(100);
+        for (int i = 0; i < 4; i++) {
+            mailbox.enqueue(envelope(i));
+        }
+
+        BatchRecorder handler = new BatchRecorder(10);
+        handler.fail = true;
+        mailbox.process(handler);
+
+        MailboxMetrics.MetricsSnapshot snapshot = mailbox.getMetrics().getSnapshot();
+        assertEquals(4, snapshot.messagesFailed());
+        assertEquals(0, snapshot.messagesProcessed());
+        assertEquals(0, mailbox.size());
+    }
+
+    @Test
+    @DisplayName("默认批大小为1时逐条处理")
+    void testDefaultIsSingle() {
+        Mailbox mailbox = new Mailbox(100);
+        mailbox.enqueue(envelope("a"));
+        mailbox.enqueue(envelope("b"));
+
+        BatchRecorder handler = new BatchRecorder(1);
+        mailbox.process(handler);
+        assertEquals(List.of("a", "b"), handler.single);
+        assertTrue(handler.batches.isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.impl.AdaptiveThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.DeadlineThroughputStrategy;
+import com.avolution.actor.config.strategies.impl.FixedThroughputStrategy;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.dispatch.Dispatcher;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxThroughputTest {
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    private static void fill(Mailbox mailbox, int count) {
+        for (int i = 0; i < count; i++) {
+            mailbox.enqueue(envelope(i));
+        }
+    }
+
+    @Test
+    @DisplayName("固定条数: 每轮最多处理throughput条")
+    void testFixedThroughput() {
+        Mailbox mailbox = new Mailbox(100);
+        mailbox.setThroughputStrategy(new FixedThroughputStrategy(3));
+        fill(mailbox, 10);
+
+        AtomicInteger handled = new AtomicInteger();
+        mailbox.process(envelope -> handled.incrementAndGet());
+        assertEquals(3, handled.get());
+        assertEquals(7, mailbox.size());
+    }
+
+    @Test
+    @DisplayName("时间片: 预算用完后让出")
+    void testDeadlineYields() {
+        Mailbox mailbox = new Mailbox(100);
+        mailbox.setThroughputStrategy(new DeadlineThroughputStrategy(100, Duration.ofMillis(20)));
+        fill(mailbox, 50);
+
+        AtomicInteger handled = new AtomicInteger();
+        mailbox.process(envelope -> {
+            handled.incrementAndGet();
+            Thread.sleep(5);
+        });
+        assertTrue(handled.get() >= 1 && handled.get() < 50, "handled " + handled.get());
+        assertEquals(50 - handled.get(), mailbox.size());
+    }
+
+    @Test
+    @DisplayName("自适应: 慢处理和高负载时缩小每轮处理量")
+    void testAdaptiveShrinks() {
+        AtomicInteger depth = new AtomicInteger(0);
+        AdaptiveThroughputStrategy strategy =
+                new AdaptiveThroughputStrategy(1, 1000, Duration.ofMillis(1), depth::get);
+        assertEquals(1000, strategy.getCurrentBatch());
+
+        // 单条1微秒, 空闲: 1ms时间片约1000条
+        strategy.onTurnCompleted(100, 100_000);
+        assertEquals(1000, strategy.getCurrentBatch());
+
+        // 单条100微秒: 约10条
+        for (int i = 0; i < 50; i++) {
+            strategy.onTurnCompleted(10, 1_000_000);
+        }
+        int slow = strategy.getCurrentBatch();
+        assertTrue(slow <= 12, "batch " + slow);
+
+        // 调度器繁忙时时间片进一步缩短
+        depth.set(Runtime.getRuntime().availableProcessors() * 16);
+        strategy.onTurnCompleted(10, 1_000_000);
+        assertTrue(strategy.getCurrentBatch() < slow);
+        assertTrue(strategy.getTimeBudgetNanos() < Duration.ofMillis(1).toNanos());
+        assertTrue(strategy.getCurrentBatch() >= 1);
+    }
+
+    @Test
+    @DisplayName("调度器只在开始统计后计数待执行邮箱, 之前调度的邮箱结束时不影响计数")
+    void testQueueDepthTrackedOnDemand() throws Exception {
+        Dispatcher dispatcher = new Dispatcher();
+        try {
+            Mailbox before = new Mailbox(10);
+            Mailbox after = new Mailbox(10);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+
+            assertTrue(dispatcher.registerForExecution(before, () -> runUntil(release, dispatcher, before, done)));
+            assertEquals(0, dispatcher.getQueueDepth());
+
+            dispatcher.trackQueueDepth();
+            assertTrue(dispatcher.registerForExecution(after, () -> runUntil(release, dispatcher, after, done)));
+            assertEquals(1, dispatcher.getQueueDepth());
+
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(0, dispatcher.getQueueDepth());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static void runUntil(CountDownLatch release, Dispatcher dispatcher, Mailbox mailbox, CountDownLatch done) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            dispatcher.executionCompleted(mailbox);
+            done.countDown();
+        }
+    }
+}
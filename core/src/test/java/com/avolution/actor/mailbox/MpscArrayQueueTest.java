@@ -0,0 +1,145 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscArrayQueueTest {
+
+    @Test
+    @DisplayName("容量向上取整为2的幂, 满时拒绝")
+    void testCapacity() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        assertEquals(List.of(1, 2, 3, 4), drain(queue));
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertEquals(5, queue.offeredCount());
+    }
+
+    @Test
+    @DisplayName("多生产者并发入队, 每个生产者内部保持顺序")
+    void testConcurrentProducers() throws Exception {
+        int producers = 8;
+        int perProducer = 20_000;
+        MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] item = {producer, i};
+                    while (!queue.offer(item)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] item = queue.poll();
+            if (item == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertEquals(next[(int) item[0]], (int) item[1]);
+            next[(int) item[0]]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("MPSC邮箱大小和入队数由队列序号得到")
+    void testMailboxCounting() {
+        MpscArrayMailbox mailbox = new MpscArrayMailbox(100, 2);
+        List<Object> deadLetters = new ArrayList<>();
+        mailbox.setDeadLetterHandler(envelope -> deadLetters.add(envelope.getMessage()));
+
+        assertTrue(mailbox.enqueue(envelope("a")));
+        assertTrue(mailbox.enqueue(envelope("b")));
+        assertFalse(mailbox.enqueue(envelope("c")));
+        assertTrue(mailbox.enqueue(new Envelope("sys", ActorRef.noSender(), ActorRef.noSender(), MessageType.SYSTEM, 1)));
+
+        assertEquals(3, mailbox.size());
+        assertEquals(List.of("c"), deadLetters);
+
+        List<Object> received = new ArrayList<>();
+        mailbox.process(envelope -> received.add(envelope.getMessage()));
+        assertEquals(List.of("sys", "a", "b"), received);
+        assertEquals(0, mailbox.size());
+        assertEquals(3, mailbox.getMetrics().getSnapshot().messagesEnqueued());
+    }
+
+    @Test
+    @DisplayName("处理中关闭邮箱时由处理线程在本轮结束后清空")
+    void testCloseWhileProcessing() throws Exception {
+        MpscArrayMailbox mailbox = new MpscArrayMailbox(100, 8);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(mailbox.enqueue(envelope(i)));
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> received = new ArrayList<>();
+        Thread consumer = Thread.ofPlatform().start(() -> mailbox.process(envelope -> {
+            received.add(envelope.getMessage());
+            started.countDown();
+            release.await();
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        mailbox.close();
+        // 消费者仍在处理, 关闭方不出队
+        assertEquals(3, mailbox.size());
+        release.countDown();
+        consumer.join(5_000);
+
+        assertEquals(List.of(0), received);
+        assertEquals(0, mailbox.size());
+        assertEquals(1, mailbox.getMetrics().getSnapshot().messagesProcessed());
+    }
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    private static <E> List<E> drain(MpscArrayQueue<E> queue) {
+        List<E> items = new ArrayList<>();
+        E item;
+        while ((item = queue.poll()) != null) {
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,76 @@
+package com.avolution.actor.mailbox;
+
+import com.avolution.actor.config.strategies.PriorityStrategy;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.message.Envelope;
+import com.avolution.actor.message.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityMailboxTest {
+
+    record Move(int seq) {}
+
+    record Chat(int seq) {}
+
+    // 移动指令优先于聊天消息
+    static class GameStrategy implements PriorityStrategy {
+        @Override
+        public int getPriority(Envelope envelope) {
+            return envelope.getMessage() instanceof Move ? 2 : 0;
+        }
+
+        @Override
+        public boolean isHighPriority(Envelope envelope) {
+            return false;
+        }
+
+        @Override
+        public int getMaxPriority() {
+            return 3;
+        }
+    }
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    @Test
+    @DisplayName("高优先级先处理, 同级保持FIFO")
+    void testPriorityOrder() {
+        PriorityMailbox mailbox = new PriorityMailbox(100, new GameStrategy());
+        mailbox.enqueue(envelope(new Chat(1)));
+        mailbox.enqueue(envelope(new Move(1)));
+        mailbox.enqueue(envelope(new Chat(2)));
+        mailbox.enqueue(envelope(new Move(2)));
+
+        List<Object> received = new ArrayList<>();
+        mailbox.process(envelope -> received.add(envelope.getMessage()));
+
+        assertEquals(List.of(new Move(1), new Move(2), new Chat(1), new Chat(2)), received);
+        assertEquals(0, mailbox.size());
+        assertFalse(mailbox.hasMessages());
+    }
+
+    @Test
+    @DisplayName("超出范围的优先级被限制在有效级别内")
+    void testPriorityClamped() {
+        PriorityMailbox mailbox = new PriorityMailbox(100, new GameStrategy() {
+            @Override
+            public int getPriority(Envelope envelope) {
+                return envelope.getMessage() instanceof Move ? 100 : -5;
+            }
+        });
+        mailbox.enqueue(envelope(new Chat(1)));
+        mailbox.enqueue(envelope(new Move(1)));
+
+        List<Object> received = new ArrayList<>();
+        mailbox.process(envelope -> received.add(envelope.getMessage()));
+        assertEquals(List.of(new Move(1), new Chat(1)), received);
+    }
+}
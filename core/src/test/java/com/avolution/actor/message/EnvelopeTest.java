@@ -0,0 +1,67 @@
+package com.avolution.actor.message;
+
+import com.avolution.actor.core.ActorRef;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvelopeTest {
+
+    private static Envelope envelope(Object message) {
+        return new Envelope(message, ActorRef.noSender(), ActorRef.noSender(), MessageType.NORMAL, 1);
+    }
+
+    @Test
+    @DisplayName("消息ID首次读取时分配, 之后保持不变")
+    void testLazyId() {
+        Envelope first = envelope("a");
+        Envelope second = envelope("b");
+
+        long secondId = second.getId();
+        long firstId = first.getId();
+        assertTrue(firstId > secondId);
+        assertEquals(firstId, first.getId());
+        assertEquals(Long.toString(firstId), first.messageId());
+    }
+
+    @Test
+    @DisplayName("时间戳由单调时间换算")
+    void testTimestamp() {
+        Instant before = Instant.now();
+        Envelope envelope = envelope("a");
+        Instant timestamp = envelope.getTimestamp();
+        assertTrue(Duration.between(before, timestamp).abs().toMillis() < 1000);
+        assertTrue(envelope.getAgeNanos() >= 0);
+    }
+
+    @Test
+    @DisplayName("同一Actor再次处理同一个Envelope即视为循环投递")
+    void testSameActorRedelivery() {
+        Envelope envelope = envelope("a");
+        assertFalse(envelope.hasBeenProcessedBy("/user/a"));
+        envelope.markProcessed("/user/a");
+        assertTrue(envelope.hasBeenProcessedBy("/user/a"));
+        assertFalse(envelope.hasBeenProcessedBy("/user/b"));
+
+        envelope.markProcessed("/user/b");
+        assertTrue(envelope.hasBeenProcessedBy("/user/a"));
+        assertTrue(envelope.hasBeenProcessedBy("/user/b"));
+        assertFalse(envelope.hasBeenProcessedBy("/user/c"));
+    }
+
+    @Test
+    @DisplayName("处理次数达到上限视为循环投递")
+    void testHopLimit() {
+        Envelope envelope = envelope("a");
+        for (int i = 0; i < Envelope.MAX_HOPS - 1; i++) {
+            envelope.markProcessed("/user/a" + i);
+        }
+        assertFalse(envelope.hasBeenProcessedBy("/user/b"));
+        envelope.markProcessed("/user/last");
+        assertTrue(envelope.hasBeenProcessedBy("/user/b"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.avolution.actor.metrics;
+
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    static final Map<String, EchoActor> ACTORS = new ConcurrentHashMap<>();
+
+    public static class EchoActor extends AbstractActor<String> {
+        @OnReceive(String.class)
+        public void onText(String text) {
+            ACTORS.put(path(), this);
+            getSender().tell(text, getSelf());
+        }
+    }
+
+    @Test
+    @DisplayName("每个值落在所在桶的范围内, 相对误差不超过1/16")
+    void bucketsBoundValues() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(1L << random.nextInt(1, 40));
+            int index = LatencyHistogram.bucketIndex(value);
+            long lowest = LatencyHistogram.bucketLowest(index);
+            long highest = LatencyHistogram.bucketHighest(index);
+            assertTrue(lowest <= value && value <= highest, value + " not in [" + lowest + ", " + highest + "]");
+            assertTrue(highest - lowest <= lowest / LatencyHistogram.SUB_BUCKETS, "bucket too wide for " + value);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.bucketIndex(-5));
+    }
+
+    @Test
+    @DisplayName("分位数在桶精度内")
+    void reportsPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertWithin(5_000_000, snapshot.p50());
+        assertWithin(9_000_000, snapshot.p90());
+        assertWithin(9_900_000, snapshot.p99());
+        assertWithin(9_990_000, snapshot.p999());
+        assertWithin(10_000_000, snapshot.max());
+        assertWithin(1_000, snapshot.min());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKETS,
+                "expected ~" + expected + " but was " + actual);
+    }
+
+    @Test
+    @DisplayName("区间快照开始新区间, 重置丢弃当前区间")
+    void startsNewInterval() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(100);
+        histogram.record(200);
+
+        assertEquals(2, histogram.intervalSnapshot().count());
+        assertEquals(0, histogram.snapshot().count());
+        histogram.record(300);
+        assertEquals(1, histogram.snapshot().count());
+        histogram.reset();
+        assertEquals(0, histogram.intervalSnapshot().count());
+        assertEquals(0, histogram.snapshot().p99());
+    }
+
+    @Test
+    @DisplayName("第一次记录前不分配计数数组, 快照和重置返回空分布")
+    void allocatesOnFirstRecord() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        assertSame(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+        assertSame(LatencyHistogram.Snapshot.EMPTY, histogram.intervalSnapshot());
+        histogram.reset();
+        assertFalse(histogram.isAllocated());
+
+        histogram.record(100);
+        assertTrue(histogram.isAllocated());
+        assertEquals(1, histogram.snapshot().count());
+        assertEquals(1, histogram.intervalSnapshot().count());
+        assertEquals(0, histogram.snapshot().count());
+
+        ActorMetricsCollector collector = new ActorMetricsCollector("/user/idle");
+        assertFalse(collector.getProcessingTime().isAllocated());
+        assertFalse(collector.getMailboxWaitTime().isAllocated());
+    }
+
+    @Test
+    @DisplayName("并发记录时区间快照不丢样本")
+    void keepsConcurrentSamples() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        int threads = 8;
+        int perThread = 200_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+                done.countDown();
+            });
+        }
+
+        long seen = 0;
+        while (done.getCount() > 0) {
+            seen += histogram.intervalSnapshot().count();
+        }
+        seen += histogram.intervalSnapshot().count();
+
+        assertEquals((long) threads * perThread, seen);
+    }
+
+    @Test
+    @DisplayName("每个Actor单独统计延迟, 显式开启后同时记入整类共享的直方图")
+    void recordsPerActorAndOptInClassLatency() throws Exception {
+        ActorSystem system = ActorSystem.create("test-system");
+        try {
+            ActorMetricsCollector.ClassLatency shared = ActorMetricsCollector.classLatency(EchoActor.class);
+            shared.processingTime().reset();
+            shared.mailboxWaitTime().reset();
+            ActorRef<String> first = system.actorOf(Props.create(EchoActor.class), "first");
+            ActorRef<String> second = system.actorOf(Props.create(EchoActor.class), "second");
+
+            for (int i = 0; i < 10; i++) {
+                first.<String>ask("ping", Duration.ofSeconds(3)).get(5, TimeUnit.SECONDS);
+                second.<String>ask("ping", Duration.ofSeconds(3)).get(5, TimeUnit.SECONDS);
+            }
+
+            // 回复在处理方法返回前发出, 最后一条消息的耗时稍后才记录
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (shared.processingTime().snapshot().count() < 20 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            ActorMetricsCollector firstMetrics = ACTORS.get(first.path()).getMetricsCollector();
+            ActorMetricsCollector secondMetrics = ACTORS.get(second.path()).getMetricsCollector();
+
+            MetricsSnapshot snapshot = firstMetrics.getIntervalSnapshot();
+            assertEquals(10, snapshot.processingTime().count());
+            assertEquals(10, snapshot.mailboxWaitTime().count());
+            assertTrue(snapshot.processingTime().p99() > 0);
+            assertEquals(0, firstMetrics.getSnapshot().processingTime().count());
+            // 区间快照只推进本Actor的区间
+            assertEquals(10, secondMetrics.getSnapshot().processingTime().count());
+            assertEquals(20, shared.processingTime().intervalSnapshot().count());
+            assertEquals(20, shared.mailboxWaitTime().intervalSnapshot().count());
+
+            secondMetrics.reset();
+            assertEquals(0, secondMetrics.getSnapshot().processingTime().count());
+            assertEquals(0, secondMetrics.getSnapshot().mailboxWaitTime().count());
+        } finally {
+            system.terminate().get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.avolution.actor.pattern;
+
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.exception.AskTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromiseActorRefTest {
+    private ActorSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.terminate();
+    }
+
+    @Test
+    @DisplayName("tell直接完成future, 不注册到Actor层级")
+    void testTellCompletesFuture() throws Exception {
+        int registered = system.getRefRegistry().getRefCount();
+        PromiseActorRef<String> ref = PromiseActorRef.create(system, Duration.ofSeconds(5));
+
+        assertFalse(ref.isTerminated());
+        ref.tell("pong", ActorRef.noSender());
+
+        assertEquals("pong", ref.future().get(1, TimeUnit.SECONDS));
+        assertTrue(ref.isTerminated());
+        assertEquals(registered, system.getRefRegistry().getRefCount());
+        assertFalse(system.getRefRegistry().contains(ref.path()));
+        assertFalse(system.getContextManager().hasContext(ref.path()));
+    }
+
+    @Test
+    @DisplayName("超时后future以AskTimeoutException完成, 迟到的应答被忽略")
+    void testTimeout() {
+        PromiseActorRef<String> ref = PromiseActorRef.create(system, Duration.ofMillis(50));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> ref.future().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AskTimeoutException.class, e.getCause());
+
+        ref.tell("late", ActorRef.noSender());
+        assertTrue(ref.future().isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("定时器停止时未应答的ask立即超时")
+    void testTimerStopCompletesAsk() {
+        PromiseActorRef<String> ref = PromiseActorRef.create(system, Duration.ofHours(1));
+        system.getTimer().stop();
+
+        assertTrue(ref.future().isDone());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> ref.future().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AskTimeoutException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("路径按需生成且保持不变")
+    void testLazyPath() {
+        PromiseActorRef<String> ref = PromiseActorRef.create(system, Duration.ofSeconds(5));
+        String path = ref.path();
+        assertTrue(path.startsWith("/temp/ask-"));
+        assertEquals(path, ref.path());
+        assertEquals(path.substring("/temp/".length()), ref.name());
+        ref.tell("done", ActorRef.noSender());
+    }
+
+    @Test
+    @DisplayName("并发读取路径时所有线程看到同一个路径")
+    void testConcurrentPath() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            PromiseActorRef<String> ref = PromiseActorRef.create(system, Duration.ofSeconds(5));
+            CountDownLatch start = new CountDownLatch(1);
+            Set<String> seen = ConcurrentHashMap.newKeySet();
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    seen.add(ref.path());
+                }));
+            }
+            start.countDown();
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertEquals(Set.of(ref.path()), seen);
+            ref.tell("done", ActorRef.noSender());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.avolution.actor.supervision;
+
+import com.avolution.actor.config.strategies.impl.DefaultRetryStrategy;
+import com.avolution.actor.core.AbstractActor;
+import com.avolution.actor.core.ActorRef;
+import com.avolution.actor.core.ActorSystem;
+import com.avolution.actor.core.Props;
+import com.avolution.actor.core.annotation.OnReceive;
+import com.avolution.actor.core.context.ActorContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackoffSupervisorStrategyTest {
+    private ActorSystem system;
+
+    public record Increment() {}
+
+    public record Fail() {}
+
+    public record Get() {}
+
+    static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public static class CounterActor extends AbstractActor<Object> {
+        private int count;
+
+        public CounterActor() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @OnReceive(Increment.class)
+        public void onIncrement(Increment increment) {
+            count++;
+        }
+
+        @OnReceive(Fail.class)
+        public void onFail(Fail fail) {
+            throw new IllegalStateException("downstream unavailable");
+        }
+
+        @OnReceive(Get.class)
+        public void onGet(Get get) {
+            getSender().tell(count, getSelf());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("test-system");
+        INSTANCES.set(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        system.terminate().get(10, TimeUnit.SECONDS);
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(5);
+        }
+    }
+
+    private ActorContext contextOf(ActorRef<?> ref) {
+        return system.getContextManager().getContext(ref.path()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("延迟按指数增长, 受上限约束, 重试次数用完返回null")
+    void delaysGrowExponentially() {
+        Backoff backoff = new BackoffSupervisorStrategy(new DefaultRetryStrategy(5, Duration.ofMillis(100)))
+                .withRandomFactor(0)
+                .withMaxDelay(Duration.ofMillis(500))
+                .newBackoff();
+
+        assertEquals(Duration.ofMillis(100), backoff.nextDelay());
+        assertEquals(Duration.ofMillis(200), backoff.nextDelay());
+        assertEquals(Duration.ofMillis(400), backoff.nextDelay());
+        assertEquals(Duration.ofMillis(500), backoff.nextDelay());
+        assertEquals(Duration.ofMillis(500), backoff.nextDelay());
+        assertNull(backoff.nextDelay());
+    }
+
+    @Test
+    @DisplayName("抖动落在 [delay, delay * (1 + randomFactor)] 之间")
+    void jitterStaysInRange() {
+        BackoffSupervisorStrategy strategy = new BackoffSupervisorStrategy(
+                new DefaultRetryStrategy(1, Duration.ofMillis(100))).withRandomFactor(0.5);
+        for (int i = 0; i < 100; i++) {
+            long delay = strategy.newBackoff().nextDelay().toMillis();
+            assertTrue(delay >= 100 && delay <= 150, "delay out of range: " + delay);
+        }
+    }
+
+    @Test
+    @DisplayName("稳定期后重启计数重置")
+    void resetsAfterStablePeriod() {
+        Backoff backoff = new BackoffSupervisorStrategy(new DefaultRetryStrategy(5, Duration.ofMillis(100)))
+                .withRandomFactor(0)
+                .withResetAfter(Duration.ZERO)
+                .newBackoff();
+
+        backoff.nextDelay();
+        backoff.nextDelay();
+        backoff.restarted();
+
+        assertEquals(Duration.ofMillis(100), backoff.nextDelay());
+    }
+
+    @Test
+    @DisplayName("拒绝空的决策函数和退避期间行为")
+    void rejectsNullSettings() {
+        BackoffSupervisorStrategy strategy = new BackoffSupervisorStrategy(
+                new DefaultRetryStrategy(1, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> strategy.withDecider(null));
+        assertThrows(IllegalArgumentException.class, () -> strategy.withWhileBackingOff(null));
+    }
+
+    @Test
+    @DisplayName("退避期间的消息保留在邮箱, 延迟到期后由新实例处理")
+    void stashesWhileBackingOff() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withSupervisorStrategy(
+                new BackoffSupervisorStrategy(new DefaultRetryStrategy(3, Duration.ofMillis(200))).withRandomFactor(0));
+        ActorRef<Object> ref = system.actorOf(props, "counter");
+
+        long start = System.nanoTime();
+        ref.tell(new Fail(), ActorRef.noSender());
+        await(() -> contextOf(ref).isBackingOff(), "actor did not back off");
+        for (int i = 0; i < 10; i++) {
+            ref.tell(new Increment(), ActorRef.noSender());
+        }
+
+        assertEquals(10, ref.<Integer>ask(new Get(), Duration.ofSeconds(3)).get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(2, INSTANCES.get());
+    }
+
+    @Test
+    @DisplayName("配置为死信时, 退避期间的消息转入死信")
+    void deadLettersWhileBackingOff() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withSupervisorStrategy(
+                new BackoffSupervisorStrategy(new DefaultRetryStrategy(3, Duration.ofMillis(200)))
+                        .withRandomFactor(0)
+                        .withWhileBackingOff(BackoffSupervisorStrategy.WhileBackingOff.DEAD_LETTER));
+        ActorRef<Object> ref = system.actorOf(props, "counter");
+
+        ref.tell(new Fail(), ActorRef.noSender());
+        await(() -> contextOf(ref).isBackingOff(), "actor did not back off");
+        for (int i = 0; i < 10; i++) {
+            ref.tell(new Increment(), ActorRef.noSender());
+        }
+        await(() -> !contextOf(ref).isBackingOff(), "actor did not restart");
+
+        assertEquals(0, ref.<Integer>ask(new Get(), Duration.ofSeconds(3)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("重试次数用完后停止Actor")
+    void stopsWhenRetriesExhausted() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withSupervisorStrategy(
+                new BackoffSupervisorStrategy(new DefaultRetryStrategy(1, Duration.ofMillis(10))).withRandomFactor(0));
+        ActorRef<Object> ref = system.actorOf(props, "counter");
+
+        ref.tell(new Fail(), ActorRef.noSender());
+        await(() -> INSTANCES.get() == 2, "actor did not restart");
+        ref.tell(new Fail(), ActorRef.noSender());
+
+        await(ref::isTerminated, "actor was not stopped");
+    }
+
+    @Test
+    @DisplayName("时间轮已停止无法安排重启时停止Actor")
+    void stopsWhenRestartCannotBeScheduled() throws Exception {
+        Props<Object> props = Props.<Object>create(CounterActor.class).withSupervisorStrategy(
+                new BackoffSupervisorStrategy(new DefaultRetryStrategy(3, Duration.ofMillis(10))).withRandomFactor(0));
+        ActorRef<Object> ref = system.actorOf(props, "counter");
+
+        system.getTimer().stop();
+        ref.tell(new Fail(), ActorRef.noSender());
+
+        await(ref::isTerminated, "actor was left restarting");
+        assertEquals(1, INSTANCES.get());
+    }
+}
@@ -0,0 +1,351 @@
+package com.avolution.actor.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为声明了 {@code @OnReceive} 处理器的类生成 {@code GeneratedDispatcher}
+ *
+ * 生成类与Actor类同包, 以 switch 模式匹配消息类型并直接调用处理器, 运行时不再需要反射扫描
+ * 处理器的解析规则与运行时反射处理器表一致: 包含父类中声明的处理器, 同一消息类型以子类为准,
+ * 按消息具体类的类型层次取距离最近的处理器. 只有类或final类型时最近即最具体, 子类型的分支排在父类型之前即可;
+ * 接口处理器与非final类型可能同时匹配一条消息, 胜出者取决于具体类, 此时按具体类查表再分发, 见 {@code GeneratedDispatcher.nearest}
+ * 处理器为私有方法、参数类型与注解类型不一致或生成类无法访问时不生成, 运行时退回到反射
+ */
+@SupportedAnnotationTypes("*")
+public class OnReceiveProcessor extends AbstractProcessor {
+
+    static final String ON_RECEIVE = "com.avolution.actor.core.annotation.OnReceive";
+    static final String DISPATCHER_INTERFACE = "com.avolution.actor.core.GeneratedDispatcher";
+    static final String SUFFIX = "$$OnReceiveDispatcher";
+
+    private static final Comparator<ExecutableElement> METHOD_ORDER = Comparator
+            .comparing((ExecutableElement method) -> method.getSimpleName().toString())
+            .thenComparing(ExecutableElement::toString);
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement onReceive = elements.getTypeElement(ON_RECEIVE);
+        if (onReceive == null || roundEnv.processingOver()) {
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type, onReceive);
+        }
+        // 不声明占有任何注解, 其他处理器照常运行
+        return false;
+    }
+
+    private void processType(TypeElement type, TypeElement onReceive) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested, onReceive);
+        }
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return;
+        }
+        List<Handler> handlers = collectHandlers(type, onReceive);
+        if (handlers == null || handlers.isEmpty()) {
+            return;
+        }
+        try {
+            writeDispatcher(type, order(handlers), isAmbiguous(handlers));
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write dispatcher: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * 沿父类链收集处理器
+     *
+     * @return 无法生成时返回null
+     */
+    private List<Handler> collectHandlers(TypeElement actor, TypeElement onReceive) {
+        PackageElement pkg = elements.getPackageOf(actor);
+        if (!isAccessible(actor, pkg)) {
+            return skip(actor, "actor class is not accessible from its package");
+        }
+        Map<String, Handler> found = new LinkedHashMap<>();
+        TypeElement type = actor;
+        while (type != null && !type.getQualifiedName().contentEquals("java.lang.Object")) {
+            List<ExecutableElement> methods = new ArrayList<>(ElementFilter.methodsIn(type.getEnclosedElements()));
+            methods.sort(METHOD_ORDER);
+            for (ExecutableElement method : methods) {
+                TypeMirror messageType = annotationValue(method, onReceive);
+                if (messageType == null || method.getParameters().size() != 1) {
+                    continue;
+                }
+                if (messageType.getKind() != TypeKind.DECLARED) {
+                    return skip(actor, "handler " + method + " is registered for a non-class type");
+                }
+                TypeMirror erased = types.erasure(messageType);
+                TypeMirror parameter = types.erasure(method.getParameters().get(0).asType());
+                if (!types.isAssignable(parameter, erased)) {
+                    // 与运行时一致: 注解类型必须能容纳参数类型, 否则忽略该方法
+                    continue;
+                }
+                String key = erased.toString();
+                if (found.containsKey(key)) {
+                    continue;
+                }
+                if (!types.isSameType(parameter, erased)) {
+                    return skip(actor, "handler " + method + " narrows its parameter to " + parameter);
+                }
+                if (!isAccessible(method, type, pkg)) {
+                    return skip(actor, "handler " + method + " is not accessible from " + pkg);
+                }
+                if (!isAccessible((TypeElement) ((DeclaredType) erased).asElement(), pkg)) {
+                    return skip(actor, "message type " + erased + " is not accessible from " + pkg);
+                }
+                found.put(key, new Handler(erased, type, method, found.size()));
+            }
+            type = superclassOf(type);
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private TypeMirror annotationValue(ExecutableElement method, TypeElement onReceive) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!types.isSameType(mirror.getAnnotationType(), onReceive.asType())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")
+                        && entry.getValue().getValue() instanceof TypeMirror value) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    /**
+     * 分支排序: 子类型在前; 互不相关时类在接口之前, 再按注册顺序
+     */
+    private List<Handler> order(List<Handler> handlers) {
+        List<Handler> remaining = new ArrayList<>(handlers);
+        List<Handler> ordered = new ArrayList<>(handlers.size());
+        while (!remaining.isEmpty()) {
+            Handler next = null;
+            for (Handler candidate : remaining) {
+                if (hasSubtypeIn(candidate, remaining)) {
+                    continue;
+                }
+                if (next == null || isBefore(candidate, next)) {
+                    next = candidate;
+                }
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    private boolean hasSubtypeIn(Handler handler, List<Handler> others) {
+        for (Handler other : others) {
+            if (other != handler && types.isSubtype(other.messageType, handler.messageType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否存在一对处理器可能同时匹配同一条消息且胜出者取决于消息的具体类
+     * 两个类型都是类时最近的就是最具体的; 一方为final类型时同时匹配的消息只能是它本身, 距离为0
+     */
+    private boolean isAmbiguous(List<Handler> handlers) {
+        for (int i = 0; i < handlers.size(); i++) {
+            for (int j = i + 1; j < handlers.size(); j++) {
+                Handler a = handlers.get(i);
+                Handler b = handlers.get(j);
+                if ((a.isInterface() || b.isInterface()) && !a.isFinal() && !b.isFinal()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isBefore(Handler a, Handler b) {
+        boolean aInterface = a.isInterface();
+        boolean bInterface = b.isInterface();
+        if (aInterface != bInterface) {
+            return !aInterface;
+        }
+        return a.order < b.order;
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        for (Element element = type; element instanceof TypeElement current; element = current.getEnclosingElement()) {
+            if (current.getNestingKind() == NestingKind.LOCAL || current.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(current).equals(pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(ExecutableElement method, TypeElement declaring, PackageElement pkg) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return isAccessible(declaring, pkg);
+        }
+        // 包级和protected方法只有同包可以直接调用
+        return elements.getPackageOf(declaring).equals(pkg) && isAccessible(declaring, pkg);
+    }
+
+    private List<Handler> skip(TypeElement actor, String reason) {
+        messager.printMessage(Diagnostic.Kind.NOTE,
+                "No generated dispatcher for " + actor.getQualifiedName() + ", falling back to reflection: " + reason, actor);
+        return null;
+    }
+
+    private String invocation(Handler handler) {
+        String target = handler.method.getModifiers().contains(Modifier.STATIC)
+                ? types.erasure(handler.declaring.asType()).toString()
+                : "self";
+        return target + '.' + handler.method.getSimpleName();
+    }
+
+    private void writeDispatcher(TypeElement actor, List<Handler> handlers, boolean resolveByClass) throws IOException {
+        PackageElement pkg = elements.getPackageOf(actor);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(actor).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String actorType = types.erasure(actor.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(OnReceiveProcessor.class.getName()).append("\")\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(DISPATCHER_INTERFACE).append(" {\n\n");
+        if (resolveByClass) {
+            // 按具体类解析一次并缓存, 与运行时处理器表的广度优先规则一致
+            source.append("    private static final Class<?>[] TYPES = {");
+            for (int i = 0; i < handlers.size(); i++) {
+                source.append(i == 0 ? "" : ", ").append(handlers.get(i).messageType).append(".class");
+            }
+            source.append("};\n\n");
+            source.append("    private static final ClassValue<Integer> HANDLERS = new ClassValue<>() {\n");
+            source.append("        @Override\n");
+            source.append("        protected Integer computeValue(Class<?> type) {\n");
+            source.append("            return ").append(DISPATCHER_INTERFACE).append(".nearest(type, TYPES);\n");
+            source.append("        }\n");
+            source.append("    };\n\n");
+        }
+        source.append("    @Override\n");
+        source.append("    public boolean dispatch(Object actor, Object message) throws Throwable {\n");
+        source.append("        ").append(actorType).append(" self = (").append(actorType).append(") actor;\n");
+        boolean unconditional = false;
+        if (resolveByClass) {
+            source.append("        switch (HANDLERS.get(message.getClass())) {\n");
+            for (int i = 0; i < handlers.size(); i++) {
+                Handler handler = handlers.get(i);
+                source.append("            case ").append(i).append(" -> ").append(invocation(handler))
+                        .append("((").append(handler.messageType).append(") message);\n");
+            }
+        } else {
+            source.append("        switch (message) {\n");
+            for (Handler handler : handlers) {
+                String messageType = handler.messageType.toString();
+                source.append("            case ").append(messageType).append(" m -> ").append(invocation(handler)).append("(m);\n");
+                unconditional |= messageType.equals("java.lang.Object");
+            }
+        }
+        if (!unconditional) {
+            source.append("            default -> {\n");
+            source.append("                return false;\n");
+            source.append("            }\n");
+        }
+        source.append("        }\n");
+        source.append("        return true;\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = filer.createSourceFile(qualifiedName, actor);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private record Handler(TypeMirror messageType, TypeElement declaring, ExecutableElement method, int order) {
+        boolean isInterface() {
+            return ((DeclaredType) messageType).asElement().getKind() == ElementKind.INTERFACE;
+        }
+
+        boolean isFinal() {
+            Element element = ((DeclaredType) messageType).asElement();
+            return element.getKind() == ElementKind.RECORD || element.getKind() == ElementKind.ENUM
+                    || element.getModifiers().contains(Modifier.FINAL);
+        }
+    }
+}
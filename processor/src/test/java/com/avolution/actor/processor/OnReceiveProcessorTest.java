@@ -0,0 +1,244 @@
+package com.avolution.actor.processor;
+
+import com.avolution.actor.core.GeneratedDispatcher;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OnReceiveProcessorTest {
+
+    private static final String SHAPE_ACTOR = """
+            package sample;
+
+            import com.avolution.actor.core.annotation.OnReceive;
+            import java.util.ArrayList;
+            import java.util.List;
+
+            public class ShapeActor {
+                public sealed interface Shape permits Circle, Square {}
+                public record Circle(int radius) implements Shape {}
+                public record Square(int side) implements Shape {}
+
+                public final List<String> received = new ArrayList<>();
+
+                @OnReceive(Shape.class)
+                void onShape(Shape shape) { received.add("shape"); }
+
+                @OnReceive(Square.class)
+                void onSquare(Square square) { received.add("square"); }
+
+                @OnReceive(String.class)
+                public void onText(String text) throws java.io.IOException {
+                    if (text.isEmpty()) {
+                        throw new java.io.IOException("empty");
+                    }
+                    received.add(text);
+                }
+            }
+            """;
+
+    private static final String CHILD_ACTOR = """
+            package sample;
+
+            import com.avolution.actor.core.annotation.OnReceive;
+
+            public class ChildActor extends ShapeActor {
+                @OnReceive(Square.class)
+                void onChildSquare(Square square) { received.add("child-square"); }
+            }
+            """;
+
+    private static final String PRIVATE_ACTOR = """
+            package sample;
+
+            import com.avolution.actor.core.annotation.OnReceive;
+
+            public class PrivateActor {
+                @OnReceive(String.class)
+                private void onText(String text) {}
+            }
+            """;
+
+    // 类处理器和接口处理器可能同时匹配, 胜出者取决于消息的具体类
+    private static final String MIXED_ACTOR = """
+            package sample;
+
+            import com.avolution.actor.core.annotation.OnReceive;
+            import java.util.ArrayList;
+            import java.util.List;
+
+            public class MixedActor {
+                public interface Tagged {}
+                public static class Base {}
+                public static class Middle extends Base {}
+                public static class Near extends Middle implements Tagged {}
+                public static class Far extends Base implements Tagged {}
+                public static class Plain extends Middle {}
+                public static class OnlyTagged implements Tagged {}
+
+                public final List<String> received = new ArrayList<>();
+
+                @OnReceive(Base.class)
+                void onBase(Base base) { received.add("base"); }
+
+                @OnReceive(Tagged.class)
+                void onTagged(Tagged tagged) { received.add("tagged"); }
+            }
+            """;
+
+    @TempDir
+    static Path output;
+    private static ClassLoader loader;
+    private static ClassLoader reflectiveLoader;
+    private static List<String> notes;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-d", output.toString(), "-s", output.toString(),
+                            "-classpath", System.getProperty("java.class.path")),
+                    null,
+                    List.of(source("sample.ShapeActor", SHAPE_ACTOR),
+                            source("sample.ChildActor", CHILD_ACTOR),
+                            source("sample.PrivateActor", PRIVATE_ACTOR),
+                            source("sample.MixedActor", MIXED_ACTOR)));
+            task.setProcessors(List.of(new OnReceiveProcessor()));
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+
+            // 不运行注解处理器再编译一份, 运行时走反射处理器表
+            Path reflective = Files.createDirectories(output.resolve("reflective"));
+            JavaCompiler.CompilationTask plain = compiler.getTask(null, fileManager, null,
+                    List.of("-proc:none", "-d", reflective.toString(),
+                            "-classpath", System.getProperty("java.class.path")),
+                    null, List.of(source("sample.MixedActor", MIXED_ACTOR)));
+            assertTrue(plain.call());
+            reflectiveLoader = new URLClassLoader(new URL[]{reflective.toUri().toURL()}, OnReceiveProcessorTest.class.getClassLoader());
+        }
+        notes = diagnostics.getDiagnostics().stream().map(d -> d.getMessage(null)).toList();
+        loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, OnReceiveProcessorTest.class.getClassLoader());
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private static GeneratedDispatcher dispatcherFor(String actorClass) throws Exception {
+        Class<?> type = Class.forName(actorClass + OnReceiveProcessor.SUFFIX, true, loader);
+        return (GeneratedDispatcher) type.getDeclaredConstructor().newInstance();
+    }
+
+    private static Object newInstance(String className, Object... args) throws Exception {
+        return newInstance(loader, className, args);
+    }
+
+    private static Object newInstance(ClassLoader classLoader, String className, Object... args) throws Exception {
+        Class<?> type = Class.forName(className, true, classLoader);
+        Class<?>[] parameterTypes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            parameterTypes[i] = args[i] instanceof Integer ? int.class : args[i].getClass();
+        }
+        return type.getDeclaredConstructor(parameterTypes).newInstance(args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> received(Object actor) throws Exception {
+        return (List<String>) actor.getClass().getField("received").get(actor);
+    }
+
+    @Test
+    @DisplayName("生成的分发器按最具体的类型调用处理器")
+    void testDispatch() throws Throwable {
+        GeneratedDispatcher dispatcher = dispatcherFor("sample.ShapeActor");
+        Object actor = newInstance("sample.ShapeActor");
+
+        assertTrue(dispatcher.dispatch(actor, newInstance("sample.ShapeActor$Circle", 1)));
+        assertTrue(dispatcher.dispatch(actor, newInstance("sample.ShapeActor$Square", 2)));
+        assertTrue(dispatcher.dispatch(actor, "hello"));
+        assertFalse(dispatcher.dispatch(actor, 42));
+
+        assertEquals(List.of("shape", "square", "hello"), received(actor));
+    }
+
+    @Test
+    @DisplayName("子类的分发器包含继承的处理器, 同一类型以子类为准")
+    void testInherited() throws Throwable {
+        GeneratedDispatcher dispatcher = dispatcherFor("sample.ChildActor");
+        Object actor = newInstance("sample.ChildActor");
+
+        dispatcher.dispatch(actor, newInstance("sample.ShapeActor$Circle", 1));
+        dispatcher.dispatch(actor, newInstance("sample.ShapeActor$Square", 2));
+
+        assertEquals(List.of("shape", "child-square"), received(actor));
+    }
+
+    @Test
+    @DisplayName("处理器的受检异常原样传出")
+    void testCheckedException() throws Exception {
+        GeneratedDispatcher dispatcher = dispatcherFor("sample.ShapeActor");
+        Object actor = newInstance("sample.ShapeActor");
+
+        IOException thrown = assertThrows(IOException.class, () -> dispatcher.dispatch(actor, ""));
+        assertEquals("empty", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("私有处理器不生成分发器, 运行时退回到反射")
+    void testPrivateHandlerFallsBack() {
+        assertFalse(Files.exists(output.resolve("sample/PrivateActor" + OnReceiveProcessor.SUFFIX + ".java")));
+        assertThrows(ClassNotFoundException.class,
+                () -> Class.forName("sample.PrivateActor" + OnReceiveProcessor.SUFFIX, true, loader));
+        assertTrue(notes.stream().anyMatch(note -> note.contains("sample.PrivateActor")));
+    }
+
+    @Test
+    @DisplayName("类和接口处理器同时匹配时, 生成的分发器与反射处理器表选择同一个处理器")
+    void testAgreesWithHandlerTable() throws Throwable {
+        GeneratedDispatcher dispatcher = dispatcherFor("sample.MixedActor");
+        Object generatedActor = newInstance("sample.MixedActor");
+
+        Class<?> tableClass = Class.forName("com.avolution.actor.core.ActorHandlerTable");
+        Method forClass = tableClass.getDeclaredMethod("forClass", Class.class);
+        Method dispatch = tableClass.getDeclaredMethod("dispatch", Object.class, Object.class);
+        forClass.setAccessible(true);
+        dispatch.setAccessible(true);
+        Object reflectiveActor = newInstance(reflectiveLoader, "sample.MixedActor");
+        Object table = forClass.invoke(null, reflectiveActor.getClass());
+
+        List<String> messages = List.of("Near", "Far", "Plain", "OnlyTagged", "Base");
+        for (String message : messages) {
+            assertTrue(dispatcher.dispatch(generatedActor, newInstance("sample.MixedActor$" + message)));
+            assertTrue((Boolean) dispatch.invoke(table, reflectiveActor, newInstance(reflectiveLoader, "sample.MixedActor$" + message)));
+        }
+        assertFalse(dispatcher.dispatch(generatedActor, "text"));
+
+        // Near 经接口距离1, 经父类距离2; Far 距离相同时父类优先
+        assertEquals(List.of("tagged", "base", "base", "tagged", "base"), received(reflectiveActor));
+        assertEquals(received(reflectiveActor), received(generatedActor));
+    }
+}